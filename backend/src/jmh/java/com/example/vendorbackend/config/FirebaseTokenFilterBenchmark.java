@@ -0,0 +1,73 @@
+package com.example.vendorbackend.config;
+
+import com.google.firebase.auth.FirebaseToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.lang.reflect.Constructor;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-request cost of FirebaseTokenFilter on an /api path with a stubbed verifier (no RSA check):
+ * a repeated token served from the token cache vs. a new token every request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FirebaseTokenFilterBenchmark {
+
+    private static final FilterChain NOOP = (req, res) -> { };
+
+    private FirebaseTokenFilter filter;
+    private MockHttpServletRequest cachedRequest;
+    private MockHttpServletResponse response;
+    private final AtomicLong tokenSeq = new AtomicLong();
+
+    @Setup
+    public void setUp() throws Exception {
+        long exp = Instant.now().plus(Duration.ofHours(1)).getEpochSecond();
+        Constructor<FirebaseToken> ctor = FirebaseToken.class.getDeclaredConstructor(Map.class);
+        ctor.setAccessible(true);
+        FirebaseToken token = ctor.newInstance(Map.<String, Object>of("sub", "user-1", "exp", exp));
+
+        FirebaseTokenVerifier verifier = new FirebaseTokenVerifier((idToken, checkRevoked) -> token,
+                new SimpleMeterRegistry(), 100_000, Duration.ofMinutes(5), false, Clock.systemUTC());
+        filter = new FirebaseTokenFilter(verifier);
+
+        cachedRequest = request("header.payload.signature-" + "x".repeat(800));
+        response = new MockHttpServletResponse();
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/vendors");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    @Benchmark
+    public Object cachedToken() throws Exception {
+        filter.doFilter(cachedRequest, response, NOOP);
+        SecurityContextHolder.clearContext();
+        return cachedRequest.getAttribute("userId");
+    }
+
+    @Benchmark
+    public Object newToken() throws Exception {
+        MockHttpServletRequest request = request("header.payload.signature-" + tokenSeq.incrementAndGet());
+        filter.doFilter(request, response, NOOP);
+        SecurityContextHolder.clearContext();
+        return request.getAttribute("userId");
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.vendorbackend.controller;
+
+import com.example.vendorbackend.model.Vendor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Jackson serialization of a GET /api/vendors response body, with Boot's default ObjectMapper setup. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VendorJsonBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int size;
+
+    private ObjectWriter writer;
+    private List<Vendor> vendors;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, Vendor.class));
+        vendors = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Vendor v = new Vendor();
+            v.setId("v" + i);
+            v.setName("Vendor " + i);
+            v.setCategory("Catering");
+            v.setCity("Baku");
+            v.setRepresentative("Jane Doe");
+            v.setContact("+994 50 000 00 00");
+            v.setPrice(BigDecimal.valueOf(1000 + i % 500));
+            v.setNotes("Delivers on weekends");
+            v.setRatingSum(4.0 * (i % 20));
+            v.setRatingCount(i % 20);
+            v.setImages(List.of("https://example.com/" + i + ".png"));
+            vendors.add(v);
+        }
+    }
+
+    @Benchmark
+    public long serialize() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        writer.writeValue(out, vendors);
+        return out.count;
+    }
+
+    /** Discards the bytes so only serialization is measured, not buffer growth. */
+    static final class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
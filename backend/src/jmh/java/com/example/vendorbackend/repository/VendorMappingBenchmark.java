@@ -0,0 +1,72 @@
+package com.example.vendorbackend.repository;
+
+import com.example.vendorbackend.model.Vendor;
+import com.google.cloud.NoCredentials;
+import com.google.cloud.firestore.BenchmarkSnapshots;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.FirestoreOptions;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/** DocumentSnapshot -> Vendor mapping done for every document a Firestore read returns. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VendorMappingBenchmark {
+
+    private Firestore db;
+    private DocumentSnapshot current;
+    private DocumentSnapshot legacy;
+
+    @Setup
+    public void setUp() {
+        // Ağ bağlantısı açılmaz; sadece snapshot kurmak için client
+        db = FirestoreOptions.newBuilder()
+                .setProjectId("bench")
+                .setCredentials(NoCredentials.getInstance())
+                .build()
+                .getService();
+
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("name", "Vendor 42");
+        fields.put("category", "Catering");
+        fields.put("city", "Baku");
+        fields.put("representative", "Jane Doe");
+        fields.put("contact", "+994 50 000 00 00");
+        fields.put("price", 1250.5);
+        fields.put("notes", "Delivers on weekends");
+        fields.put("agreementNumber", "AG-2024-042");
+        fields.put("bankAccount", "AZ00NABZ00000000000000000000");
+        fields.put("images", List.of("https://example.com/a.png", "https://example.com/b.png"));
+        fields.put("rating", 4.2);
+        fields.put("ratingCount", 17L);
+
+        Map<String, Object> withSum = new HashMap<>(fields);
+        withSum.put("ratingSum", 71.4);
+        current = BenchmarkSnapshots.document(db, "vendors/v42", withSum);
+        legacy = BenchmarkSnapshots.document(db, "vendors/v43", fields);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        db.close();
+    }
+
+    @Benchmark
+    public Vendor toVendor() {
+        return FirestoreVendorStore.toVendor(current);
+    }
+
+    @Benchmark
+    public Vendor toVendorWithoutRatingSum() {
+        return FirestoreVendorStore.toVendor(legacy);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.vendorbackend.service;
+
+import com.example.vendorbackend.model.Vendor;
+import com.example.vendorbackend.repository.RatingStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RatingService's in-process work per rating batch: validation, the running sum/count delta the
+ * stores compute, cache invalidation and metrics. The store keeps state in memory, so this is the
+ * overhead on top of the Firestore/JPA round trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RatingServiceBenchmark {
+
+    @Param({"1", "100"})
+    public int usersPerBatch;
+
+    private RatingService service;
+    private Map<String, Double> batch;
+    private Vendor vendor;
+
+    @Setup
+    public void setUp() {
+        vendor = new Vendor();
+        vendor.setId("v1");
+        Map<String, Double> previous = new ConcurrentHashMap<>();
+
+        // Gerçek store'lardaki delta hesabı: yeni kullanıcı count'u artırır, eskisi sadece farkı ekler
+        RatingStore inMemory = new RatingStore() {
+            @Override
+            public Vendor submitRatings(String vendorId, Map<String, Double> valuesByUser) {
+                double deltaSum = 0.0;
+                int deltaCount = 0;
+                for (Map.Entry<String, Double> e : valuesByUser.entrySet()) {
+                    Double old = previous.put(e.getKey() + "_" + vendorId, e.getValue());
+                    if (old == null) {
+                        deltaSum += e.getValue();
+                        deltaCount++;
+                    } else {
+                        deltaSum += e.getValue() - old;
+                    }
+                }
+                vendor.setRatingSum(vendor.getRatingSum() + deltaSum);
+                vendor.setRatingCount(vendor.getRatingCount() + deltaCount);
+                return vendor;
+            }
+
+            @Override
+            public SortedSet<String> ratedVendorIds(String userId, String afterId, int limit) {
+                return new TreeSet<>(); // benchmark yalnızca yazma yolunu ölçer
+            }
+        };
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        service = new RatingService(inMemory, new VendorCache(registry, 10_000, Duration.ofMinutes(1)),
+                new StoreMetrics(registry), event -> { });
+
+        batch = new HashMap<>();
+        for (int i = 0; i < usersPerBatch; i++) {
+            batch.put("u" + i, (double) (i % 6));
+        }
+    }
+
+    @Benchmark
+    public double submitRatings() {
+        return service.submitRatings("v1", batch).getRating();
+    }
+
+    @Benchmark
+    public double submitRating() {
+        return service.submitRating("u0", "v1", 4.0).getRating();
+    }
+}
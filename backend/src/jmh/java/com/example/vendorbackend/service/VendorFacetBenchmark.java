@@ -0,0 +1,61 @@
+package com.example.vendorbackend.service;
+
+import com.example.vendorbackend.dto.VendorFacetPage;
+import com.example.vendorbackend.model.Vendor;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * VendorFacetIndex: one page plus the counts of every category, city and rating bucket, with no
+ * filter, a dense filter (one category) and a sparse one (category + city + rating bucket).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VendorFacetBenchmark {
+
+    @Param({"100000"})
+    public int vendors;
+
+    @Param({"none", "category", "category+city+rating"})
+    public String filter;
+
+    private VendorFacetIndex index;
+    private Map<String, Set<String>> selected;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<Vendor> all = new ArrayList<>(vendors);
+        for (int i = 0; i < vendors; i++) {
+            Vendor v = new Vendor();
+            v.setId(String.format("v%06d", i));
+            v.setCategory("Category " + random.nextInt(40));
+            v.setCity("City " + random.nextInt(200));
+            int ratings = random.nextInt(4);
+            v.setRatingCount(ratings);
+            v.setRatingSum(ratings * random.nextDouble() * 5);
+            all.add(v);
+        }
+        index = new VendorFacetIndex(Duration.ofDays(1));
+        index.load(() -> CompletableFuture.completedFuture(all)).join();
+        selected = switch (filter) {
+            case "category" -> Map.of("category", Set.of("Category 7"));
+            case "category+city+rating" -> Map.of("category", Set.of("Category 7"), "city", Set.of("City 12", "City 13"),
+                    "rating", Set.of("4-5"));
+            default -> Map.of();
+        };
+    }
+
+    @Benchmark
+    public VendorFacetPage facets() {
+        return index.facets(selected, 50, null);
+    }
+}
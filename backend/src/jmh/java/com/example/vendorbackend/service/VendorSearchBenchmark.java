@@ -0,0 +1,61 @@
+package com.example.vendorbackend.service;
+
+import com.example.vendorbackend.model.Vendor;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * VendorSearchIndex queries over a loaded index: exact word, short prefix, one-typo word and a
+ * two-word AND query. The target is single-digit milliseconds at 100k vendors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VendorSearchBenchmark {
+
+    private static final String[] WORDS = {"bakery", "print", "house", "garden", "market", "studio", "kebab",
+            "coffee", "textile", "repair", "logistics", "pharmacy", "florist", "bistro", "hardware", "tailor"};
+    private static final String[] CATEGORIES = {"Food", "Printing", "Retail", "Services", "Health"};
+    private static final String[] CITIES = {"Baku", "Ganja", "Sumqayit", "Şəki", "Lankaran", "Quba"};
+
+    @Param({"100000"})
+    public int vendors;
+
+    @Param({"bakery", "ba", "bakrey", "print baku"})
+    public String query;
+
+    private VendorSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<Vendor> all = new ArrayList<>(vendors);
+        for (int i = 0; i < vendors; i++) {
+            Vendor v = new Vendor();
+            v.setId(String.format("v%06d", i));
+            // kelime + sayı: gerçek veride olduğu gibi geniş bir sözlük
+            v.setName(WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i);
+            v.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            v.setCity(CITIES[random.nextInt(CITIES.length)]);
+            v.setRepresentative("rep" + random.nextInt(5_000));
+            v.setNotes(random.nextInt(4) == 0 ? WORDS[random.nextInt(WORDS.length)] + " notes" : null);
+            all.add(v);
+        }
+        index = new VendorSearchIndex(Duration.ofDays(1));
+        index.load(() -> CompletableFuture.completedFuture(all)).join();
+    }
+
+    @Benchmark
+    public List<Vendor> search() {
+        return index.search(query, 20);
+    }
+}
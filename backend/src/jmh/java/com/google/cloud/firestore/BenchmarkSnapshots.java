@@ -0,0 +1,17 @@
+package com.google.cloud.firestore;
+
+import java.util.Map;
+
+/**
+ * Builds real DocumentSnapshots without a server round trip. The factories are package-private
+ * in the Firestore client, hence this benchmark-only class lives in its package.
+ */
+public final class BenchmarkSnapshots {
+
+    private BenchmarkSnapshots() {
+    }
+
+    public static DocumentSnapshot document(Firestore db, String path, Map<String, Object> fields) {
+        return DocumentSnapshot.fromObject((FirestoreImpl) db, db.document(path), fields, UserDataConverter.NO_DELETES);
+    }
+}
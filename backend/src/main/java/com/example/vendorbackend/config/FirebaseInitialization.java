@@ -1,9 +1,13 @@
 package com.example.vendorbackend.config;
 
+import com.google.auth.oauth2.AccessToken;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.FirebaseOptions;
 import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.ClassPathResource;
 
@@ -12,34 +16,53 @@ import java.io.IOException;
 @Configuration
 public class FirebaseInitialization {
 
+    private static final Logger log = LoggerFactory.getLogger(FirebaseInitialization.class);
+
+    // demo-* projeleri sadece emulator'da vardır; gerçek projeye hiç bağlanılmaz
+    @Value("${firebase.project-id:primehub-1c5f6}")
+    private String projectId;
+
     @PostConstruct
     public void init() throws IOException {
         if (FirebaseApp.getApps().isEmpty()) {
             GoogleCredentials creds;
-            try {
-                // Try to use Application Default Credentials (works in Cloud Run)
-                creds = GoogleCredentials.getApplicationDefault();
-                System.out.println("🔥 Using Application Default Credentials");
-            } catch (IOException ex) {
-                System.out.println("🔥 Application Default Credentials not available, trying service account file...");
-                try {
-                    var in = new ClassPathResource("firebase-service-account.json").getInputStream();
-                    creds = GoogleCredentials.fromStream(in);
-                    System.out.println("🔥 Using service account file");
-                } catch (IOException fileEx) {
-                    System.err.println("❌ Firebase authentication failed: " + fileEx.getMessage());
-                    throw new RuntimeException("Failed to initialize Firebase credentials", fileEx);
-                }
+            if (System.getenv("FIRESTORE_EMULATOR_HOST") != null || projectId.startsWith("demo-")) {
+                // Emulator / yerel load test: kimlik bilgisi gerekmez
+                creds = GoogleCredentials.create(new AccessToken("owner", null));
+                log.info("Using placeholder credentials for project {} (emulator host: {})",
+                        projectId, System.getenv("FIRESTORE_EMULATOR_HOST"));
+            } else {
+                creds = loadCredentials();
             }
 
             FirebaseOptions options = FirebaseOptions.builder()
                     .setCredentials(creds)
-                    .setProjectId("primehub-1c5f6") // Match current GCloud project
+                    .setProjectId(projectId) // Match current GCloud project
                     .build();
 
             FirebaseApp.initializeApp(options);
-            System.out.println("🔥 Firebase initialized successfully with project: " +
+            log.info("Firebase initialized successfully with project: {}",
                     FirebaseApp.getInstance().getOptions().getProjectId());
         }
     }
+
+    private static GoogleCredentials loadCredentials() {
+        try {
+            // Try to use Application Default Credentials (works in Cloud Run)
+            GoogleCredentials creds = GoogleCredentials.getApplicationDefault();
+            log.info("Using Application Default Credentials");
+            return creds;
+        } catch (IOException ex) {
+            log.info("Application Default Credentials not available, trying service account file...");
+            try {
+                var in = new ClassPathResource("firebase-service-account.json").getInputStream();
+                GoogleCredentials creds = GoogleCredentials.fromStream(in);
+                log.info("Using service account file");
+                return creds;
+            } catch (IOException fileEx) {
+                log.error("Firebase authentication failed: {}", fileEx.getMessage());
+                throw new RuntimeException("Failed to initialize Firebase credentials", fileEx);
+            }
+        }
+    }
 }
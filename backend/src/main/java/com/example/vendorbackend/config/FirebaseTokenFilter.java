@@ -1,12 +1,13 @@
 package com.example.vendorbackend.config;
 
-import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseAuthException;
 import com.google.firebase.auth.FirebaseToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -20,6 +21,14 @@ import java.util.List;
 
 public class FirebaseTokenFilter extends OncePerRequestFilter {
 
+    private static final Logger log = LoggerFactory.getLogger(FirebaseTokenFilter.class);
+
+    private final FirebaseTokenVerifier verifier;
+
+    public FirebaseTokenFilter(FirebaseTokenVerifier verifier) {
+        this.verifier = verifier;
+    }
+
     private static boolean isWhitelisted(HttpServletRequest request) {
         final String method = request.getMethod();
         final String path = request.getRequestURI();
@@ -51,17 +60,17 @@ public class FirebaseTokenFilter extends OncePerRequestFilter {
         // /api/** için Bearer zorunlu
         String auth = request.getHeader("Authorization");
         if (auth == null || !auth.startsWith("Bearer ")) {
-            System.out.println("❌ No/Bad Authorization header on " + request.getMethod() + " " + path);
+            log.debug("No/Bad Authorization header on {} {}", request.getMethod(), path);
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.setHeader("WWW-Authenticate", "Bearer realm=\"firebase\"");
             return;
         }
 
         String idToken = auth.substring(7).trim();
-        System.out.println("🔎 Authorization header detected, token length=" + idToken.length());
 
         try {
-            FirebaseToken decoded = FirebaseAuth.getInstance().verifyIdToken(idToken);
+            // Aynı oturumun tekrar eden istekleri cache'ten (bkz. FirebaseTokenVerifier)
+            FirebaseToken decoded = verifier.verify(idToken);
 
             // (İstersen custom claim’lerden rol çıkar)
             List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_USER"));
@@ -73,22 +82,20 @@ public class FirebaseTokenFilter extends OncePerRequestFilter {
             SecurityContext context = SecurityContextHolder.createEmptyContext();
             context.setAuthentication(authToken);
             SecurityContextHolder.setContext(context);
+            // Controller'lar (RatingController, ProfileController) uid'yi buradan okur
+            request.setAttribute("userId", decoded.getUid());
 
-            // debug log
-            var claims = decoded.getClaims();
-            System.out.println("✅ Firebase verify OK | uid=" + decoded.getUid()
-                    + " | roles=" + authorities
-                    + " | aud=" + claims.get("aud")
-                    + " | iat=" + claims.get("iat")
-                    + " | exp=" + claims.get("exp"));
+            if (log.isDebugEnabled()) {
+                var claims = decoded.getClaims();
+                log.debug("Firebase verify OK | uid={} | roles={} | aud={} | iat={} | exp={}",
+                        decoded.getUid(), authorities, claims.get("aud"), claims.get("iat"), claims.get("exp"));
+            }
 
             chain.doFilter(request, response);
 
         } catch (FirebaseAuthException ex) {
-            System.out.println("❌ verifyIdToken failed: "
-                    + (ex.getAuthErrorCode() != null ? ex.getAuthErrorCode().name() : "UNKNOWN")
-                    + " | " + ex.getMessage());
-            //ex.printStackTrace(); // gerekirse aç
+            log.info("verifyIdToken failed: {} | {}",
+                    ex.getAuthErrorCode() != null ? ex.getAuthErrorCode().name() : "UNKNOWN", ex.getMessage());
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.setHeader("WWW-Authenticate", "Bearer error=\"invalid_token\"");
         }
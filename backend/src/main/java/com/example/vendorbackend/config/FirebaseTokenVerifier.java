@@ -0,0 +1,140 @@
+package com.example.vendorbackend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseAuthException;
+import com.google.firebase.auth.FirebaseToken;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HexFormat;
+
+/**
+ * Verifies Firebase ID tokens and caches the decoded result.
+ * A session sends the same ID token for up to an hour, so after the first request the filter
+ * only hashes the header and does a map lookup. Entries are keyed by the token's SHA-256 (the raw
+ * token is never kept) and expire at the token's exp claim, but never later than max-ttl: with
+ * auth.check-revoked=true a revoked session is rejected at the latest max-ttl after revocation,
+ * or immediately when {@link #invalidateUser} is called. Failed verifications are not cached.
+ * Cache hits/misses are published as cache.* meters (cache=firebaseTokens), misses are timed
+ * as auth.token.verify{outcome=valid|invalid}.
+ *
+ * The Admin SDK already caches Google's public signing keys according to their Cache-Control
+ * max-age, so a cache miss costs a local RSA signature check, not a key download.
+ */
+@Component
+public class FirebaseTokenVerifier {
+
+    /** Signature/claims check for a raw ID token (FirebaseAuth#verifyIdToken by default). */
+    @FunctionalInterface
+    interface Delegate {
+        FirebaseToken verify(String idToken, boolean checkRevoked) throws FirebaseAuthException;
+    }
+
+    private final Delegate delegate;
+    private final boolean checkRevoked;
+    private final Duration maxTtl;
+    private final Clock clock;
+    private final Cache<String, FirebaseToken> tokens;
+    private final MeterRegistry registry;
+
+    @Autowired
+    public FirebaseTokenVerifier(MeterRegistry registry,
+                                 @Value("${auth.token-cache.max-size:10000}") long maxSize,
+                                 @Value("${auth.token-cache.max-ttl:5m}") Duration maxTtl,
+                                 @Value("${auth.check-revoked:false}") boolean checkRevoked) {
+        this((token, revoked) -> FirebaseAuth.getInstance().verifyIdToken(token, revoked),
+                registry, maxSize, maxTtl, checkRevoked, Clock.systemUTC());
+    }
+
+    FirebaseTokenVerifier(Delegate delegate, MeterRegistry registry, long maxSize,
+                          Duration maxTtl, boolean checkRevoked, Clock clock) {
+        this.delegate = delegate;
+        this.checkRevoked = checkRevoked;
+        this.maxTtl = maxTtl;
+        this.clock = clock;
+        this.registry = registry;
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, FirebaseToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, FirebaseToken token, long currentTime) {
+                        return lifetime(token).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, FirebaseToken token, long currentTime, long currentDuration) {
+                        return lifetime(token).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, FirebaseToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, tokens, "firebaseTokens");
+    }
+
+    public FirebaseToken verify(String idToken) throws FirebaseAuthException {
+        String key = sha256(idToken);
+        FirebaseToken cached = tokens.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "invalid";
+        try {
+            FirebaseToken decoded = delegate.verify(idToken, checkRevoked);
+            outcome = "valid";
+            if (!lifetime(decoded).isZero()) {
+                tokens.put(key, decoded);
+            }
+            return decoded;
+        } finally {
+            sample.stop(Timer.builder("auth.token.verify")
+                    .description("Firebase ID token verifications that missed the cache")
+                    .tag("outcome", outcome)
+                    .register(registry));
+        }
+    }
+
+    /** Drops every cached token of the user; called by AuthService#logout after revoking their refresh tokens. */
+    public void invalidateUser(String uid) {
+        tokens.asMap().values().removeIf(token -> uid.equals(token.getUid()));
+    }
+
+    // exp'e kadar, ama en fazla maxTtl kadar cache'te kalsın
+    private Duration lifetime(FirebaseToken token) {
+        Object exp = token.getClaims().get("exp");
+        if (!(exp instanceof Number seconds)) {
+            return Duration.ZERO;
+        }
+        Duration untilExp = Duration.ofSeconds(seconds.longValue() - clock.instant().getEpochSecond());
+        if (untilExp.isNegative()) {
+            return Duration.ZERO;
+        }
+        return untilExp.compareTo(maxTtl) < 0 ? untilExp : maxTtl;
+    }
+
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
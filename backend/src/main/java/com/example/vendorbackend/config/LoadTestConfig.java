@@ -0,0 +1,132 @@
+package com.example.vendorbackend.config;
+
+import com.example.vendorbackend.repository.RatingStore;
+import com.example.vendorbackend.repository.VendorStore;
+import com.google.firebase.ErrorCode;
+import com.google.firebase.auth.AuthErrorCode;
+import com.google.firebase.auth.FirebaseAuthException;
+import com.google.firebase.auth.FirebaseToken;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wiring for the load-test harness (profile "loadtest", see loadtest/README.md). Never enable in production.
+ * <ul>
+ *   <li>ID tokens of the form {@code loadtest-<uid>} are accepted without a signature check, so the
+ *       generator can act as many users without real Firebase accounts. They still go through
+ *       {@link FirebaseTokenVerifier} and its cache.</li>
+ *   <li>Every VendorStore/RatingStore call is delayed by loadtest.store.latency plus up to
+ *       loadtest.store.jitter, to emulate Firestore round trips on top of the in-memory (jpa/H2) store
+ *       or the emulator. Blocking calls sleep in the caller's thread; calls returning a
+ *       CompletableFuture return at once and run the store call when the delay has passed, like a
+ *       Firestore request in flight.</li>
+ * </ul>
+ */
+@Configuration
+@Profile("loadtest")
+public class LoadTestConfig {
+
+    static final String TOKEN_PREFIX = "loadtest-";
+
+    // Gecikmesi dolan async store çağrıları; jpa store'unun "async" metotları çağıran thread'de bloklar
+    private static final Executor STORE_CALLS = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "loadtest-store");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @Bean
+    @Primary
+    FirebaseTokenVerifier loadTestTokenVerifier(MeterRegistry registry) {
+        return new FirebaseTokenVerifier((idToken, checkRevoked) -> {
+            if (!idToken.startsWith(TOKEN_PREFIX)) {
+                throw new FirebaseAuthException(ErrorCode.INVALID_ARGUMENT,
+                        "Only loadtest-<uid> tokens are accepted in the loadtest profile",
+                        null, null, AuthErrorCode.INVALID_ID_TOKEN);
+            }
+            return fakeToken(idToken.substring(TOKEN_PREFIX.length()));
+        }, registry, 100_000, Duration.ofMinutes(5), false, Clock.systemUTC());
+    }
+
+    // FirebaseToken'ın public constructor'ı yok
+    private static FirebaseToken fakeToken(String uid) {
+        try {
+            Constructor<FirebaseToken> ctor = FirebaseToken.class.getDeclaredConstructor(Map.class);
+            ctor.setAccessible(true);
+            long exp = Instant.now().plus(Duration.ofHours(1)).getEpochSecond();
+            return ctor.newInstance(Map.<String, Object>of("sub", uid, "exp", exp));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create FirebaseToken", e);
+        }
+    }
+
+    @Bean
+    static BeanPostProcessor storeLatencyInjector(@Value("${loadtest.store.latency:0ms}") Duration latency,
+                                                  @Value("${loadtest.store.jitter:0ms}") Duration jitter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (latency.isZero() && jitter.isZero()) {
+                    return bean;
+                }
+                if (bean instanceof VendorStore) {
+                    return delayed(bean, VendorStore.class, latency, jitter);
+                }
+                if (bean instanceof RatingStore) {
+                    return delayed(bean, RatingStore.class, latency, jitter);
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static <T> T delayed(Object target, Class<T> type, Duration latency, Duration jitter) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return invoke(target, method, args);
+            }
+            long nanos = latency.toNanos()
+                    + (jitter.isZero() ? 0 : ThreadLocalRandom.current().nextLong(jitter.toNanos()));
+            if (method.getReturnType() == CompletableFuture.class) {
+                // Async çağrıda çağıran thread uyutulmaz: gecikme dolunca store çağrılır
+                Executor afterDelay = CompletableFuture.delayedExecutor(nanos, TimeUnit.NANOSECONDS, STORE_CALLS);
+                return CompletableFuture.runAsync(() -> { }, afterDelay).thenCompose(ignored -> {
+                    try {
+                        return (CompletableFuture<?>) invoke(target, method, args);
+                    } catch (Throwable t) {
+                        return CompletableFuture.failedFuture(t);
+                    }
+                });
+            }
+            Thread.sleep(Duration.ofNanos(nanos).toMillis(), (int) (nanos % 1_000_000));
+            return invoke(target, method, args);
+        }));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.vendorbackend.config;
 
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -8,22 +9,39 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.header.HeaderWriter;
+import org.springframework.security.web.header.writers.CacheControlHeadersWriter;
+import org.springframework.security.web.header.writers.DelegatingRequestMatcherHeaderWriter;
+import org.springframework.security.web.util.matcher.NegatedRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import org.springframework.web.servlet.HandlerMapping;
 
 import java.util.List;
+import java.util.Set;
 
 @Configuration
 public class SecurityConfig {
 
+    // ETag'li okumalar (VendorController#list, #getById); yanıtta kendi Cache-Control'leri var
+    private static final Set<String> ETAGGED_READS = Set.of("/api/vendors", "/api/vendors/{id}");
+
     @Bean
-    SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    SecurityFilterChain filterChain(HttpSecurity http, FirebaseTokenVerifier tokenVerifier) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
                 .cors(cors -> {}) // bean aşağıda
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .headers(headers -> headers
+                        .cacheControl(cache -> cache.disable())
+                        .addHeaderWriter(cacheControlHeaders()))
                 .authorizeHttpRequests(auth -> auth
+                        // CompletableFuture dönen controller'ların sonucu ASYNC dispatch ile yazılır;
+                        // istek ilk (REQUEST) dispatch'te zaten doğrulandı
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // Preflight
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
 
@@ -45,18 +63,32 @@ public class SecurityConfig {
                         })
                 )
                 // Custom JWT filtremiz UsernamePasswordAuthenticationFilter'dan önce
-                .addFilterBefore(new FirebaseTokenFilter(), UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(new FirebaseTokenFilter(tokenVerifier), UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
 
+    /**
+     * Spring Security's no-store Cache-Control for every response except the ETag'd vendor reads,
+     * which send {@code no-cache, private} so clients revalidate. The writer would skip a response
+     * that already has Cache-Control, but the filter writes when the request dispatch returns, which
+     * for a CompletableFuture handler is before the result sets its headers; both ended up in the
+     * response. The matched MVC pattern is known by then, so those reads are left out up front.
+     */
+    static HeaderWriter cacheControlHeaders() {
+        RequestMatcher etaggedRead = request -> "GET".equals(request.getMethod())
+                && ETAGGED_READS.contains(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+        return new DelegatingRequestMatcherHeaderWriter(new NegatedRequestMatcher(etaggedRead),
+                new CacheControlHeadersWriter());
+    }
+
     @Bean
     CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration cfg = new CorsConfiguration();
         cfg.setAllowedOrigins(List.of("http://localhost:3000"));
-        cfg.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-        cfg.setAllowedHeaders(List.of("authorization", "content-type"));
-        cfg.setExposedHeaders(List.of("Location"));
+        cfg.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
+        cfg.setAllowedHeaders(List.of("authorization", "content-type", "if-match", "if-none-match"));
+        cfg.setExposedHeaders(List.of("Location", "ETag"));
         cfg.setAllowCredentials(false);
         cfg.setMaxAge(3600L);
 
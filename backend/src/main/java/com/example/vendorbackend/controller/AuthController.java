@@ -3,6 +3,7 @@ package com.example.vendorbackend.controller;
 import com.example.vendorbackend.dto.LoginRequest;
 import com.example.vendorbackend.dto.SignupRequest;
 import com.example.vendorbackend.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -23,6 +24,13 @@ public class AuthController {
         return authService.login(request);
     }
 
+    // Kullanıcının tüm oturumlarını kapatır (bkz. AuthService#logout)
+    @PostMapping("/logout")
+    public String logout(HttpServletRequest request) throws Exception {
+        authService.logout((String) request.getAttribute("userId"));
+        return "Logged out";
+    }
+
     @PostMapping("/forgot-password")
     public String forgotPassword(@RequestParam String email) throws Exception {
         authService.sendPasswordReset(email);
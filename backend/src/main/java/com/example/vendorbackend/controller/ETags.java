@@ -0,0 +1,76 @@
+package com.example.vendorbackend.controller;
+
+import com.example.vendorbackend.dto.VendorPage;
+import com.example.vendorbackend.model.Vendor;
+
+import java.util.Collection;
+
+/**
+ * Strong ETags for vendor resources, derived from {@link Vendor#getVersion()} (Firestore update time).
+ * A list's ETag combines its size with the maximum and the sum of its members' versions, so any write,
+ * create or delete among them changes it. Vendors without a version get no ETag.
+ */
+final class ETags {
+
+    private ETags() { }
+
+    static String of(Vendor v) {
+        return v.getVersion() == null ? null : quote(Long.toString(v.getVersion(), 36));
+    }
+
+    static String of(Collection<Vendor> vendors) {
+        long max = 0;
+        long sum = 0;
+        for (Vendor v : vendors) {
+            if (v.getVersion() == null) return null;
+            max = Math.max(max, v.getVersion());
+            sum += v.getVersion();
+        }
+        return quote("l" + vendors.size() + "-" + Long.toString(max, 36) + "-" + Long.toHexString(sum));
+    }
+
+    static String of(VendorPage page) {
+        String items = of(page.getItems());
+        if (items == null) return null;
+        String next = page.getNextPageToken() == null ? "" : page.getNextPageToken();
+        return quote(unquote(items) + "-" + Integer.toHexString(next.hashCode()));
+    }
+
+    /** If-None-Match (weak comparison): true if the client already has {@code etag}. */
+    static boolean matchesNone(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) return true;
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * The version an If-Match header requires, or null when there is no header or it is "*".
+     * Throws IllegalArgumentException for anything that cannot match a vendor's strong ETag
+     * (weak or malformed tags, lists).
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) return null;
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new IllegalArgumentException("If-Match must be a single strong ETag");
+        }
+        try {
+            return Long.parseLong(unquote(tag), 36);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("If-Match does not name a vendor version", e);
+        }
+    }
+
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+
+    private static String unquote(String etag) {
+        return etag.substring(1, etag.length() - 1);
+    }
+}
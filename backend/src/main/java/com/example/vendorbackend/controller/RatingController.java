@@ -1,41 +1,105 @@
 package com.example.vendorbackend.controller;
 
-import com.example.vendorbackend.model.Vendor;
+import com.example.vendorbackend.dto.VendorPage;
+import com.example.vendorbackend.dto.VendorSummaryPage;
+import com.example.vendorbackend.repository.Futures;
+import com.example.vendorbackend.service.RatingIngestQueue;
 import com.example.vendorbackend.service.RatingService;
+import com.example.vendorbackend.service.VendorService;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/rate-vendors")
 public class RatingController {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final RatingService ratingService;
+    private final VendorService vendorService;
+    private final Optional<RatingIngestQueue> ingestQueue; // ratings.ingest.mode=async ise var
 
-    public RatingController(RatingService ratingService) {
+    public RatingController(RatingService ratingService, VendorService vendorService,
+                            Optional<RatingIngestQueue> ingestQueue) {
         this.ratingService = ratingService;
+        this.vendorService = vendorService;
+        this.ingestQueue = ingestQueue;
     }
 
+    // Kullanıcının henüz puanlamadığı vendor'lar, /api/vendors?limit= ile aynı sıra ve pageToken ile.
+    // Puanlanan id'ler kullanıcı başına index'ten, sayfanın id aralığı kadar okunur (ratings taranmaz);
+    // ?fields= sparse fieldset.
     @GetMapping
-    public Object getUnratedVendors(HttpServletRequest request) {
-        // String userId = (String) request.getAttribute("userId");
-        // Firestore'dan userId için unrated vendors döndür (gelecekte)
-        return List.of();
+    public CompletableFuture<ResponseEntity<?>> getUnratedVendors(HttpServletRequest request,
+                                                                  @RequestParam(required = false) Integer limit,
+                                                                  @RequestParam(required = false) String pageToken,
+                                                                  @RequestParam(required = false) List<String> fields) {
+        String userId = (String) request.getAttribute("userId");
+        if (userId == null) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        Set<String> only;
+        try {
+            only = VendorController.projection(fields);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        CompletableFuture<VendorPage> unrated;
+        try {
+            unrated = vendorService.findPageExcludingAsync(
+                    (afterId, n) -> ratingService.ratedVendorIdsAsync(userId, afterId, n), pageSize, pageToken, only);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build()); // bozuk pageToken
+        }
+        return unrated.<ResponseEntity<?>>thenApply(page -> ResponseEntity.ok(only == null
+                ? page
+                : new VendorSummaryPage(VendorController.summaries(page.getItems(), only), page.getNextPageToken())));
     }
 
     @PostMapping
-    public ResponseEntity<Vendor> submitRating(HttpServletRequest request, @RequestBody Map<String,Object> body) {
+    public CompletableFuture<ResponseEntity<?>> submitRating(HttpServletRequest request,
+                                                             @RequestBody Map<String,Object> body) {
         String userId = (String) request.getAttribute("userId");
         String vendorId = (String) body.get("vendorId");
         Object valueObj = body.get("rating");
-        if (userId == null || vendorId == null || valueObj == null) {
-            return ResponseEntity.badRequest().build();
+        if (userId == null || vendorId == null || !(valueObj instanceof Number)) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
         }
         double value = ((Number) valueObj).doubleValue();
-        Vendor updated = ratingService.submitRating(userId, vendorId, value);
-        return ResponseEntity.ok(updated);
+        if (value < 0.0 || value > 5.0) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+
+        if (ingestQueue.isPresent()) {
+            // Kuyruğa al ve hemen dön; yazma arka planda toplu yapılır
+            if (!ingestQueue.get().offer(userId, vendorId, value)) {
+                return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .build());
+            }
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.accepted().body(Map.of("status", "queued", "vendorId", vendorId)));
+        }
+
+        return ratingService.submitRatingAsync(userId, vendorId, value)
+                .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+                .exceptionally(error -> {
+                    if (VendorController.isVendorNotFound(error)) {
+                        return ResponseEntity.notFound().build();
+                    }
+                    throw new CompletionException(Futures.unwrap(error));
+                });
     }
 }
@@ -0,0 +1,33 @@
+package com.example.vendorbackend.controller;
+
+import com.example.vendorbackend.dto.BatchRequest;
+import com.example.vendorbackend.dto.BatchResponse;
+import com.example.vendorbackend.service.VendorService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.CompletableFuture;
+
+// Çok sayıda create/patch/delete tek istekte; sonuçlar işlem sırasıyla döner
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "http://localhost:3000")
+public class VendorBatchController {
+
+    private static final int MAX_OPERATIONS_PER_REQUEST = 5000;
+
+    private final VendorService vendorService;
+
+    public VendorBatchController(VendorService vendorService) {
+        this.vendorService = vendorService;
+    }
+
+    @PostMapping("/vendors:batch")
+    public CompletableFuture<ResponseEntity<BatchResponse>> batch(@RequestBody BatchRequest request) {
+        if (request == null || request.getOperations() == null || request.getOperations().isEmpty()
+                || request.getOperations().size() > MAX_OPERATIONS_PER_REQUEST) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        return vendorService.batchAsync(request.getOperations()).thenApply(ResponseEntity::ok);
+    }
+}
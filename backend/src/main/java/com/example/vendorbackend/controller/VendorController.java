@@ -1,124 +1,322 @@
 package com.example.vendorbackend.controller;
 
 import com.example.vendorbackend.dto.RatingUpdateRequest;
+import com.example.vendorbackend.dto.VendorPage;
+import com.example.vendorbackend.dto.VendorSummary;
+import com.example.vendorbackend.dto.VendorSummaryPage;
 import com.example.vendorbackend.model.Vendor;
+import com.example.vendorbackend.repository.Futures;
+import com.example.vendorbackend.repository.VendorNotFoundException;
+import com.example.vendorbackend.repository.VendorVersionMismatchException;
+import com.example.vendorbackend.service.RatingService;
 import com.example.vendorbackend.service.VendorService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/vendors")
 @CrossOrigin(origins = "http://localhost:3000")
 public class VendorController {
 
+    private static final int MAX_IDS_PER_REQUEST = 500;
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int DEFAULT_TOP_SIZE = 10;
+    private static final int MAX_TOP_SIZE = 100;
+    private static final int DEFAULT_SEARCH_SIZE = 20;
+    private static final int MAX_SEARCH_SIZE = 100;
+
     private final VendorService vendorService;
+    private final RatingService ratingService;
+    private final ObjectMapper objectMapper;
 
-    public VendorController(VendorService vendorService) {
+    public VendorController(VendorService vendorService, RatingService ratingService, ObjectMapper objectMapper) {
         this.vendorService = vendorService;
+        this.ratingService = ratingService;
+        this.objectMapper = objectMapper;
     }
 
-    // LIST (aynı kaldı)
+    // Controller'lar CompletableFuture döner: store I/O sürerken Tomcat thread'i serbest kalır,
+    // sonuç hazır olunca Spring MVC async dispatch ile yazar.
+
+    // LIST — ?ids=a,b,c verilirse tek getAll round trip ile sadece o belgeler,
+    // ?limit=&pageToken= verilirse sayfalı (VendorPage), hiçbiri yoksa tüm liste.
+    // ?fields=name,city,... verilirse yalnızca o alanlar okunur ve döner (VendorSummary).
+    // If-None-Match eşleşirse 304: gövde serialize edilmez.
     @GetMapping
-    public List<Vendor> list() {
-        return vendorService.findAll();
+    public CompletableFuture<ResponseEntity<?>> list(@RequestParam(required = false) List<String> ids,
+                                                     @RequestParam(required = false) Integer limit,
+                                                     @RequestParam(required = false) String pageToken,
+                                                     @RequestParam(required = false) List<String> fields,
+                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                     String ifNoneMatch) {
+        Set<String> only;
+        try {
+            only = projection(fields);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+
+        if (ids != null) {
+            if (ids.size() > MAX_IDS_PER_REQUEST) {
+                return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+            }
+            return vendorService.findAllByIdAsync(ids)
+                    .thenApply(found -> conditional(ETags.of(found), ifNoneMatch, () -> listBody(found, only)));
+        }
+        if (limit == null && pageToken == null) {
+            CompletableFuture<List<Vendor>> all = only == null
+                    ? vendorService.findAllAsync()
+                    : vendorService.findAllAsync(only);
+            return all.thenApply(list -> conditional(ETags.of(list), ifNoneMatch, () -> listBody(list, only)));
+        }
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        try {
+            CompletableFuture<VendorPage> page = only == null
+                    ? vendorService.findPageAsync(pageSize, pageToken)
+                    : vendorService.findPageAsync(pageSize, pageToken, only);
+            return page.thenApply(p -> conditional(ETags.of(p), ifNoneMatch, () -> only == null
+                    ? p
+                    : new VendorSummaryPage(summaries(p.getItems(), only), p.getNextPageToken())));
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+    }
+
+    // ?fields= parametresi; verilmediyse null, VendorSummary'de olmayan alan varsa IllegalArgumentException
+    static Set<String> projection(List<String> fields) {
+        if (fields == null) {
+            return null;
+        }
+        Set<String> projection = new LinkedHashSet<>();
+        for (String field : fields) {
+            if (!field.isBlank()) projection.add(field.trim());
+        }
+        if (!VendorSummary.FIELDS.containsAll(projection)) {
+            throw new IllegalArgumentException("Unknown vendor field in " + projection);
+        }
+        return projection;
+    }
+
+    // fields verilmediyse tam Vendor listesi olduğu gibi döner
+    private static List<?> listBody(List<Vendor> vendors, Set<String> fields) {
+        return fields == null ? vendors : summaries(vendors, fields);
+    }
+
+    static List<VendorSummary> summaries(List<Vendor> vendors, Set<String> fields) {
+        List<VendorSummary> result = new ArrayList<>(vendors.size());
+        for (Vendor v : vendors) {
+            result.add(VendorSummary.of(v, fields));
+        }
+        return result;
+    }
+
+    // TOP — en yüksek puanlı n vendor, istenirse kategori ve/veya şehir içinde (büyük/küçük harf duyarsız).
+    // Bellekteki sıralı leaderboard'dan; istek başına store okuması yok.
+    @GetMapping("/top")
+    public CompletableFuture<ResponseEntity<List<Vendor>>> top(@RequestParam(required = false) String category,
+                                                               @RequestParam(required = false) String city,
+                                                               @RequestParam(required = false) Integer n) {
+        int size = n == null ? DEFAULT_TOP_SIZE : Math.max(1, Math.min(n, MAX_TOP_SIZE));
+        return vendorService.topAsync(category, city, size).thenApply(ResponseEntity::ok);
+    }
+
+    // FACETS — ?category=a,b&city=..&rating=4-5,unrated: facet içinde VEYA, facet'ler arasında VE.
+    // Eşleşen vendor'ların bir sayfası (list ile aynı limit/pageToken/fields), toplam ve her facet değeri
+    // için sayı (o facet'in kendi seçimi hariç); bellekteki bitmap'lerden, istek başına store okuması yok.
+    @GetMapping("/facets")
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<ResponseEntity<?>> facets(@RequestParam(required = false) List<String> category,
+                                                       @RequestParam(required = false) List<String> city,
+                                                       @RequestParam(required = false) List<String> rating,
+                                                       @RequestParam(required = false) Integer limit,
+                                                       @RequestParam(required = false) String pageToken,
+                                                       @RequestParam(required = false) List<String> fields) {
+        Set<String> only;
+        try {
+            only = projection(fields);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        Map<String, Set<String>> selected = new HashMap<>();
+        if (category != null) selected.put("category", new HashSet<>(category));
+        if (city != null) selected.put("city", new HashSet<>(city));
+        if (rating != null) selected.put("rating", new HashSet<>(rating));
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        try {
+            return vendorService.facetsAsync(selected, pageSize, pageToken)
+                    .<ResponseEntity<?>>thenApply(page -> {
+                        if (only != null) page.setItems(summaries((List<Vendor>) page.getItems(), only));
+                        return ResponseEntity.ok(page);
+                    })
+                    .exceptionally(error -> {
+                        if (Futures.unwrap(error) instanceof IllegalArgumentException) {
+                            return ResponseEntity.badRequest().build(); // bilinmeyen rating aralığı
+                        }
+                        throw new CompletionException(Futures.unwrap(error));
+                    });
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build()); // bozuk pageToken
+        }
+    }
+
+    // SEARCH — ad, kategori, şehir, temsilci ve notlarda tam metin arama (önek ve tek harf hatası toleranslı),
+    // bellekteki ters indeksten; en iyi eşleşen limit kadar vendor. ?fields= liste ile aynı.
+    @GetMapping("/search")
+    public CompletableFuture<ResponseEntity<?>> search(@RequestParam String q,
+                                                       @RequestParam(required = false) Integer limit,
+                                                       @RequestParam(required = false) List<String> fields) {
+        Set<String> only;
+        try {
+            only = projection(fields);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        int size = limit == null ? DEFAULT_SEARCH_SIZE : Math.max(1, Math.min(limit, MAX_SEARCH_SIZE));
+        return vendorService.searchAsync(q, size).thenApply(found -> ResponseEntity.ok(listBody(found, only)));
     }
 
-    // GET BY ID — service'ten bulunur
+    // GET BY ID — tek belge okuması (document get)
     @GetMapping("/{id}")
-    public ResponseEntity<Vendor> getById(@PathVariable String id) {
-        Optional<Vendor> opt = vendorService.findAll()
-                .stream()
-                .filter(v -> id.equals(v.getId()))
-                .findFirst();
-        return opt.map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public CompletableFuture<ResponseEntity<Vendor>> getById(@PathVariable String id,
+                                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                             String ifNoneMatch) {
+        return vendorService.findByIdAsync(id).thenApply(opt -> opt
+                .map(v -> conditional(ETags.of(v), ifNoneMatch, () -> v))
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).cacheControl(CacheControl.noStore()).build()));
+    }
+
+    // Tarayıcı yanıtı saklayabilir ama her kullanımda ETag ile doğrulatmalı. Bu okumalar Security'nin
+    // Cache-Control'ünü almaz (bkz. SecurityConfig#cacheControlHeaders); başlığı her zaman kendileri yazar
+    private static <T> ResponseEntity<T> conditional(String etag, String ifNoneMatch, Supplier<T> body) {
+        if (etag == null) {
+            return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(body.get());
+        }
+        if (ETags.matchesNone(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag)
+                    .cacheControl(CacheControl.noCache().cachePrivate()).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate()).body(body.get());
+    }
+
+    private static ResponseEntity<Vendor> okWithETag(Vendor v) {
+        String etag = ETags.of(v);
+        return etag == null ? ResponseEntity.ok(v) : ResponseEntity.ok().eTag(etag).body(v);
     }
 
     // CREATE (aynı kaldı)
     @PostMapping
-    public ResponseEntity<Vendor> create(@RequestBody Vendor v) {
-        Vendor saved = vendorService.create(v);
-        return ResponseEntity.created(URI.create("/api/vendors/" + saved.getId())).body(saved);
+    public CompletableFuture<ResponseEntity<Vendor>> create(@RequestBody Vendor v) {
+        return vendorService.createAsync(v).thenApply(saved ->
+                ResponseEntity.created(URI.create("/api/vendors/" + saved.getId())).body(saved));
     }
 
-    // UPDATE (merge) — service'e yazılır (upsert mantığı)
+    // UPDATE (merge) — dolu alanlar field mask'li tek update ile yazılır; rating alanları ve
+    // formdan gelen diğer salt-okunur alanlar yok sayılır. Güncel vendor döner.
+    // If-Match verilirse yazma, vendor hâlâ o sürümdeyse yapılır (değilse 412).
     @PutMapping("/{id}")
-    public ResponseEntity<Vendor> update(@PathVariable String id, @RequestBody Vendor req) {
-        Optional<Vendor> opt = vendorService.findAll()
-                .stream()
-                .filter(v -> id.equals(v.getId()))
-                .findFirst();
-
-        if (opt.isEmpty()) {
-            return ResponseEntity.notFound().build();
+    public CompletableFuture<ResponseEntity<Vendor>> update(@PathVariable String id, @RequestBody Vendor req,
+                                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                            String ifMatch) {
+        Long expectedVersion;
+        try {
+            expectedVersion = ETags.expectedVersion(ifMatch);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build());
         }
+        return vendorService.updateAsync(id, req, expectedVersion)
+                .thenApply(opt -> opt.map(VendorController::okWithETag).orElse(ResponseEntity.notFound().build()))
+                .exceptionally(VendorController::writeFailed);
+    }
 
-        Vendor existing = opt.get();
-        // Alan bazında merge — id sabit kalır
-        if (req.getName() != null) existing.setName(req.getName());
-        if (req.getCategory() != null) existing.setCategory(req.getCategory());
-        if (req.getCity() != null) existing.setCity(req.getCity());
-        if (req.getRepresentative() != null) existing.setRepresentative(req.getRepresentative());
-        if (req.getContact() != null) existing.setContact(req.getContact());
-        if (req.getPrice() != null) existing.setPrice(req.getPrice());
-        if (req.getNotes() != null) existing.setNotes(req.getNotes());
-        if (req.getAgreementNumber() != null) existing.setAgreementNumber(req.getAgreementNumber());
-        if (req.getBankAccount() != null) existing.setBankAccount(req.getBankAccount());
-        if (req.getImages() != null) existing.setImages(req.getImages());
-        if (req.getRating() != null) existing.setRating(req.getRating());
-
-        Vendor saved = vendorService.create(existing); // service tek kaynağımız
-        return ResponseEntity.ok(saved);
+    // PATCH — gövdedeki anahtarlar field mask'tir (null = alanı temizle); önce okuma yok, 204 döner
+    @PatchMapping("/{id}")
+    public CompletableFuture<ResponseEntity<Void>> patch(@PathVariable String id,
+                                                         @RequestBody Map<String, Object> changes,
+                                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                         String ifMatch) {
+        if (changes.isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        Long expectedVersion;
+        try {
+            expectedVersion = ETags.expectedVersion(ifMatch);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build());
+        }
+        try {
+            Vendor values = objectMapper.convertValue(changes, Vendor.class);
+            return vendorService.patchAsync(id, values, changes.keySet(), expectedVersion)
+                    .thenApply(ignored -> ResponseEntity.noContent().<Void>build())
+                    .exceptionally(VendorController::writeFailed);
+        } catch (IllegalArgumentException e) {
+            // salt-okunur/bilinmeyen alan ya da tipi uymayan değer
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
     }
 
-    // DELETE (aynı kaldı)
+    // DELETE — If-Match verilirse koşullu
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable String id) {
-        vendorService.delete(id);
-        return ResponseEntity.noContent().build();
+    public CompletableFuture<ResponseEntity<Void>> delete(@PathVariable String id,
+                                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                          String ifMatch) {
+        Long expectedVersion;
+        try {
+            expectedVersion = ETags.expectedVersion(ifMatch);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build());
+        }
+        return vendorService.deleteAsync(id, expectedVersion)
+                .thenApply(ignored -> ResponseEntity.noContent().<Void>build())
+                .exceptionally(VendorController::writeFailed);
+    }
+
+    private static <T> ResponseEntity<T> writeFailed(Throwable error) {
+        Throwable cause = Futures.unwrap(error);
+        if (cause instanceof VendorNotFoundException) {
+            return ResponseEntity.notFound().build();
+        }
+        if (cause instanceof VendorVersionMismatchException) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        throw new CompletionException(cause);
     }
 
-    // UPDATE RATING — service'ten bul, service'e yaz
+    // UPDATE RATING — kullanıcının puanı RatingService üzerinden (tek yazma yolu, atomik increment)
     @PutMapping("/{id}/rating")
-    public ResponseEntity<Vendor> updateRating(@PathVariable String id,
-                                               @RequestBody RatingUpdateRequest req) {
+    public CompletableFuture<ResponseEntity<Vendor>> updateRating(@PathVariable String id,
+                                                                  @RequestBody RatingUpdateRequest req,
+                                                                  HttpServletRequest request) {
         if (req == null || req.getRating() == null) {
-            return ResponseEntity.badRequest().build();
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
         }
         double r = req.getRating();
         if (r < 0.0 || r > 5.0) {
-            return ResponseEntity.badRequest().build();
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
         }
-
-        Optional<Vendor> opt = vendorService.findAll()
-                .stream()
-                .filter(v -> id.equals(v.getId()))
-                .findFirst();
-
-        if (opt.isEmpty()) {
-            return ResponseEntity.notFound().build();
+        String userId = (String) request.getAttribute("userId");
+        if (userId == null) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
         }
 
-        Vendor v = opt.get();
-        
-        // Calculate new average rating
-        double currentRating = v.getRating() != null ? v.getRating() : 0.0;
-        int currentCount = v.getRatingCount() != null ? v.getRatingCount() : 0;
-
-        // Calculate new average: (current_total + new_rating) / (count + 1)
-        double currentTotal = currentRating * currentCount;
-        double newTotal = currentTotal + r;
-        int newCount = currentCount + 1;
-        double newAverageRating = newTotal / newCount;
-        
-        v.setRating(newAverageRating);
-        v.setRatingCount(newCount);
-        v.setId(id); // ID'yi koru
-        Vendor saved = vendorService.update(id, v); // Use update instead of create
-        return ResponseEntity.ok(saved);
+        // Vendor önceden okunmaz; store olmayan vendor'da VendorNotFoundException ile biter
+        return ratingService.submitRatingAsync(userId, id, r)
+                .thenApply(VendorController::okWithETag)
+                .exceptionally(VendorController::writeFailed);
+    }
+
+    static boolean isVendorNotFound(Throwable error) {
+        return Futures.unwrap(error) instanceof VendorNotFoundException;
     }
 }
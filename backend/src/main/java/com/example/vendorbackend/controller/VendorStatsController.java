@@ -0,0 +1,35 @@
+package com.example.vendorbackend.controller;
+
+import com.example.vendorbackend.service.VendorStatsService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.CompletableFuture;
+
+// Dashboard özetleri: sayılar store'un sunucu tarafı aggregation'ından, fiyat dağılımı sketch'ten
+@RestController
+@RequestMapping("/api/vendors/stats")
+@CrossOrigin(origins = "http://localhost:3000")
+public class VendorStatsController {
+
+    private final VendorStatsService statsService;
+
+    public VendorStatsController(VendorStatsService statsService) {
+        this.statsService = statsService;
+    }
+
+    // ?category=&city= tam eşleşme; ?groupBy=category|city her değer için ayrı satır döner
+    @GetMapping
+    public CompletableFuture<ResponseEntity<?>> stats(@RequestParam(required = false) String category,
+                                                      @RequestParam(required = false) String city,
+                                                      @RequestParam(required = false) String groupBy) {
+        if (groupBy == null) {
+            return statsService.statsAsync(category, city).thenApply(ResponseEntity::ok);
+        }
+        try {
+            return statsService.statsByAsync(groupBy, category, city).thenApply(ResponseEntity::ok);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+    }
+}
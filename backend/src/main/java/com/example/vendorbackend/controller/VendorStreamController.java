@@ -0,0 +1,35 @@
+package com.example.vendorbackend.controller;
+
+import com.example.vendorbackend.service.VendorEventStream;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// Açık listeler her yazmadan sonra tüm listeyi yeniden çekmek yerine buradan delta alır (bkz. VendorEventStream).
+// Varsayılan olarak yalnızca bu instance'ın yazmaları; vendors.read-mode=live iken tüm instance'larınki.
+@RestController
+@RequestMapping("/api/vendors/stream")
+@CrossOrigin(origins = "http://localhost:3000")
+public class VendorStreamController {
+
+    private final VendorEventStream stream;
+
+    public VendorStreamController(VendorEventStream stream) {
+        this.stream = stream;
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream() {
+        SseEmitter emitter = stream.subscribe();
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build(); // istemci sınırı dolu
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .header("X-Accel-Buffering", "no") // nginx vb. proxy'ler olayları biriktirmesin
+                .body(emitter);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.vendorbackend.controller;
+
+import com.example.vendorbackend.dto.ImportReport;
+import com.example.vendorbackend.service.VendorTransferService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+// Toplu taşıma: /api/vendors:import ve /api/vendors:export (gövde bellekte biriktirilmez)
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "http://localhost:3000")
+public class VendorTransferController {
+
+    static final String NDJSON = "application/x-ndjson";
+    static final String CSV = "text/csv";
+
+    private final VendorTransferService transferService;
+
+    public VendorTransferController(VendorTransferService transferService) {
+        this.transferService = transferService;
+    }
+
+    // IMPORT — gövde okunurken yazılır; istek gövdesi request thread'inde okunmak zorunda, async değil
+    @PostMapping(value = "/vendors:import", consumes = NDJSON)
+    public ImportReport importNdjson(HttpServletRequest request) throws IOException {
+        return transferService.importNdjson(body(request));
+    }
+
+    @PostMapping(value = "/vendors:import", consumes = CSV)
+    public ResponseEntity<ImportReport> importCsv(HttpServletRequest request) throws IOException {
+        try {
+            return ResponseEntity.ok(transferService.importCsv(body(request)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build(); // başlıkta name kolonu yok
+        }
+    }
+
+    // Charset belirtilmemişse servlet varsayılanı (ISO-8859-1) yerine UTF-8
+    private static Reader body(HttpServletRequest request) throws IOException {
+        Charset charset = request.getCharacterEncoding() == null
+                ? StandardCharsets.UTF_8
+                : Charset.forName(request.getCharacterEncoding());
+        return new BufferedReader(new InputStreamReader(request.getInputStream(), charset));
+    }
+
+    // EXPORT — ?format=ndjson (varsayılan) | csv; sayfalar okundukça yazılır
+    @GetMapping("/vendors:export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format) {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            if (csv) {
+                transferService.exportCsv(writer);
+            } else {
+                transferService.exportNdjson(writer);
+            }
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType((csv ? CSV : NDJSON) + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"vendors." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
+    }
+}
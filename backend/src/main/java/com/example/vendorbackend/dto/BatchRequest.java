@@ -0,0 +1,40 @@
+package com.example.vendorbackend.dto;
+
+import com.example.vendorbackend.model.Vendor;
+
+import java.util.List;
+
+/**
+ * Body of POST /api/vendors:batch. Each operation is one of
+ * {"op":"create","vendor":{...}}, {"op":"patch","id":"...","vendor":{...}} (non-null fields are set)
+ * or {"op":"delete","id":"..."}.
+ */
+public class BatchRequest {
+    private List<Operation> operations;
+
+    public List<Operation> getOperations() { return operations; }
+    public void setOperations(List<Operation> operations) { this.operations = operations; }
+
+    public static class Operation {
+        private String op;
+        private String id;
+        private Vendor vendor;
+
+        public Operation() { }
+
+        public Operation(String op, String id, Vendor vendor) {
+            this.op = op;
+            this.id = id;
+            this.vendor = vendor;
+        }
+
+        public String getOp() { return op; }
+        public void setOp(String op) { this.op = op; }
+
+        public String getId() { return id; }
+        public void setId(String id) { this.id = id; }
+
+        public Vendor getVendor() { return vendor; }
+        public void setVendor(Vendor vendor) { this.vendor = vendor; }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.vendorbackend.dto;
+
+import java.util.List;
+
+/**
+ * Result of POST /api/vendors:batch, one entry per operation in request order.
+ * status is "ok", "failed" (the operation itself could not be written, see error) or
+ * "invalid" (rejected before anything was written). When a commit group fails, its
+ * operations are retried one by one, so one bad target does not fail the others.
+ */
+public class BatchResponse {
+    private long succeeded;
+    private long failed;
+    private List<Result> results;
+
+    public BatchResponse() { }
+
+    public BatchResponse(List<Result> results) {
+        this.results = results;
+        this.succeeded = results.stream().filter(r -> "ok".equals(r.getStatus())).count();
+        this.failed = results.size() - succeeded;
+    }
+
+    public long getSucceeded() { return succeeded; }
+    public void setSucceeded(long succeeded) { this.succeeded = succeeded; }
+
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+
+    public List<Result> getResults() { return results; }
+    public void setResults(List<Result> results) { this.results = results; }
+
+    public static class Result {
+        private int index;
+        private String id;
+        private String status;
+        private String error;
+
+        public Result() { }
+
+        public Result(int index, String id, String status, String error) {
+            this.index = index;
+            this.id = id;
+            this.status = status;
+            this.error = error;
+        }
+
+        public int getIndex() { return index; }
+        public void setIndex(int index) { this.index = index; }
+
+        public String getId() { return id; }
+        public void setId(String id) { this.id = id; }
+
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+
+        public String getError() { return error; }
+        public void setError(String error) { this.error = error; }
+    }
+}
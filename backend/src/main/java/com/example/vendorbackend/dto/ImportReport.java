@@ -0,0 +1,54 @@
+package com.example.vendorbackend.dto;
+
+import java.util.List;
+
+/**
+ * Result of POST /api/vendors:import. {@code failed} counts every rejected row;
+ * {@code errors} lists only the first few so the report stays small for large files.
+ */
+public class ImportReport {
+    private long imported;
+    private long failed;
+    private List<RowError> errors;
+
+    public ImportReport() { }
+
+    public ImportReport(long imported, long failed, List<RowError> errors) {
+        this.imported = imported;
+        this.failed = failed;
+        this.errors = errors;
+    }
+
+    public long getImported() { return imported; }
+    public void setImported(long imported) { this.imported = imported; }
+
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+
+    public List<RowError> getErrors() { return errors; }
+    public void setErrors(List<RowError> errors) { this.errors = errors; }
+
+    /** A rejected row: 1-based data row (CSV header excluded), vendor id if known, reason. */
+    public static class RowError {
+        private long row;
+        private String id;
+        private String message;
+
+        public RowError() { }
+
+        public RowError(long row, String id, String message) {
+            this.row = row;
+            this.id = id;
+            this.message = message;
+        }
+
+        public long getRow() { return row; }
+        public void setRow(long row) { this.row = row; }
+
+        public String getId() { return id; }
+        public void setId(String id) { this.id = id; }
+
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.vendorbackend.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GET /api/vendors/facets: one page of the vendors matching the selected facet values, how many
+ * match in total, and per facet (category, city, rating) how many vendors each value would match
+ * given the selections on the other facets. nextPageToken works as in VendorPage.
+ */
+public class VendorFacetPage {
+    private long total;
+    private Map<String, Map<String, Long>> facets;
+    private List<?> items; // Vendor ya da ?fields= verilmişse VendorSummary
+    private String nextPageToken;
+
+    public VendorFacetPage() { }
+
+    public VendorFacetPage(long total, Map<String, Map<String, Long>> facets, List<?> items, String nextPageToken) {
+        this.total = total;
+        this.facets = facets;
+        this.items = items;
+        this.nextPageToken = nextPageToken;
+    }
+
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+
+    public Map<String, Map<String, Long>> getFacets() { return facets; }
+    public void setFacets(Map<String, Map<String, Long>> facets) { this.facets = facets; }
+
+    public List<?> getItems() { return items; }
+    public void setItems(List<?> items) { this.items = items; }
+
+    public String getNextPageToken() { return nextPageToken; }
+    public void setNextPageToken(String nextPageToken) { this.nextPageToken = nextPageToken; }
+}
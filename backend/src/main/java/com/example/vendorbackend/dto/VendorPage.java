@@ -0,0 +1,27 @@
+package com.example.vendorbackend.dto;
+
+import com.example.vendorbackend.model.Vendor;
+
+import java.util.List;
+
+/**
+ * One page of GET /api/vendors?limit=... results.
+ * nextPageToken is opaque to clients; null means there are no more pages.
+ */
+public class VendorPage {
+    private List<Vendor> items;
+    private String nextPageToken;
+
+    public VendorPage() { }
+
+    public VendorPage(List<Vendor> items, String nextPageToken) {
+        this.items = items;
+        this.nextPageToken = nextPageToken;
+    }
+
+    public List<Vendor> getItems() { return items; }
+    public void setItems(List<Vendor> items) { this.items = items; }
+
+    public String getNextPageToken() { return nextPageToken; }
+    public void setNextPageToken(String nextPageToken) { this.nextPageToken = nextPageToken; }
+}
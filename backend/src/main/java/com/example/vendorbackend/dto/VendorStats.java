@@ -0,0 +1,95 @@
+package com.example.vendorbackend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+
+/**
+ * GET /api/vendors/stats: figures for the vendors in {@code category} and/or {@code city}
+ * (null = all). Counts and the average rating are exact; price quantiles are estimates
+ * within 1% (see PriceSketch).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class VendorStats {
+    private String category;
+    private String city;
+    private long count;
+    private long unratedCount;
+    private long withoutAgreementCount;
+    private long ratingCount;
+    private Double averageRating; // tüm puanların ortalaması (ratingSum / ratingCount); puan yoksa null
+    private PriceStats price;
+
+    public VendorStats() { }
+
+    public VendorStats(String category, String city, long count, long unratedCount, long withoutAgreementCount,
+                       long ratingCount, Double averageRating, PriceStats price) {
+        this.category = category;
+        this.city = city;
+        this.count = count;
+        this.unratedCount = unratedCount;
+        this.withoutAgreementCount = withoutAgreementCount;
+        this.ratingCount = ratingCount;
+        this.averageRating = averageRating;
+        this.price = price;
+    }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public String getCity() { return city; }
+    public void setCity(String city) { this.city = city; }
+
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+
+    public long getUnratedCount() { return unratedCount; }
+    public void setUnratedCount(long unratedCount) { this.unratedCount = unratedCount; }
+
+    public long getWithoutAgreementCount() { return withoutAgreementCount; }
+    public void setWithoutAgreementCount(long withoutAgreementCount) { this.withoutAgreementCount = withoutAgreementCount; }
+
+    public long getRatingCount() { return ratingCount; }
+    public void setRatingCount(long ratingCount) { this.ratingCount = ratingCount; }
+
+    public Double getAverageRating() { return averageRating; }
+    public void setAverageRating(Double averageRating) { this.averageRating = averageRating; }
+
+    public PriceStats getPrice() { return price; }
+    public void setPrice(PriceStats price) { this.price = price; }
+
+    /** Distribution of the vendors' prices; vendors without a price are not counted. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class PriceStats {
+        private long count;
+        private BigDecimal mean;
+        private BigDecimal p50;
+        private BigDecimal p90;
+        private BigDecimal p99;
+
+        public PriceStats() { }
+
+        public PriceStats(long count, BigDecimal mean, BigDecimal p50, BigDecimal p90, BigDecimal p99) {
+            this.count = count;
+            this.mean = mean;
+            this.p50 = p50;
+            this.p90 = p90;
+            this.p99 = p99;
+        }
+
+        public long getCount() { return count; }
+        public void setCount(long count) { this.count = count; }
+
+        public BigDecimal getMean() { return mean; }
+        public void setMean(BigDecimal mean) { this.mean = mean; }
+
+        public BigDecimal getP50() { return p50; }
+        public void setP50(BigDecimal p50) { this.p50 = p50; }
+
+        public BigDecimal getP90() { return p90; }
+        public void setP90(BigDecimal p90) { this.p90 = p90; }
+
+        public BigDecimal getP99() { return p99; }
+        public void setP99(BigDecimal p99) { this.p99 = p99; }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.vendorbackend.dto;
+
+import com.example.vendorbackend.model.Vendor;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Sparse fieldset of a vendor for GET /api/vendors?fields=...: only the requested fields are
+ * filled, and unset ones are left out of the JSON. id is always included.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class VendorSummary {
+
+    /** Field names accepted in ?fields= (besides id, which is always returned). */
+    public static final Set<String> FIELDS = Set.of(
+            "name", "category", "city", "representative", "contact", "price", "notes",
+            "agreementNumber", "bankAccount", "images", "rating", "ratingCount");
+
+    private String id;
+    private String name;
+    private String category;
+    private String city;
+    private String representative;
+    private String contact;
+    private BigDecimal price;
+    private String notes;
+    private String agreementNumber;
+    private String bankAccount;
+    private List<String> images;
+    private Double rating;
+    private Integer ratingCount;
+
+    public static VendorSummary of(Vendor v, Set<String> fields) {
+        VendorSummary s = new VendorSummary();
+        s.id = v.getId();
+        if (fields.contains("name")) s.name = v.getName();
+        if (fields.contains("category")) s.category = v.getCategory();
+        if (fields.contains("city")) s.city = v.getCity();
+        if (fields.contains("representative")) s.representative = v.getRepresentative();
+        if (fields.contains("contact")) s.contact = v.getContact();
+        if (fields.contains("price")) s.price = v.getPrice();
+        if (fields.contains("notes")) s.notes = v.getNotes();
+        if (fields.contains("agreementNumber")) s.agreementNumber = v.getAgreementNumber();
+        if (fields.contains("bankAccount")) s.bankAccount = v.getBankAccount();
+        if (fields.contains("images")) s.images = v.getImages();
+        if (fields.contains("rating")) s.rating = v.getRating();
+        if (fields.contains("ratingCount")) s.ratingCount = v.getRatingCount();
+        return s;
+    }
+
+    public String getId() { return id; }
+    public String getName() { return name; }
+    public String getCategory() { return category; }
+    public String getCity() { return city; }
+    public String getRepresentative() { return representative; }
+    public String getContact() { return contact; }
+    public BigDecimal getPrice() { return price; }
+    public String getNotes() { return notes; }
+    public String getAgreementNumber() { return agreementNumber; }
+    public String getBankAccount() { return bankAccount; }
+    public List<String> getImages() { return images; }
+    public Double getRating() { return rating; }
+    public Integer getRatingCount() { return ratingCount; }
+}
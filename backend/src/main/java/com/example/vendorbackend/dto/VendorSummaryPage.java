@@ -0,0 +1,22 @@
+package com.example.vendorbackend.dto;
+
+import java.util.List;
+
+/** {@link VendorPage} with sparse fieldsets: GET /api/vendors?limit=...&fields=... */
+public class VendorSummaryPage {
+    private List<VendorSummary> items;
+    private String nextPageToken;
+
+    public VendorSummaryPage() { }
+
+    public VendorSummaryPage(List<VendorSummary> items, String nextPageToken) {
+        this.items = items;
+        this.nextPageToken = nextPageToken;
+    }
+
+    public List<VendorSummary> getItems() { return items; }
+    public void setItems(List<VendorSummary> items) { this.items = items; }
+
+    public String getNextPageToken() { return nextPageToken; }
+    public void setNextPageToken(String nextPageToken) { this.nextPageToken = nextPageToken; }
+}
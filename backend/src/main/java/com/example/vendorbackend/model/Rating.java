@@ -1,14 +1,25 @@
 package com.example.vendorbackend.model;
 
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
 /**
  * Firestore-backed per-user rating document.
  * Collection: ratings
  * Document id: userId_vendorId (or generated; we also store fields below)
+ * Also mapped as a JPA entity for the "jpa" profile.
  */
+@Entity
+@Table(name = "ratings", indexes = @Index(name = "idx_ratings_user", columnList = "userId, vendorId"))
 public class Rating {
+    @Id
     private String id;
     private String userId;
     private String vendorId;
+    @Column(name = "rating_value") // VALUE H2'de rezerve kelime
     private Double value; // 0-5
 
     public String getId() { return id; }
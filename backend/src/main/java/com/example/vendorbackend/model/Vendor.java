@@ -1,6 +1,9 @@
 package com.example.vendorbackend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.google.cloud.firestore.annotation.Exclude;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
@@ -31,12 +34,26 @@ public class Vendor {
     
     // Ortalama hesaplamak için kümülatif alanlar
     private Integer ratingCount = 0; // ⭐ Puan sayısı, başlangıçta 0
+    private Double ratingSum = 0.0; // Puanların toplamı
 
-    @ElementCollection
+    // Cache'teki entity'ler session dışında da serialize edilebilsin diye eager (toplu select)
+    @ElementCollection(fetch = FetchType.EAGER)
+    @BatchSize(size = 100)
     @CollectionTable(name = "vendor_images", joinColumns = @JoinColumn(name = "vendor_id"))
     @Column(name = "image_url")
     private List<String> images = new ArrayList<>();
 
+    // ETag sürümü: Firestore'da belgenin updateTime'ı, JPA'da her yazmada damgalanır (bkz. VendorVersion).
+    // Ne JSON'a ne de Firestore belgesine alan olarak yazılır.
+    @JsonIgnore
+    private Long version;
+
+    @PrePersist
+    @PreUpdate
+    void stampVersion() {
+        version = VendorVersion.next();
+    }
+
     // ---- getters / setters ----
     public String getId() { return id; }
     public void setId(String id) { this.id = id; }
@@ -68,13 +85,27 @@ public class Vendor {
     public String getBankAccount() { return bankAccount; }
     public void setBankAccount(String bankAccount) { this.bankAccount = bankAccount; }
 
-    public Double getRating() { return rating; }
+    // Increment'ler ortalamayı güncelleyemez; ratingSum/ratingCount varsa ortalama onlardan türetilir
+    public Double getRating() {
+        if (ratingSum != null && ratingCount != null && ratingCount > 0) {
+            return ratingSum / ratingCount;
+        }
+        return rating;
+    }
     public void setRating(Double rating) { this.rating = rating; }
 
     public Integer getRatingCount() { return ratingCount; }
     public void setRatingCount(Integer ratingCount) { this.ratingCount = ratingCount; }
     public void increaseRatingCount() { this.ratingCount++; }
 
+    public Double getRatingSum() { return ratingSum; }
+    public void setRatingSum(Double ratingSum) { this.ratingSum = ratingSum; }
+
     public List<String> getImages() { return images; }
     public void setImages(List<String> images) { this.images = images; }
+
+    @Exclude
+    public Long getVersion() { return version; }
+    @Exclude
+    public void setVersion(Long version) { this.version = version; }
 }
@@ -0,0 +1,84 @@
+package com.example.vendorbackend.model;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Vendor fields that clients may change directly. id is fixed and rating/ratingSum/ratingCount
+ * only change through the rating write path, so none of them appear here.
+ */
+public final class VendorFields {
+
+    private record Accessor(Function<Vendor, Object> getter, BiConsumer<Vendor, Object> setter) { }
+
+    private static final Map<String, Accessor> EDITABLE = new LinkedHashMap<>();
+
+    static {
+        EDITABLE.put("name", new Accessor(Vendor::getName, (v, x) -> v.setName((String) x)));
+        EDITABLE.put("category", new Accessor(Vendor::getCategory, (v, x) -> v.setCategory((String) x)));
+        EDITABLE.put("city", new Accessor(Vendor::getCity, (v, x) -> v.setCity((String) x)));
+        EDITABLE.put("representative", new Accessor(Vendor::getRepresentative, (v, x) -> v.setRepresentative((String) x)));
+        EDITABLE.put("contact", new Accessor(Vendor::getContact, (v, x) -> v.setContact((String) x)));
+        EDITABLE.put("price", new Accessor(Vendor::getPrice, (v, x) -> v.setPrice((BigDecimal) x)));
+        EDITABLE.put("notes", new Accessor(Vendor::getNotes, (v, x) -> v.setNotes((String) x)));
+        EDITABLE.put("agreementNumber", new Accessor(Vendor::getAgreementNumber, (v, x) -> v.setAgreementNumber((String) x)));
+        EDITABLE.put("bankAccount", new Accessor(Vendor::getBankAccount, (v, x) -> v.setBankAccount((String) x)));
+        EDITABLE.put("images", new Accessor(Vendor::getImages, (v, x) -> v.setImages(copyOf(x))));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> copyOf(Object images) {
+        return images == null ? new ArrayList<>() : new ArrayList<>((List<String>) images);
+    }
+
+    private VendorFields() { }
+
+    public static Set<String> editable() {
+        return Collections.unmodifiableSet(EDITABLE.keySet());
+    }
+
+    public static boolean isEditable(String field) {
+        return EDITABLE.containsKey(field);
+    }
+
+    /**
+     * Editable fields that are set on {@code v}; PUT-style "null means unchanged". An empty
+     * images list also counts as unset, since a deserialized Vendor always has one.
+     */
+    public static Set<String> present(Vendor v) {
+        Set<String> fields = new LinkedHashSet<>();
+        EDITABLE.forEach((name, accessor) -> {
+            Object value = accessor.getter().apply(v);
+            if (value != null && !(value instanceof Collection<?> c && c.isEmpty())) fields.add(name);
+        });
+        return fields;
+    }
+
+    /** Field → value of {@code v} for the given fields (values may be null to clear a field). */
+    public static Map<String, Object> values(Vendor v, Set<String> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String field : fields) {
+            Object value = accessor(field).getter().apply(v);
+            values.put(field, "images".equals(field) ? copyOf(value) : value); // null değil boş liste
+        }
+        return values;
+    }
+
+    /** Copies the given fields from {@code source} onto {@code target}. */
+    public static void copy(Vendor source, Vendor target, Set<String> fields) {
+        for (String field : fields) {
+            Accessor accessor = accessor(field);
+            accessor.setter().accept(target, accessor.getter().apply(source));
+        }
+    }
+
+    private static Accessor accessor(String field) {
+        Accessor accessor = EDITABLE.get(field);
+        if (accessor == null) {
+            throw new IllegalArgumentException("Unknown or read-only vendor field: " + field);
+        }
+        return accessor;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.vendorbackend.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Vendor versions are microsecond timestamps, the resolution of Firestore document update times.
+ * The JPA store has no update time of its own, so it stamps each write with {@link #next()}.
+ */
+public final class VendorVersion {
+
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private VendorVersion() { }
+
+    /** Current time in microseconds, strictly greater than any value returned before. */
+    public static long next() {
+        long now = System.currentTimeMillis() * 1_000L;
+        return LAST.accumulateAndGet(now, (last, candidate) -> Math.max(last + 1, candidate));
+    }
+
+    public static long ofMicros(long seconds, int nanos) {
+        return seconds * 1_000_000L + nanos / 1_000;
+    }
+}
@@ -0,0 +1,284 @@
+package com.example.vendorbackend.repository;
+
+import com.example.vendorbackend.model.Vendor;
+import com.google.api.core.ApiFuture;
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.StatusCode;
+import com.google.cloud.firestore.*;
+import com.google.firebase.cloud.FirestoreClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@Repository
+@Profile("!jpa")
+public class FirestoreRatingStore implements RatingStore {
+
+    private static final String RATINGS = "ratings";
+    // userRatings/{userId}/vendors/{vendorId}: puanlanan her vendor için bir belge, id sırasıyla aralık okunur
+    private static final String USER_RATINGS = "userRatings";
+    private static final String RATED_VENDORS = "vendors";
+    // userRatings/{userId}.indexed: eski puanlar alt koleksiyona bir kez aktarıldı
+    private static final String INDEXED = "indexed";
+    private static final int MAX_BATCH_WRITES = 500; // WriteBatch sınırı
+
+    private final ShardedRatingCounter counter;
+    private final Counter retries;
+    private final Supplier<Firestore> db;
+
+    @Autowired
+    public FirestoreRatingStore(ShardedRatingCounter counter, MeterRegistry registry) {
+        this(counter, registry, FirestoreClient::getFirestore);
+    }
+
+    // Testler gerçek client yerine sahte bir Firestore verir
+    FirestoreRatingStore(ShardedRatingCounter counter, MeterRegistry registry, Supplier<Firestore> db) {
+        this.counter = counter;
+        this.db = db;
+        // Firestore transaction'ı çakışmada callback'i yeniden çalıştırır; ilk denemeden sonrakiler sayılır
+        this.retries = Counter.builder("firestore.transaction.retries")
+                .tag("operation", "submitRatings")
+                .register(registry);
+    }
+
+    private void attempt(AtomicInteger attempts) {
+        if (attempts.incrementAndGet() > 1) {
+            retries.increment();
+        }
+    }
+
+    private Firestore db() {
+        return db.get();
+    }
+
+    /** Net effect of a set of rating upserts on the vendor's running sum/count. */
+    private record Delta(double sum, long count) { }
+
+    /**
+     * Reads the users' existing rating docs (all reads must precede writes in a transaction),
+     * queues the upserts and returns the resulting change of ratingSum/ratingCount.
+     */
+    private Delta upsertRatings(Transaction transaction, String vendorId, Map<String, Double> valuesByUser)
+            throws InterruptedException, ExecutionException {
+        List<String> userIds = new ArrayList<>(valuesByUser.keySet());
+        // Prepare rating doc id as user_vendor for easy upsert
+        DocumentReference[] ratingRefs = userIds.stream()
+                .map(userId -> db().collection(RATINGS).document(userId + "_" + vendorId))
+                .toArray(DocumentReference[]::new);
+        List<DocumentSnapshot> ratingSnaps = transaction.getAll(ratingRefs).get();
+
+        double deltaSum = 0.0;
+        long deltaCount = 0L;
+        for (int i = 0; i < userIds.size(); i++) {
+            String userId = userIds.get(i);
+            double value = valuesByUser.get(userId);
+            DocumentSnapshot ratingSnap = ratingSnaps.get(i);
+            Double previousValue = ratingSnap.exists() ? ratingSnap.getDouble("value") : null;
+            if (previousValue == null) {
+                // New rating
+                deltaSum += value;
+                deltaCount += 1;
+                transaction.set(ratedVendor(userId, vendorId), Map.of("vendorId", vendorId));
+            } else {
+                // Update existing user's rating
+                deltaSum += value - previousValue;
+            }
+            Map<String, Object> ratingDoc = new HashMap<>();
+            ratingDoc.put("id", ratingRefs[i].getId());
+            ratingDoc.put("userId", userId);
+            ratingDoc.put("vendorId", vendorId);
+            ratingDoc.put("value", value);
+            transaction.set(ratingRefs[i], ratingDoc);
+        }
+        return new Delta(deltaSum, deltaCount);
+    }
+
+    /**
+     * Upsert user ratings and fold them into the vendor's running sum/count with FieldValue.increment.
+     * The transaction only reads the users' own rating docs; the vendor doc is never read, so concurrent
+     * ratings of the same vendor do not contend or retry. update() also fails if the vendor is missing.
+     * The average is derived from ratingSum/ratingCount on read (see Vendor#getRating).
+     */
+    @Override
+    public Vendor submitRatings(String vendorId, Map<String, Double> valuesByUser) {
+        return Futures.join(submitRatingsAsync(vendorId, valuesByUser));
+    }
+
+    /**
+     * Non-blocking variant: the transaction runs on the Firestore client's executor and the vendor is
+     * re-read when it commits; no caller thread waits in between. The sharded path stays blocking.
+     */
+    @Override
+    public CompletableFuture<Vendor> submitRatingsAsync(String vendorId, Map<String, Double> valuesByUser) {
+        if (counter.enabled()) {
+            return Futures.supply(() -> submitSharded(vendorId, valuesByUser));
+        }
+        DocumentReference vendorRef = db().collection(FirestoreVendorStore.COLLECTION).document(vendorId);
+        AtomicInteger attempts = new AtomicInteger();
+        ApiFuture<Delta> future = db().runTransaction(transaction -> {
+            attempt(attempts);
+            Delta delta = upsertRatings(transaction, vendorId, valuesByUser);
+
+            Map<String, Object> vendorUpdates = new HashMap<>();
+            vendorUpdates.put("ratingSum", FieldValue.increment(delta.sum()));
+            vendorUpdates.put("ratingCount", FieldValue.increment(delta.count()));
+            transaction.update(vendorRef, vendorUpdates);
+            return delta;
+        });
+        CompletableFuture<Delta> committed = Futures.fromApiFuture(future).handle((delta, error) -> {
+            if (error == null) return delta;
+            Throwable cause = Futures.unwrap(error);
+            if (isNotFound(cause)) {
+                throw new VendorNotFoundException(vendorId, cause);
+            }
+            throw new RuntimeException("Failed to submit rating", cause);
+        });
+
+        // Güncel toplamlar (başka instance'ların eşzamanlı increment'leri dahil)
+        return committed.thenCompose(delta -> Futures.wrapFailure(
+                Futures.fromApiFuture(vendorRef.get()).thenApply(FirestoreVendorStore::toVendor),
+                "Failed to get vendor from Firestore"));
+    }
+
+    @Override
+    public SortedSet<String> ratedVendorIds(String userId, String afterId, int limit) {
+        return Futures.join(ratedVendorIdsAsync(userId, afterId, limit));
+    }
+
+    /**
+     * One id-ordered range query on the user's {@code vendors} subcollection (document ids only), read
+     * alongside the user's document. Ratings written before the subcollection existed are copied into
+     * it once by a query on userId (vendorId only); the user's document is then marked indexed and the
+     * copy never runs again. Later ratings reach it through {@link #upsertRatings}.
+     */
+    @Override
+    public CompletableFuture<SortedSet<String>> ratedVendorIdsAsync(String userId, String afterId, int limit) {
+        DocumentReference userRef = db().collection(USER_RATINGS).document(userId);
+        Query range = userRef.collection(RATED_VENDORS)
+                .orderBy(FieldPath.documentId())
+                .select(FieldPath.documentId())
+                .limit(limit);
+        Query page = afterId == null ? range : range.startAfter(afterId);
+        CompletableFuture<QuerySnapshot> read = Futures.fromApiFuture(page.get());
+        CompletableFuture<SortedSet<String>> ids = Futures.fromApiFuture(userRef.get()).thenCompose(snap -> {
+            if (snap.exists() && Boolean.TRUE.equals(snap.getBoolean(INDEXED))) {
+                return read.thenApply(FirestoreRatingStore::ids);
+            }
+            return backfill(userId, userRef)
+                    .thenCompose(ignored -> Futures.fromApiFuture(page.get()))
+                    .thenApply(FirestoreRatingStore::ids);
+        });
+        return Futures.wrapFailure(ids, "Failed to read rated vendors");
+    }
+
+    private DocumentReference ratedVendor(String userId, String vendorId) {
+        return db().collection(USER_RATINGS).document(userId).collection(RATED_VENDORS).document(vendorId);
+    }
+
+    // set idempotent: backfill ile eşzamanlı yazılan puanların belgeleri aynen kalır
+    private CompletableFuture<Void> backfill(String userId, DocumentReference userRef) {
+        Query rated = db().collection(RATINGS).whereEqualTo("userId", userId).select("vendorId");
+        return Futures.fromApiFuture(rated.get()).thenCompose(ratings -> {
+            List<CompletableFuture<?>> commits = new ArrayList<>();
+            WriteBatch batch = db().batch();
+            int queued = 0;
+            for (QueryDocumentSnapshot doc : ratings.getDocuments()) {
+                String vendorId = doc.getString("vendorId");
+                if (vendorId == null) continue;
+                batch.set(ratedVendor(userId, vendorId), Map.of("vendorId", vendorId));
+                if (++queued == MAX_BATCH_WRITES) {
+                    commits.add(Futures.fromApiFuture(batch.commit()));
+                    batch = db().batch();
+                    queued = 0;
+                }
+            }
+            if (queued > 0) {
+                commits.add(Futures.fromApiFuture(batch.commit()));
+            }
+            return CompletableFuture.allOf(commits.toArray(CompletableFuture[]::new))
+                    .thenCompose(ignored -> Futures.fromApiFuture(userRef.set(Map.of(INDEXED, true), SetOptions.merge())))
+                    .thenApply(ignored -> null);
+        });
+    }
+
+    private static SortedSet<String> ids(QuerySnapshot rated) {
+        SortedSet<String> ids = new TreeSet<>();
+        for (QueryDocumentSnapshot doc : rated.getDocuments()) {
+            ids.add(doc.getId());
+        }
+        return ids;
+    }
+
+    private static boolean isNotFound(Throwable t) {
+        // runTransaction hatayı ExecutionException/FirestoreException içine sarabilir
+        for (Throwable c = t; c != null; c = c.getCause()) {
+            if (c instanceof ApiException api && api.getStatusCode().getCode() == StatusCode.Code.NOT_FOUND) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record ShardedWrite(DocumentSnapshot vendorSnap, Delta delta) { }
+
+    /**
+     * Sharded variant: the transaction reads the vendor (existence), the users' ratings and the seed shard,
+     * none of which are written per rating, and increments one random shard. The vendor document itself
+     * is only written by the periodic roll-up.
+     */
+    private Vendor submitSharded(String vendorId, Map<String, Double> valuesByUser) {
+        try {
+            DocumentReference vendorRef = db().collection(FirestoreVendorStore.COLLECTION).document(vendorId);
+            DocumentReference seedRef = counter.seedShard(vendorRef);
+            AtomicInteger attempts = new AtomicInteger();
+
+            ShardedWrite write = db().runTransaction(transaction -> {
+                attempt(attempts);
+                DocumentSnapshot vendorSnap = transaction.get(vendorRef).get();
+                if (!vendorSnap.exists()) {
+                    throw new VendorNotFoundException(vendorId);
+                }
+                DocumentSnapshot seedSnap = transaction.get(seedRef).get();
+
+                Delta delta = upsertRatings(transaction, vendorId, valuesByUser);
+
+                if (!seedSnap.exists()) {
+                    // Shard'lara geçmeden önce vendor belgesinde biriken toplamlar
+                    Vendor legacy = FirestoreVendorStore.toVendor(vendorSnap);
+                    Map<String, Object> seed = new HashMap<>();
+                    seed.put("sum", legacy.getRatingSum() != null ? legacy.getRatingSum()
+                            : legacy.getRating() * legacy.getRatingCount()); // ratingSum'dan önceki kayıtlar
+                    seed.put("count", legacy.getRatingCount() != null ? legacy.getRatingCount() : 0L);
+                    transaction.set(seedRef, seed);
+                }
+                counter.increment(transaction, vendorRef, delta.sum(), delta.count());
+                return new ShardedWrite(vendorSnap, delta);
+            }).get();
+
+            counter.recorded(vendorId, write.delta().sum(), write.delta().count());
+            ShardedRatingCounter.Totals totals = counter.totals(vendorRef);
+            Vendor v = FirestoreVendorStore.toVendor(write.vendorSnap());
+            if (v != null) {
+                v.setRatingSum(totals.sum());
+                v.setRatingCount((int) totals.count());
+                v.setRating(totals.average());
+            }
+            return v;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof VendorNotFoundException notFound) {
+                throw notFound; // transaction içinde atıldı
+            }
+            throw new RuntimeException("Failed to submit rating", e);
+        } catch (InterruptedException e) {
+            throw new RuntimeException("Failed to submit rating", e);
+        }
+    }
+}
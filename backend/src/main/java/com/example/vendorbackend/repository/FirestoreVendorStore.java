@@ -0,0 +1,299 @@
+package com.example.vendorbackend.repository;
+
+import com.example.vendorbackend.model.Vendor;
+import com.example.vendorbackend.model.VendorFields;
+import com.example.vendorbackend.model.VendorVersion;
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.StatusCode;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.*;
+import com.google.firebase.cloud.FirestoreClient;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+@Repository
+@Profile("!jpa")
+public class FirestoreVendorStore implements VendorStore {
+
+    public static final String COLLECTION = "vendors";
+
+    private Firestore db() {
+        return FirestoreClient.getFirestore();
+    }
+
+    // Belgeyi Vendor'a çevir, id alanını belge id'siyle doldur
+    public static Vendor toVendor(DocumentSnapshot snap) {
+        Vendor v = snap.toObject(Vendor.class);
+        if (v != null) {
+            v.setId(snap.getId());
+            if (snap.getUpdateTime() != null) {
+                v.setVersion(VendorVersion.ofMicros(snap.getUpdateTime().getSeconds(), snap.getUpdateTime().getNanos()));
+            }
+            if (!snap.contains("ratingSum") && v.getRatingCount() != null) {
+                // ratingSum'dan önceki belgeler: toplamı saklı ortalamadan türet (bkz. RatingSumBackfill)
+                v.setRatingSum(null); // getRating() saklı ortalamayı döndürsün
+                Double stored = v.getRating();
+                v.setRatingSum(stored != null ? stored * v.getRatingCount() : 0.0);
+            }
+        }
+        return v;
+    }
+
+    private static List<Vendor> toVendors(QuerySnapshot snapshot) {
+        List<QueryDocumentSnapshot> docs = snapshot.getDocuments();
+        List<Vendor> result = new ArrayList<>(docs.size());
+        for (QueryDocumentSnapshot d : docs) {
+            result.add(toVendor(d));
+        }
+        return result;
+    }
+
+    // Blocking metotlar async olanların sonucunu bekler; Firestore çağrısı tek yerde
+
+    @Override
+    public List<Vendor> findAll() {
+        return Futures.join(findAllAsync());
+    }
+
+    @Override
+    public List<Vendor> findPage(int limit, String afterId) {
+        return Futures.join(findPageAsync(limit, afterId));
+    }
+
+    @Override
+    public Optional<Vendor> findById(String id) {
+        return Futures.join(findByIdAsync(id));
+    }
+
+    @Override
+    public Map<String, Vendor> findAllById(Set<String> ids) {
+        return Futures.join(findAllByIdAsync(ids));
+    }
+
+    @Override
+    public Vendor save(Vendor v) {
+        return Futures.join(saveAsync(v));
+    }
+
+    @Override
+    public void delete(String id) {
+        Futures.join(deleteAsync(id));
+    }
+
+    // Çok belgeli sonuçların dönüşümü transport thread'inde değil, common pool'da yapılır
+
+    @Override
+    public CompletableFuture<List<Vendor>> findAllAsync() {
+        return Futures.wrapFailure(Futures.fromApiFuture(db().collection(COLLECTION).get())
+                .thenApplyAsync(FirestoreVendorStore::toVendors), "Failed to read vendors from Firestore");
+    }
+
+    @Override
+    public CompletableFuture<List<Vendor>> findPageAsync(int limit, String afterId) {
+        Query query = db().collection(COLLECTION)
+                .orderBy(FieldPath.documentId())
+                .limit(limit);
+        if (afterId != null) {
+            query = query.startAfter(afterId);
+        }
+        return Futures.wrapFailure(Futures.fromApiFuture(query.get())
+                .thenApplyAsync(FirestoreVendorStore::toVendors), "Failed to read vendor page from Firestore");
+    }
+
+    // select(): Firestore yalnızca istenen alanları gönderir (okuma sayısı aynı, bant genişliği ve parse daha az)
+    @Override
+    public CompletableFuture<List<Vendor>> findAllAsync(Set<String> fields) {
+        return Futures.wrapFailure(Futures.fromApiFuture(select(db().collection(COLLECTION), fields).get())
+                .thenApplyAsync(FirestoreVendorStore::toVendors), "Failed to read vendors from Firestore");
+    }
+
+    @Override
+    public CompletableFuture<List<Vendor>> findPageAsync(int limit, String afterId, Set<String> fields) {
+        Query query = select(db().collection(COLLECTION), fields)
+                .orderBy(FieldPath.documentId())
+                .limit(limit);
+        if (afterId != null) {
+            query = query.startAfter(afterId);
+        }
+        return Futures.wrapFailure(Futures.fromApiFuture(query.get())
+                .thenApplyAsync(FirestoreVendorStore::toVendors), "Failed to read vendor page from Firestore");
+    }
+
+    /**
+     * Server-side aggregation queries, run in parallel: count + sum(ratingSum) + sum(ratingCount),
+     * then count of unrated vendors and of vendors without an agreement number. Each is billed
+     * one read per 1000 index entries it scans; no vendor document is sent back.
+     * price is stored as a string (BigDecimal), so it cannot be summed here.
+     */
+    @Override
+    public CompletableFuture<VendorAggregates> aggregateAsync(String category, String city) {
+        Query base = filtered(category, city);
+        AggregateField ratingSum = AggregateField.sum("ratingSum");
+        AggregateField ratingCount = AggregateField.sum("ratingCount");
+        CompletableFuture<AggregateQuerySnapshot> totals = Futures.fromApiFuture(
+                base.aggregate(AggregateField.count(), ratingSum, ratingCount).get());
+        CompletableFuture<AggregateQuerySnapshot> unrated = Futures.fromApiFuture(
+                base.whereEqualTo("ratingCount", 0).count().get());
+        CompletableFuture<AggregateQuerySnapshot> withoutAgreement = Futures.fromApiFuture(base.where(Filter.or(
+                Filter.equalTo("agreementNumber", null), Filter.equalTo("agreementNumber", ""))).count().get());
+
+        return Futures.wrapFailure(CompletableFuture.allOf(totals, unrated, withoutAgreement).thenApply(ignored -> {
+            AggregateQuerySnapshot t = totals.join();
+            Double sum = t.getDouble(ratingSum);
+            Long count = t.getLong(ratingCount);
+            return new VendorAggregates(t.getCount(), unrated.join().getCount(), withoutAgreement.join().getCount(),
+                    sum == null ? 0.0 : sum, count == null ? 0L : count);
+        }), "Failed to aggregate vendors in Firestore");
+    }
+
+    // Yalnızca iki sum: tek aggregation sorgusu
+    @Override
+    public CompletableFuture<VendorRatingTotals> ratingTotalsAsync(String category, String city) {
+        AggregateField ratingSum = AggregateField.sum("ratingSum");
+        AggregateField ratingCount = AggregateField.sum("ratingCount");
+        AggregateQuery query = filtered(category, city).aggregate(ratingSum, ratingCount);
+        return Futures.wrapFailure(Futures.fromApiFuture(query.get()).thenApply(t -> {
+            Double sum = t.getDouble(ratingSum);
+            Long count = t.getLong(ratingCount);
+            return new VendorRatingTotals(sum == null ? 0.0 : sum, count == null ? 0L : count);
+        }), "Failed to aggregate vendor ratings in Firestore");
+    }
+
+    private Query filtered(String category, String city) {
+        Query query = db().collection(COLLECTION);
+        if (category != null) query = query.whereEqualTo("category", category);
+        if (city != null) query = query.whereEqualTo("city", city);
+        return query;
+    }
+
+    private static Query select(Query query, Set<String> fields) {
+        Set<String> paths = new LinkedHashSet<>(fields);
+        if (paths.remove("rating")) {
+            // rating okunurken ratingSum/ratingCount'tan türetilir (bkz. Vendor#getRating)
+            paths.addAll(List.of("rating", "ratingSum", "ratingCount"));
+        }
+        return query.select(paths.toArray(String[]::new));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Vendor>> findByIdAsync(String id) {
+        return Futures.wrapFailure(Futures.fromApiFuture(db().collection(COLLECTION).document(id).get())
+                .thenApply(snap -> snap.exists() ? Optional.ofNullable(toVendor(snap)) : Optional.<Vendor>empty()),
+                "Failed to get vendor from Firestore");
+    }
+
+    // Tek getAll round trip
+    @Override
+    public CompletableFuture<Map<String, Vendor>> findAllByIdAsync(Set<String> ids) {
+        CollectionReference vendors = db().collection(COLLECTION);
+        DocumentReference[] refs = ids.stream()
+                .map(vendors::document)
+                .toArray(DocumentReference[]::new);
+        return Futures.wrapFailure(Futures.fromApiFuture(db().getAll(refs)).thenApplyAsync(snaps -> {
+            Map<String, Vendor> result = new LinkedHashMap<>();
+            for (DocumentSnapshot snap : snaps) {
+                if (!snap.exists()) continue;
+                Vendor v = toVendor(snap);
+                if (v != null) result.put(v.getId(), v);
+            }
+            return result;
+        }), "Failed to get vendors from Firestore");
+    }
+
+    @Override
+    public CompletableFuture<Vendor> saveAsync(Vendor v) {
+        return Futures.wrapFailure(Futures.fromApiFuture(db().collection(COLLECTION).document(v.getId()).set(v))
+                .thenApply(write -> v), "Failed to write vendor to Firestore");
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteAsync(String id) {
+        return Futures.wrapFailure(Futures.fromApiFuture(db().collection(COLLECTION).document(id).delete())
+                .thenApply(write -> (Void) null), "Failed to delete vendor in Firestore");
+    }
+
+    @Override
+    public void commit(List<VendorMutation> mutations) {
+        Futures.join(commitAsync(mutations));
+    }
+
+    /** One WriteBatch commit (at most 500 writes): atomic, a single round trip. */
+    @Override
+    public CompletableFuture<Void> commitAsync(List<VendorMutation> mutations) {
+        CollectionReference vendors = db().collection(COLLECTION);
+        WriteBatch batch = db().batch();
+        for (VendorMutation m : mutations) {
+            DocumentReference ref = vendors.document(m.id());
+            // If-Match: belgenin updateTime'ı beklenen sürüm değilse FAILED_PRECONDITION
+            Precondition ifMatch = m.expectedVersion() == null
+                    ? null
+                    : Precondition.updatedAt(Timestamp.ofTimeMicroseconds(m.expectedVersion()));
+            switch (m.kind()) {
+                case CREATE -> batch.set(ref, m.vendor());
+                // Koşulsuz update() belgenin var olmasını ister: yoksa NOT_FOUND
+                case PATCH -> {
+                    Map<String, Object> values = VendorFields.values(m.vendor(), m.fields());
+                    if (ifMatch != null) batch.update(ref, values, ifMatch);
+                    else batch.update(ref, values);
+                }
+                case DELETE -> {
+                    if (ifMatch != null) batch.delete(ref, ifMatch);
+                    else batch.delete(ref);
+                }
+            }
+        }
+        // gRPC hatası hangi belge olduğunu söylemez; tek yazmada id bilinir (VendorService düşen grubu tek tek dener)
+        String target = mutations.size() == 1 ? mutations.get(0).id() : "one of " + mutations.size() + " batched writes";
+        return Futures.fromApiFuture(batch.commit()).handle((results, error) -> {
+            if (error == null) return null;
+            Throwable cause = Futures.unwrap(error);
+            if (hasCode(cause, StatusCode.Code.NOT_FOUND)) {
+                throw new VendorNotFoundException(target, cause);
+            }
+            if (hasCode(cause, StatusCode.Code.FAILED_PRECONDITION)) {
+                throw new VendorVersionMismatchException(target, cause);
+            }
+            throw new RuntimeException("Failed to commit vendor batch to Firestore", cause);
+        });
+    }
+
+    private static boolean hasCode(Throwable t, StatusCode.Code code) {
+        for (Throwable c = t; c != null; c = c.getCause()) {
+            if (c instanceof ApiException api && api.getStatusCode().getCode() == code) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // BulkWriter yazmaları gruplayıp paralel gönderir, geçici hataları kendisi yeniden dener
+    @Override
+    public VendorBulkWriter bulkWriter() {
+        BulkWriter writer = db().bulkWriter();
+        CollectionReference vendors = db().collection(COLLECTION);
+        return new VendorBulkWriter() {
+            @Override
+            public CompletableFuture<Void> save(Vendor v) {
+                return Futures.wrapFailure(Futures.fromApiFuture(writer.set(vendors.document(v.getId()), v))
+                        .thenApply(result -> (Void) null), "Failed to write vendor to Firestore");
+            }
+
+            @Override
+            public void close() {
+                try {
+                    writer.close(); // flush + bekle
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while flushing vendor writes", e);
+                } catch (ExecutionException e) {
+                    // Satır hataları save()'in future'larında raporlanır
+                    throw new RuntimeException("Failed to flush vendor writes to Firestore", e);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.vendorbackend.repository;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/** Helpers shared by the async store/service methods. */
+public final class Futures {
+
+    private Futures() {
+    }
+
+    /**
+     * Completes when the Firestore call completes, without parking a thread in between.
+     * Callbacks run on the client's transport thread, so chained stages must stay cheap and non-blocking.
+     */
+    public static <T> CompletableFuture<T> fromApiFuture(ApiFuture<T> future) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        ApiFutures.addCallback(future, new ApiFutureCallback<T>() {
+            @Override
+            public void onFailure(Throwable t) {
+                result.completeExceptionally(t);
+            }
+
+            @Override
+            public void onSuccess(T value) {
+                result.complete(value);
+            }
+        }, MoreExecutors.directExecutor());
+        return result;
+    }
+
+    /** Runs a blocking call in the caller's thread and returns its outcome as an already completed future. */
+    public static <T> CompletableFuture<T> supply(Supplier<T> call) {
+        try {
+            return CompletableFuture.completedFuture(call.get());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /** Fails with {@code new RuntimeException(message, cause)} like the blocking store methods do. */
+    public static <T> CompletableFuture<T> wrapFailure(CompletableFuture<T> future, String message) {
+        return future.handle((value, error) -> {
+            if (error != null) {
+                throw new RuntimeException(message, unwrap(error));
+            }
+            return value;
+        });
+    }
+
+    /** Waits for the future and rethrows its failure unwrapped (for the blocking API). */
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new RuntimeException(cause);
+        }
+    }
+
+    public static Throwable unwrap(Throwable t) {
+        while (t instanceof CompletionException && t.getCause() != null) {
+            t = t.getCause();
+        }
+        return t;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.vendorbackend.repository;
+
+import com.example.vendorbackend.model.Rating;
+import com.example.vendorbackend.model.Vendor;
+import com.example.vendorbackend.model.VendorVersion;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+@Repository
+@Profile("jpa")
+public class JpaRatingStore implements RatingStore {
+
+    private final VendorRepository vendors;
+    private final RatingRepository ratings;
+
+    public JpaRatingStore(VendorRepository vendors, RatingRepository ratings) {
+        this.vendors = vendors;
+        this.ratings = ratings;
+    }
+
+    /**
+     * Same bookkeeping as the Firestore store: only the users' rating rows are read,
+     * the vendor's sum/count are bumped with a single atomic UPDATE.
+     */
+    @Override
+    @Transactional
+    public Vendor submitRatings(String vendorId, Map<String, Double> valuesByUser) {
+        double deltaSum = 0.0;
+        int deltaCount = 0;
+
+        for (Map.Entry<String, Double> e : valuesByUser.entrySet()) {
+            String userId = e.getKey();
+            double value = e.getValue();
+            String ratingId = userId + "_" + vendorId;
+            Optional<Rating> existing = ratings.findById(ratingId);
+            if (existing.isEmpty()) {
+                deltaSum += value;
+                deltaCount += 1;
+            } else {
+                deltaSum += value - existing.get().getValue();
+            }
+
+            Rating rating = existing.orElseGet(Rating::new);
+            rating.setId(ratingId);
+            rating.setUserId(userId);
+            rating.setVendorId(vendorId);
+            rating.setValue(value);
+            ratings.save(rating);
+        }
+
+        if (vendors.incrementRating(vendorId, deltaSum, deltaCount, VendorVersion.next()) == 0) {
+            throw new VendorNotFoundException(vendorId);
+        }
+        return vendors.findById(vendorId).orElseThrow();
+    }
+
+    // Default metot proxy'den geçmez; tek puan da transaction içinde yazılsın
+    @Override
+    @Transactional
+    public Vendor submitRating(String userId, String vendorId, double value) {
+        return submitRatings(vendorId, Map.of(userId, value));
+    }
+
+    // JDBC bloklayıcı; async varyantlar da aynı transaction içinde senkron çalışır
+    @Override
+    @Transactional
+    public CompletableFuture<Vendor> submitRatingsAsync(String vendorId, Map<String, Double> valuesByUser) {
+        return CompletableFuture.completedFuture(submitRatings(vendorId, valuesByUser));
+    }
+
+    @Override
+    @Transactional
+    public CompletableFuture<Vendor> submitRatingAsync(String userId, String vendorId, double value) {
+        return CompletableFuture.completedFuture(submitRatings(vendorId, Map.of(userId, value)));
+    }
+
+    @Override
+    public SortedSet<String> ratedVendorIds(String userId, String afterId, int limit) {
+        // "" her id'den önce gelir
+        return new TreeSet<>(ratings.findVendorIdsByUserId(userId, afterId == null ? "" : afterId, Limit.of(limit)));
+    }
+}
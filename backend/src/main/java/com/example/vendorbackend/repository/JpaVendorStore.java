@@ -0,0 +1,90 @@
+package com.example.vendorbackend.repository;
+
+import com.example.vendorbackend.model.Vendor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * JPA/H2 backend ("jpa" profile): the whole API runs against the in-process datasource,
+ * e.g. for local load tests without network round trips.
+ */
+@Repository
+@Profile("jpa")
+public class JpaVendorStore implements VendorStore {
+
+    private final VendorRepository vendors;
+
+    public JpaVendorStore(VendorRepository vendors) {
+        this.vendors = vendors;
+    }
+
+    @Override
+    public List<Vendor> findAll() {
+        return vendors.findAll();
+    }
+
+    @Override
+    public List<Vendor> findPage(int limit, String afterId) {
+        return afterId == null
+                ? vendors.findAllByOrderByIdAsc(Limit.of(limit))
+                : vendors.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit));
+    }
+
+    @Override
+    public Optional<Vendor> findById(String id) {
+        return vendors.findById(id);
+    }
+
+    @Override
+    public Map<String, Vendor> findAllById(Set<String> ids) {
+        Map<String, Vendor> result = new LinkedHashMap<>();
+        for (Vendor v : vendors.findAllById(ids)) {
+            result.put(v.getId(), v);
+        }
+        return result;
+    }
+
+    @Override
+    public Vendor save(Vendor v) {
+        return vendors.save(v);
+    }
+
+    @Override
+    public void delete(String id) {
+        vendors.deleteById(id);
+    }
+
+    // Tek transaction: bir PATCH'in vendor'ı yoksa tüm grup geri alınır
+    @Override
+    @Transactional
+    public void commit(List<VendorMutation> mutations) {
+        VendorStore.super.commit(mutations);
+    }
+
+    // Default metot proxy'yi atlar; transaction için açıkça override
+    @Override
+    @Transactional
+    public CompletableFuture<Void> commitAsync(List<VendorMutation> mutations) {
+        commit(mutations);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    // Tek GROUP'suz aggregate sorgusu; satırlar belleğe çekilmez
+    @Override
+    public CompletableFuture<VendorAggregates> aggregateAsync(String category, String city) {
+        return Futures.supply(() -> {
+            VendorRepository.AggregateRow row = vendors.aggregate(category, city);
+            return new VendorAggregates(row.getCount(), orZero(row.getUnrated()), orZero(row.getWithoutAgreement()),
+                    row.getRatingSum() == null ? 0.0 : row.getRatingSum(), orZero(row.getRatingCount()));
+        });
+    }
+
+    private static long orZero(Long value) {
+        return value == null ? 0L : value;
+    }
+}
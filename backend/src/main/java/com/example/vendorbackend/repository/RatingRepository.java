@@ -0,0 +1,16 @@
+package com.example.vendorbackend.repository;
+
+import com.example.vendorbackend.model.Rating;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface RatingRepository extends JpaRepository<Rating, String> {
+
+    // (user_id, vendor_id) index'i üzerinden aralık okuması; tablo taranmaz
+    @Query("select r.vendorId from Rating r where r.userId = :userId and r.vendorId > :afterId order by r.vendorId")
+    List<String> findVendorIdsByUserId(@Param("userId") String userId, @Param("afterId") String afterId, Limit limit);
+}
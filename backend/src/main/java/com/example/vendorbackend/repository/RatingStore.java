@@ -0,0 +1,44 @@
+package com.example.vendorbackend.repository;
+
+import com.example.vendorbackend.model.Vendor;
+
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Storage SPI behind RatingService, selected by profile like {@link VendorStore}.
+ */
+public interface RatingStore {
+
+    /**
+     * Upserts each user's rating for the vendor and adds the net change to the vendor's
+     * ratingSum/ratingCount with an atomic increment (the average is derived, see Vendor#getRating).
+     * Throws {@link VendorNotFoundException} if the vendor does not exist.
+     */
+    Vendor submitRatings(String vendorId, Map<String, Double> valuesByUser);
+
+    default Vendor submitRating(String userId, String vendorId, double value) {
+        return submitRatings(vendorId, Map.of(userId, value));
+    }
+
+    /** Non-blocking variant; by default runs {@link #submitRatings} in the caller's thread. */
+    default CompletableFuture<Vendor> submitRatingsAsync(String vendorId, Map<String, Double> valuesByUser) {
+        return Futures.supply(() -> submitRatings(vendorId, valuesByUser));
+    }
+
+    default CompletableFuture<Vendor> submitRatingAsync(String userId, String vendorId, double value) {
+        return submitRatingsAsync(vendorId, Map.of(userId, value));
+    }
+
+    /**
+     * Up to {@code limit} ids of the vendors the user has rated that sort after {@code afterId} (null:
+     * from the first), in id order. Served from a per-user index that the rating write path keeps
+     * current, so a caller paging vendors by id reads only the slice of the index it is paging through.
+     */
+    SortedSet<String> ratedVendorIds(String userId, String afterId, int limit);
+
+    default CompletableFuture<SortedSet<String>> ratedVendorIdsAsync(String userId, String afterId, int limit) {
+        return Futures.supply(() -> ratedVendorIds(userId, afterId, limit));
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.vendorbackend.repository;
+
+import com.google.cloud.firestore.*;
+import com.google.firebase.cloud.FirestoreClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * One-time migration for vendor documents written before ratingSum existed.
+ * Rating writes now add to ratingSum with FieldValue.increment without reading the vendor, so a
+ * document that only has rating/ratingCount would start its sum from zero. On startup this runner
+ * pages through the vendors once, sets ratingSum = rating * ratingCount where the field is missing
+ * (guarded by the document's update time, so a concurrent write simply wins) and records a marker
+ * document so later startups skip the scan.
+ */
+@Component
+@Profile("!jpa")
+@ConditionalOnProperty(name = "ratings.backfill-sums", havingValue = "true", matchIfMissing = true)
+public class RatingSumBackfill implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(RatingSumBackfill.class);
+
+    private static final int PAGE_SIZE = 500;
+
+    private Firestore db() {
+        return FirestoreClient.getFirestore();
+    }
+
+    private DocumentReference marker() {
+        return db().collection("_meta").document("ratingSumBackfill");
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            if (marker().get().get().exists()) {
+                return;
+            }
+            int updated = 0;
+            int skipped = 0;
+            String afterId = null;
+            while (true) {
+                Query query = db().collection(FirestoreVendorStore.COLLECTION)
+                        .orderBy(FieldPath.documentId())
+                        .limit(PAGE_SIZE);
+                if (afterId != null) {
+                    query = query.startAfter(afterId);
+                }
+                QuerySnapshot page = query.get().get();
+                for (QueryDocumentSnapshot doc : page.getDocuments()) {
+                    if (doc.contains("ratingSum")) continue;
+                    Double rating = doc.getDouble("rating");
+                    Long count = doc.getLong("ratingCount");
+                    double sum = (rating != null && count != null) ? rating * count : 0.0;
+                    try {
+                        doc.getReference()
+                                .update(Map.of("ratingSum", sum), Precondition.updatedAt(doc.getUpdateTime()))
+                                .get();
+                        updated++;
+                    } catch (ExecutionException e) {
+                        // Arada yazılmış belge; marker yazılmaz, bir sonraki açılışta tekrar denenir
+                        skipped++;
+                        log.warn("Skipped ratingSum backfill for vendor {}: {}", doc.getId(), e.getMessage());
+                    }
+                }
+                if (page.size() < PAGE_SIZE) break;
+                afterId = page.getDocuments().get(page.size() - 1).getId();
+            }
+            if (skipped == 0) {
+                marker().set(Map.of("done", true, "updated", updated)).get();
+            }
+            log.info("ratingSum backfill finished, {} vendor(s) updated, {} skipped", updated, skipped);
+        } catch (InterruptedException | ExecutionException | RuntimeException e) {
+            log.warn("ratingSum backfill failed, will retry on next startup: {}", e.getMessage());
+        }
+    }
+}
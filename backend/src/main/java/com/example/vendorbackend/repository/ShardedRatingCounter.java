@@ -0,0 +1,190 @@
+package com.example.vendorbackend.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.StatusCode;
+import com.google.cloud.firestore.*;
+import com.google.firebase.cloud.FirestoreClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sharded rating counters (ratings.shards > 1).
+ * Instead of rewriting ratingSum/ratingCount on the vendor document for every rating, each write
+ * increments one of N shard documents under vendors/{id}/ratingShards, so a hot vendor can absorb
+ * roughly N times more ratings per second. A vendor's totals are the sum over all shard documents;
+ * they are cached briefly and rolled up into the vendor document on a fixed delay so list reads
+ * still see a recent average.
+ *
+ * The first sharded rating of a vendor copies its pre-existing totals into the "seed" shard,
+ * which is never written again.
+ *
+ * Each increment also sets {@code dirty} on its shard, and the roll-up clears it, so vendors
+ * rated but not yet rolled up when an instance stopped are found again after a restart: the
+ * first roll-up sweeps the shards for the marker with a collection group query (needs the
+ * single-field index on {@code ratingShards.dirty} enabled for collection group scope).
+ */
+@Component
+@Profile("!jpa")
+public class ShardedRatingCounter {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardedRatingCounter.class);
+
+    static final String SHARDS = "ratingShards";
+    static final String SEED = "seed";
+    static final String DIRTY = "dirty";
+
+    public record Totals(double sum, long count) {
+        public Totals plus(double deltaSum, long deltaCount) {
+            return new Totals(sum + deltaSum, count + deltaCount);
+        }
+
+        public double average() {
+            return count == 0 ? 0.0 : sum / count;
+        }
+    }
+
+    private final int shards;
+    private final Cache<String, Totals> totals;
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private final boolean loadOutsideLock;
+    private volatile boolean swept; // yeniden başlatmadan önce kalan dirty işaretleri okundu mu
+
+    public ShardedRatingCounter(@Value("${ratings.shards:1}") int shards,
+                                @Value("${ratings.shards.cache-ttl:5s}") Duration cacheTtl,
+                                @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.shards = shards;
+        this.loadOutsideLock = virtualThreads;
+        this.totals = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(cacheTtl)
+                .build();
+    }
+
+    private Firestore db() {
+        return FirestoreClient.getFirestore();
+    }
+
+    public boolean enabled() {
+        return shards > 1;
+    }
+
+    DocumentReference seedShard(DocumentReference vendorRef) {
+        return vendorRef.collection(SHARDS).document(SEED);
+    }
+
+    DocumentReference randomShard(DocumentReference vendorRef) {
+        int shard = ThreadLocalRandom.current().nextInt(shards);
+        return vendorRef.collection(SHARDS).document(String.valueOf(shard));
+    }
+
+    /** Adds the delta to a random shard inside the caller's transaction and marks it dirty; no shard is read. */
+    void increment(Transaction tx, DocumentReference vendorRef, double deltaSum, long deltaCount) {
+        tx.set(randomShard(vendorRef),
+                Map.of("sum", FieldValue.increment(deltaSum), "count", FieldValue.increment(deltaCount), DIRTY, true),
+                SetOptions.merge());
+    }
+
+    /** Called after the transaction committed: keeps cached totals current and schedules a roll-up. */
+    void recorded(String vendorId, double deltaSum, long deltaCount) {
+        totals.asMap().computeIfPresent(vendorId, (id, t) -> t.plus(deltaSum, deltaCount));
+        dirty.add(vendorId);
+    }
+
+    Totals totals(DocumentReference vendorRef) {
+        if (loadOutsideLock) {
+            // Sanal thread'de Caffeine'in kilidi içinde bloklayıcı okuma carrier'ı pin'ler (bkz. VendorCache)
+            Totals cached = totals.getIfPresent(vendorRef.getId());
+            if (cached != null) return cached;
+            Totals summed = sumShards(vendorRef);
+            totals.put(vendorRef.getId(), summed);
+            return summed;
+        }
+        return totals.get(vendorRef.getId(), id -> sumShards(vendorRef));
+    }
+
+    private Totals sumShards(DocumentReference vendorRef) {
+        try {
+            return sum(vendorRef.collection(SHARDS).get().get().getDocuments());
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException("Failed to read rating shards from Firestore", e);
+        }
+    }
+
+    private static Totals sum(List<QueryDocumentSnapshot> shards) {
+        double sum = 0.0;
+        long count = 0L;
+        for (QueryDocumentSnapshot shard : shards) {
+            Double s = shard.getDouble("sum");
+            Long c = shard.getLong("count");
+            sum += s != null ? s : 0.0;
+            count += c != null ? c : 0L;
+        }
+        return new Totals(sum, count);
+    }
+
+    /**
+     * Writes summed shard totals back to each vendor rated since the last run and clears its shards'
+     * dirty markers, in one batch per vendor.
+     */
+    @Scheduled(fixedDelayString = "${ratings.shards.rollup-interval-ms:10000}")
+    public void rollup() {
+        if (!enabled()) return;
+        if (!swept) sweep();
+        for (String vendorId : Set.copyOf(dirty)) {
+            dirty.remove(vendorId);
+            DocumentReference vendorRef = db().collection(FirestoreVendorStore.COLLECTION).document(vendorId);
+            try {
+                List<QueryDocumentSnapshot> shardDocs = vendorRef.collection(SHARDS).get().get().getDocuments();
+                Totals t = sum(shardDocs);
+                totals.put(vendorId, t);
+                WriteBatch batch = db().batch();
+                batch.update(vendorRef, Map.of(
+                        "ratingSum", t.sum(),
+                        "ratingCount", t.count(),
+                        "rating", t.average()));
+                for (QueryDocumentSnapshot shard : shardDocs) {
+                    if (Boolean.TRUE.equals(shard.getBoolean(DIRTY))) {
+                        // Okunduktan sonra artırılan shard'ın işareti silinmesin: değişmişse batch düşer
+                        batch.update(shard.getReference(), Map.of(DIRTY, false),
+                                Precondition.updatedAt(shard.getUpdateTime()));
+                    }
+                }
+                batch.commit().get();
+            } catch (InterruptedException | ExecutionException | RuntimeException e) {
+                // Silinmiş vendor ise NOT_FOUND; diğer hatalarda bir sonraki turda tekrar dene
+                log.warn("Rating roll-up failed for vendor {}: {}", vendorId, e.getMessage());
+                if (!(e.getCause() instanceof ApiException api
+                        && api.getStatusCode().getCode() == StatusCode.Code.NOT_FOUND)) {
+                    dirty.add(vendorId);
+                }
+            }
+        }
+    }
+
+    // Önceki çalışmadan kalan, henüz toplanmamış vendor'lar (ör. roll-up'tan önce kapanan instance)
+    private void sweep() {
+        try {
+            for (QueryDocumentSnapshot shard : db().collectionGroup(SHARDS).whereEqualTo(DIRTY, true)
+                    .select(FieldPath.documentId()).get().get().getDocuments()) {
+                dirty.add(shard.getReference().getParent().getParent().getId());
+            }
+            swept = true;
+        } catch (InterruptedException | ExecutionException | RuntimeException e) {
+            log.warn("Rating roll-up sweep failed, will retry on the next run: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.vendorbackend.repository;
+
+import com.example.vendorbackend.model.Vendor;
+
+import java.util.Collection;
+
+/**
+ * Counts and rating totals over a set of vendors, as returned by {@link VendorStore#aggregateAsync}.
+ * withoutAgreement counts vendors whose agreementNumber is null or empty.
+ */
+public record VendorAggregates(long count, long unrated, long withoutAgreement, double ratingSum, long ratingCount) {
+
+    /** Computes the aggregates in memory (stores without server-side aggregation). */
+    public static VendorAggregates of(Collection<Vendor> vendors) {
+        long unrated = 0;
+        long withoutAgreement = 0;
+        double ratingSum = 0.0;
+        long ratingCount = 0;
+        for (Vendor v : vendors) {
+            int count = v.getRatingCount() == null ? 0 : v.getRatingCount();
+            if (count == 0) unrated++;
+            if (v.getAgreementNumber() == null || v.getAgreementNumber().isEmpty()) withoutAgreement++;
+            ratingSum += v.getRatingSum() == null ? 0.0 : v.getRatingSum();
+            ratingCount += count;
+        }
+        return new VendorAggregates(vendors.size(), unrated, withoutAgreement, ratingSum, ratingCount);
+    }
+}
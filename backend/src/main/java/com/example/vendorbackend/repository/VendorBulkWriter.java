@@ -0,0 +1,19 @@
+package com.example.vendorbackend.repository;
+
+import com.example.vendorbackend.model.Vendor;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Write session for bulk loads (see {@link VendorStore#bulkWriter()}).
+ * Each {@link #save} completes independently, so one bad row does not fail the others;
+ * {@link #close} flushes and waits until every queued write has completed.
+ */
+public interface VendorBulkWriter extends AutoCloseable {
+
+    /** Queues a create-or-overwrite of {@code v.getId()}. */
+    CompletableFuture<Void> save(Vendor v);
+
+    @Override
+    void close();
+}
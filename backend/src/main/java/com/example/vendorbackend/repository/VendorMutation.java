@@ -0,0 +1,37 @@
+package com.example.vendorbackend.repository;
+
+import com.example.vendorbackend.model.Vendor;
+
+import java.util.Set;
+
+/**
+ * One write of a {@link VendorStore#commit} group.
+ * CREATE writes the whole vendor, PATCH sets only {@code fields} (taken from {@code vendor})
+ * on an existing vendor, DELETE removes it (a missing vendor is not an error).
+ * A non-null {@code expectedVersion} makes PATCH/DELETE conditional on the vendor's current
+ * version; otherwise the group fails with {@link VendorVersionMismatchException}.
+ */
+public record VendorMutation(Kind kind, String id, Vendor vendor, Set<String> fields, Long expectedVersion) {
+
+    public enum Kind { CREATE, PATCH, DELETE }
+
+    public static VendorMutation create(Vendor v) {
+        return new VendorMutation(Kind.CREATE, v.getId(), v, Set.of(), null);
+    }
+
+    public static VendorMutation patch(String id, Vendor values, Set<String> fields) {
+        return patch(id, values, fields, null);
+    }
+
+    public static VendorMutation patch(String id, Vendor values, Set<String> fields, Long expectedVersion) {
+        return new VendorMutation(Kind.PATCH, id, values, fields, expectedVersion);
+    }
+
+    public static VendorMutation delete(String id) {
+        return delete(id, null);
+    }
+
+    public static VendorMutation delete(String id, Long expectedVersion) {
+        return new VendorMutation(Kind.DELETE, id, null, Set.of(), expectedVersion);
+    }
+}
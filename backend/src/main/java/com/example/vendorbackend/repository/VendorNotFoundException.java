@@ -0,0 +1,13 @@
+package com.example.vendorbackend.repository;
+
+/** A write addressed a vendor that does not exist (HTTP 404). */
+public class VendorNotFoundException extends RuntimeException {
+
+    public VendorNotFoundException(String vendorId) {
+        this(vendorId, null);
+    }
+
+    public VendorNotFoundException(String vendorId, Throwable cause) {
+        super("Vendor not found: " + vendorId, cause);
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.vendorbackend.repository;
+
+/** Rating totals over a set of vendors, as returned by {@link VendorStore#ratingTotalsAsync}. */
+public record VendorRatingTotals(double ratingSum, long ratingCount) {
+}
@@ -2,6 +2,41 @@
 package com.example.vendorbackend.repository;
 
 import com.example.vendorbackend.model.Vendor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface VendorRepository extends JpaRepository<Vendor, String> { }
+import java.util.List;
+import java.util.Optional;
+
+public interface VendorRepository extends JpaRepository<Vendor, String> {
+
+    List<Vendor> findAllByOrderByIdAsc(Limit limit);
+
+    List<Vendor> findByIdGreaterThanOrderByIdAsc(String id, Limit limit);
+
+    /** One row of {@link #aggregate}; sums are null when no vendor matches. */
+    interface AggregateRow {
+        long getCount();
+        Long getUnrated();
+        Long getWithoutAgreement();
+        Double getRatingSum();
+        Long getRatingCount();
+    }
+
+    @Query("select count(v) as count, "
+            + "sum(case when coalesce(v.ratingCount, 0) = 0 then 1 else 0 end) as unrated, "
+            + "sum(case when coalesce(v.agreementNumber, '') = '' then 1 else 0 end) as withoutAgreement, "
+            + "sum(v.ratingSum) as ratingSum, sum(v.ratingCount) as ratingCount from Vendor v "
+            + "where (:category is null or v.category = :category) and (:city is null or v.city = :city)")
+    AggregateRow aggregate(@Param("category") String category, @Param("city") String city);
+
+    /** Atomic in-place increment; returns 0 if the vendor does not exist. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Vendor v set v.ratingSum = coalesce(v.ratingSum, 0) + :sum, "
+            + "v.ratingCount = coalesce(v.ratingCount, 0) + :count, v.version = :version where v.id = :id")
+    int incrementRating(@Param("id") String id, @Param("sum") double sum, @Param("count") int count,
+                        @Param("version") long version);
+}
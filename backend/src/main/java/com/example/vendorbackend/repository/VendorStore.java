@@ -0,0 +1,155 @@
+package com.example.vendorbackend.repository;
+
+import com.example.vendorbackend.model.Vendor;
+import com.example.vendorbackend.model.VendorFields;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Storage SPI behind VendorService. The Firestore implementation is the default;
+ * the "jpa" profile switches to the JPA/H2 implementation.
+ *
+ * The *Async variants default to running the blocking method in the caller's thread;
+ * stores with a non-blocking client (Firestore) override them.
+ */
+public interface VendorStore {
+
+    List<Vendor> findAll();
+
+    /** Up to {@code limit} vendors ordered by id, strictly after {@code afterId} (null = from the start). */
+    List<Vendor> findPage(int limit, String afterId);
+
+    Optional<Vendor> findById(String id);
+
+    /** Found vendors keyed by id; missing ids are simply absent. */
+    Map<String, Vendor> findAllById(Set<String> ids);
+
+    /** Creates or fully overwrites the vendor with {@code v.getId()}. */
+    Vendor save(Vendor v);
+
+    void delete(String id);
+
+    default CompletableFuture<List<Vendor>> findAllAsync() {
+        return Futures.supply(this::findAll);
+    }
+
+    default CompletableFuture<List<Vendor>> findPageAsync(int limit, String afterId) {
+        return Futures.supply(() -> findPage(limit, afterId));
+    }
+
+    /**
+     * Projection variants: only {@code fields} (see VendorSummary.FIELDS) need to be loaded, the rest
+     * of each returned Vendor may be left at defaults. The default loads whole vendors.
+     */
+    default CompletableFuture<List<Vendor>> findAllAsync(Set<String> fields) {
+        return findAllAsync();
+    }
+
+    default CompletableFuture<List<Vendor>> findPageAsync(int limit, String afterId, Set<String> fields) {
+        return findPageAsync(limit, afterId);
+    }
+
+    /**
+     * Counts and rating totals of the vendors with the given category and/or city (exact match,
+     * null = any). The default loads every vendor and adds them up; both real stores aggregate
+     * on the server instead.
+     */
+    default CompletableFuture<VendorAggregates> aggregateAsync(String category, String city) {
+        return findAllAsync().thenApply(all -> VendorAggregates.of(all.stream()
+                .filter(v -> category == null || category.equals(v.getCategory()))
+                .filter(v -> city == null || city.equals(v.getCity()))
+                .toList()));
+    }
+
+    /**
+     * Only the rating totals of {@link #aggregateAsync}, for callers that know the counts already
+     * (one aggregation query on Firestore instead of three). The default takes them from aggregateAsync.
+     */
+    default CompletableFuture<VendorRatingTotals> ratingTotalsAsync(String category, String city) {
+        return aggregateAsync(category, city).thenApply(a -> new VendorRatingTotals(a.ratingSum(), a.ratingCount()));
+    }
+
+    default CompletableFuture<Optional<Vendor>> findByIdAsync(String id) {
+        return Futures.supply(() -> findById(id));
+    }
+
+    default CompletableFuture<Map<String, Vendor>> findAllByIdAsync(Set<String> ids) {
+        return Futures.supply(() -> findAllById(ids));
+    }
+
+    default CompletableFuture<Vendor> saveAsync(Vendor v) {
+        return Futures.supply(() -> save(v));
+    }
+
+    default CompletableFuture<Void> deleteAsync(String id) {
+        return Futures.supply(() -> {
+            delete(id);
+            return null;
+        });
+    }
+
+    /**
+     * Applies the mutations as one atomic group: either all are written or none is.
+     * A PATCH of a missing vendor fails the group with {@link VendorNotFoundException},
+     * a failed {@code expectedVersion} check with {@link VendorVersionMismatchException}.
+     * The default applies them one by one and is only atomic for a single mutation;
+     * both real stores override it.
+     */
+    default void commit(List<VendorMutation> mutations) {
+        for (VendorMutation m : mutations) {
+            switch (m.kind()) {
+                case CREATE -> save(m.vendor());
+                case PATCH -> {
+                    Vendor existing = findById(m.id())
+                            .orElseThrow(() -> new VendorNotFoundException(m.id()));
+                    checkVersion(m, existing);
+                    VendorFields.copy(m.vendor(), existing, m.fields());
+                    save(existing);
+                }
+                case DELETE -> {
+                    if (m.expectedVersion() != null) {
+                        checkVersion(m, findById(m.id())
+                                .orElseThrow(() -> new VendorNotFoundException(m.id())));
+                    }
+                    delete(m.id());
+                }
+            }
+        }
+    }
+
+    private static void checkVersion(VendorMutation m, Vendor current) {
+        if (m.expectedVersion() != null && !m.expectedVersion().equals(current.getVersion())) {
+            throw new VendorVersionMismatchException(m.id());
+        }
+    }
+
+    default CompletableFuture<Void> commitAsync(List<VendorMutation> mutations) {
+        return Futures.supply(() -> {
+            commit(mutations);
+            return null;
+        });
+    }
+
+    /**
+     * Opens a bulk write session for imports. The default writes each vendor with {@link #save}
+     * in the caller's thread; stores with a batching client (Firestore BulkWriter) override it.
+     */
+    default VendorBulkWriter bulkWriter() {
+        return new VendorBulkWriter() {
+            @Override
+            public CompletableFuture<Void> save(Vendor v) {
+                return Futures.supply(() -> {
+                    VendorStore.this.save(v);
+                    return null;
+                });
+            }
+
+            @Override
+            public void close() { }
+        };
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.vendorbackend.repository;
+
+/** A conditional write found the vendor at a different version than expected (HTTP 412). */
+public class VendorVersionMismatchException extends RuntimeException {
+
+    public VendorVersionMismatchException(String vendorId) {
+        this(vendorId, null);
+    }
+
+    public VendorVersionMismatchException(String vendorId, Throwable cause) {
+        super("Vendor version mismatch: " + vendorId, cause);
+    }
+}
@@ -1,15 +1,37 @@
 package com.example.vendorbackend.service;
 
+import com.example.vendorbackend.config.FirebaseTokenVerifier;
 import com.example.vendorbackend.dto.LoginRequest;
 import com.example.vendorbackend.dto.SignupRequest;
 import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseAuthException;
 import com.google.firebase.auth.UserRecord;
 import com.google.firebase.auth.UserRecord.CreateRequest;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 @Service
 public class AuthService {
 
+    /** Revokes a user's refresh tokens (FirebaseAuth#revokeRefreshTokens by default). */
+    @FunctionalInterface
+    interface TokenRevoker {
+        void revoke(String uid) throws FirebaseAuthException;
+    }
+
+    private final FirebaseTokenVerifier tokenVerifier;
+    private final TokenRevoker revoker;
+
+    @Autowired
+    public AuthService(FirebaseTokenVerifier tokenVerifier) {
+        this(tokenVerifier, uid -> FirebaseAuth.getInstance().revokeRefreshTokens(uid));
+    }
+
+    AuthService(FirebaseTokenVerifier tokenVerifier, TokenRevoker revoker) {
+        this.tokenVerifier = tokenVerifier;
+        this.revoker = revoker;
+    }
+
     public String signup(SignupRequest request) throws Exception {
         CreateRequest createRequest = new CreateRequest()
                 .setEmail(request.getEmail())
@@ -31,6 +53,18 @@ public class AuthService {
         return "Login endpoint: frontend Firebase SDK kullanmalı";
     }
 
+    /**
+     * Ends every session of the user: their refresh tokens are revoked, so no new ID tokens can be
+     * minted, and their cached ID tokens are dropped from the verifier. With auth.check-revoked=true
+     * the next request with an old ID token is then re-verified and rejected instead of being served
+     * from the cache until max-ttl.
+     */
+    public void logout(String uid) throws FirebaseAuthException {
+        revoker.revoke(uid);
+        // İptalden sonra: araya giren bir doğrulama token'ı iptal öncesi haliyle yeniden cache'lemesin
+        tokenVerifier.invalidateUser(uid);
+    }
+
     public void sendPasswordReset(String email) throws Exception {
         String link = FirebaseAuth.getInstance().generatePasswordResetLink(email);
         // Linki kullanıcıya email olarak göndermelisin
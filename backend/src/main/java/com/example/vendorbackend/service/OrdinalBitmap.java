@@ -0,0 +1,97 @@
+package com.example.vendorbackend.service;
+
+import java.util.Arrays;
+
+/**
+ * Set of vendor ordinals as a plain bitmap (one bit per ordinal, 64 per word). Ordinals are dense
+ * and reused after deletes, so 100k vendors fit in 12.5 KB per set; intersections are word-wise
+ * ANDs and counts are popcounts. Not thread-safe.
+ */
+final class OrdinalBitmap {
+
+    private long[] words;
+
+    OrdinalBitmap() {
+        this(new long[1]);
+    }
+
+    private OrdinalBitmap(long[] words) {
+        this.words = words;
+    }
+
+    void set(int ordinal) {
+        int word = ordinal >>> 6;
+        if (word >= words.length) {
+            words = Arrays.copyOf(words, Math.max(word + 1, words.length * 2));
+        }
+        words[word] |= 1L << ordinal;
+    }
+
+    void clear(int ordinal) {
+        int word = ordinal >>> 6;
+        if (word < words.length) words[word] &= ~(1L << ordinal);
+    }
+
+    boolean get(int ordinal) {
+        int word = ordinal >>> 6;
+        return word < words.length && (words[word] & (1L << ordinal)) != 0;
+    }
+
+    boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) return false;
+        }
+        return true;
+    }
+
+    OrdinalBitmap copy() {
+        return new OrdinalBitmap(words.clone());
+    }
+
+    void and(OrdinalBitmap other) {
+        int common = Math.min(words.length, other.words.length);
+        for (int i = 0; i < common; i++) {
+            words[i] &= other.words[i];
+        }
+        Arrays.fill(words, common, words.length, 0L);
+    }
+
+    void or(OrdinalBitmap other) {
+        if (other.words.length > words.length) {
+            words = Arrays.copyOf(words, other.words.length);
+        }
+        for (int i = 0; i < other.words.length; i++) {
+            words[i] |= other.words[i];
+        }
+    }
+
+    int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /** |this ∩ other| without building the intersection. */
+    int andCardinality(OrdinalBitmap other) {
+        int common = Math.min(words.length, other.words.length);
+        int count = 0;
+        for (int i = 0; i < common; i++) {
+            count += Long.bitCount(words[i] & other.words[i]);
+        }
+        return count;
+    }
+
+    /** First ordinal >= {@code from} in the set, or -1. */
+    int nextSetBit(int from) {
+        int word = from >>> 6;
+        if (word >= words.length) return -1;
+        long bits = words[word] & (-1L << from);
+        while (true) {
+            if (bits != 0) return (word << 6) + Long.numberOfTrailingZeros(bits);
+            if (++word == words.length) return -1;
+            bits = words[word];
+        }
+    }
+}
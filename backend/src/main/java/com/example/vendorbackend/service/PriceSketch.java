@@ -0,0 +1,72 @@
+package com.example.vendorbackend.service;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mergeable quantile sketch for prices: values are counted in logarithmic buckets whose width is
+ * 2% of their value, so any quantile is returned within 1% relative error however many prices
+ * are added. Unlike a t-digest a value can also be removed again (edits and deletes), and memory
+ * only grows with the price range (about 115 buckets per factor of 10), not with the count.
+ * Prices of zero or below share one bucket. Not thread-safe.
+ */
+final class PriceSketch {
+
+    static final double RELATIVE_ACCURACY = 0.01;
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+
+    private final TreeMap<Integer, Long> buckets = new TreeMap<>();
+    private long zeros;
+    private long count;
+    private BigDecimal sum = BigDecimal.ZERO; // ortalama kesin kalsın diye ayrıca tutulur
+
+    void add(BigDecimal price) {
+        update(price, 1);
+    }
+
+    void remove(BigDecimal price) {
+        update(price, -1);
+    }
+
+    private void update(BigDecimal price, int delta) {
+        count += delta;
+        sum = delta > 0 ? sum.add(price) : sum.subtract(price);
+        double value = price.doubleValue();
+        if (value <= 0) {
+            zeros += delta;
+            return;
+        }
+        int index = (int) Math.ceil(Math.log(value) / LOG_GAMMA);
+        buckets.merge(index, (long) delta, (a, b) -> a + b == 0 ? null : a + b);
+    }
+
+    long count() {
+        return count;
+    }
+
+    BigDecimal sum() {
+        return sum;
+    }
+
+    /** The q-quantile (0..1, nearest rank) of the added prices, or null if there are none. */
+    Double quantile(double q) {
+        if (count == 0) {
+            return null;
+        }
+        long rank = Math.max(0, (long) Math.ceil(q * count) - 1);
+        if (rank < zeros) {
+            return 0.0;
+        }
+        long seen = zeros;
+        for (Map.Entry<Integer, Long> bucket : buckets.entrySet()) {
+            seen += bucket.getValue();
+            if (seen > rank) {
+                // kovanın ortası: [gamma^(i-1), gamma^i] aralığında göreli hata en fazla RELATIVE_ACCURACY
+                return 2 * Math.pow(GAMMA, bucket.getKey()) / (GAMMA + 1);
+            }
+        }
+        return 2 * Math.pow(GAMMA, buckets.lastKey()) / (GAMMA + 1);
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.vendorbackend.service;
+
+import com.example.vendorbackend.repository.Futures;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ratings.ingest.mode=async: POST /api/rate-vendors only enqueues the rating and returns 202.
+ * A single background worker drains the bounded queue, waiting up to the flush interval or until
+ * the batch size is reached, and applies all pending ratings of a vendor in one store transaction
+ * (the latest value per user wins). The vendors' transactions of a flush run concurrently, at most
+ * {@code ratings.ingest.concurrency} at a time, and the next batch is drained only when all of them
+ * have finished, so a vendor's writes stay in order. A full queue rejects new ratings instead of
+ * growing; pending ratings are flushed when the application shuts down.
+ */
+@Component
+@ConditionalOnProperty(name = "ratings.ingest.mode", havingValue = "async")
+public class RatingIngestQueue implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(RatingIngestQueue.class);
+
+    record PendingRating(String userId, String vendorId, double value) { }
+
+    private final RatingService ratingService;
+    private final BlockingQueue<PendingRating> queue;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Duration shutdownTimeout;
+    private final Semaphore inFlight; // aynı anda açık vendor transaction'ı
+
+    private final DistributionSummary batchSizes;
+    private final DistributionSummary vendorsPerFlush;
+    private final Counter rejected;
+    private final Counter failed;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public RatingIngestQueue(RatingService ratingService,
+                             MeterRegistry registry,
+                             @Value("${ratings.ingest.capacity:10000}") int capacity,
+                             @Value("${ratings.ingest.batch-size:500}") int batchSize,
+                             @Value("${ratings.ingest.flush-interval:200ms}") Duration flushInterval,
+                             @Value("${ratings.ingest.shutdown-timeout:20s}") Duration shutdownTimeout,
+                             @Value("${ratings.ingest.concurrency:8}") int concurrency) {
+        this.ratingService = ratingService;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.shutdownTimeout = shutdownTimeout;
+        this.inFlight = new Semaphore(concurrency);
+
+        Gauge.builder("ratings.ingest.queue.depth", queue, BlockingQueue::size)
+                .description("Ratings waiting to be written")
+                .register(registry);
+        this.batchSizes = DistributionSummary.builder("ratings.ingest.batch.size")
+                .description("Ratings drained per flush")
+                .register(registry);
+        this.vendorsPerFlush = DistributionSummary.builder("ratings.ingest.batch.vendors")
+                .description("Vendor transactions per flush")
+                .register(registry);
+        this.rejected = Counter.builder("ratings.ingest.rejected")
+                .description("Ratings rejected because the queue was full")
+                .register(registry);
+        this.failed = Counter.builder("ratings.ingest.failed")
+                .description("Queued ratings whose write failed")
+                .register(registry);
+    }
+
+    /** @return false if the queue is full or shutting down (caller should answer 503). */
+    public boolean offer(String userId, String vendorId, double value) {
+        if (!running || !queue.offer(new PendingRating(userId, vendorId, value))) {
+            rejected.increment();
+            return false;
+        }
+        return true;
+    }
+
+    public int depth() {
+        return queue.size();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = new Thread(this::drainLoop, "rating-ingest");
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            worker.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("{} queued ratings were not written before shutdown", queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Web sunucusundan sonra durdurulsun ki kapanırken gelen istekler de kuyruğa girip yazılsın
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void drainLoop() {
+        List<PendingRating> batch = new ArrayList<>(batchSize);
+        // stop() sonrası kuyruk boşalana kadar devam et (flush-on-shutdown)
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingRating first = queue.poll(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                long deadline = System.nanoTime() + flushInterval.toNanos();
+                while (batch.size() < batchSize && running) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) break;
+                    PendingRating next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                queue.drainTo(batch, batchSize - batch.size());
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Rating flush failed", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void flush(List<PendingRating> batch) throws InterruptedException {
+        Map<String, Map<String, Double>> byVendor = new LinkedHashMap<>();
+        for (PendingRating p : batch) {
+            byVendor.computeIfAbsent(p.vendorId(), id -> new LinkedHashMap<>()).put(p.userId(), p.value());
+        }
+        batchSizes.record(batch.size());
+        vendorsPerFlush.record(byVendor.size());
+
+        // Her vendor flush başına bir kez yazılır; sonraki drain hepsi bitince başlar (vendor sırası korunur)
+        List<CompletableFuture<?>> writes = new ArrayList<>(byVendor.size());
+        for (Map.Entry<String, Map<String, Double>> e : byVendor.entrySet()) {
+            inFlight.acquire();
+            writes.add(submit(e.getKey(), e.getValue()).whenComplete((ignored, ex) -> {
+                inFlight.release();
+                if (ex != null) {
+                    failed.increment(e.getValue().size());
+                    log.warn("Dropping {} ratings for vendor {}: {}", e.getValue().size(), e.getKey(),
+                            Futures.unwrap(ex).getMessage());
+                }
+            }));
+        }
+        CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new)).exceptionally(ex -> null).join();
+    }
+
+    private CompletableFuture<?> submit(String vendorId, Map<String, Double> valuesByUser) {
+        try {
+            return ratingService.submitRatingsAsync(vendorId, valuesByUser);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
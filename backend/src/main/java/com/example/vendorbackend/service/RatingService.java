@@ -1,96 +1,84 @@
 package com.example.vendorbackend.service;
 
 import com.example.vendorbackend.model.Vendor;
-import com.google.api.core.ApiFuture;
-import com.google.cloud.firestore.*;
-import com.google.firebase.cloud.FirestoreClient;
+import com.example.vendorbackend.repository.RatingStore;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ExecutionException;
+import java.util.SortedSet;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class RatingService {
 
-    private static final String RATINGS = "ratings";
-    private static final String VENDORS = "vendors";
-
-    private Firestore db() {
-        return FirestoreClient.getFirestore();
+    private final RatingStore store;
+    private final VendorCache vendorCache;
+    private final StoreMetrics metrics;
+    private final ApplicationEventPublisher events;
+
+    public RatingService(RatingStore store, VendorCache vendorCache, StoreMetrics metrics,
+                         ApplicationEventPublisher events) {
+        this.store = store;
+        this.vendorCache = vendorCache;
+        this.metrics = metrics;
+        this.events = events;
     }
 
     /**
      * Upsert user rating and maintain vendor's average using running sum/count inside vendor doc.
-     * This method runs in a Firestore transaction to avoid race conditions.
+     * The store applies both writes atomically to avoid race conditions.
      */
     public Vendor submitRating(String userId, String vendorId, double value) {
         if (value < 0.0 || value > 5.0) {
             throw new IllegalArgumentException("Rating must be between 0 and 5");
         }
+        Vendor updated = metrics.record("ratings", "submitRating",
+                () -> store.submitRating(userId, vendorId, value));
+        vendorCache.invalidate(vendorId);
+        events.publishEvent(VendorChangedEvent.rated(updated));
+        return updated;
+    }
 
-        try {
-            ApiFuture<Vendor> future = db().runTransaction(transaction -> {
-                DocumentReference vendorRef = db().collection(VENDORS).document(vendorId);
-                DocumentSnapshot vendorSnap = transaction.get(vendorRef).get();
-                if (!vendorSnap.exists()) {
-                    throw new RuntimeException("Vendor not found: " + vendorId);
-                }
-
-                // Prepare rating doc id as user_vendor for easy upsert
-                String ratingId = userId + "_" + vendorId;
-                DocumentReference ratingRef = db().collection(RATINGS).document(ratingId);
-
-                Double previousValue = null;
-                DocumentSnapshot ratingSnap = transaction.get(ratingRef).get();
-                if (ratingSnap.exists()) {
-                    previousValue = ratingSnap.getDouble("value");
-                }
-
-                Double ratingSum = vendorSnap.getDouble("ratingSum");
-                Long ratingCount = vendorSnap.getLong("ratingCount");
-
-                if (ratingSum == null) ratingSum = 0.0;
-                if (ratingCount == null) ratingCount = 0L;
-
-                if (previousValue == null) {
-                    // New rating
-                    ratingSum += value;
-                    ratingCount += 1;
-                } else {
-                    // Update existing user's rating
-                    ratingSum += (value - previousValue);
-                }
-
-                double average = ratingCount == 0 ? 0.0 : ratingSum / ratingCount;
-
-                Map<String, Object> vendorUpdates = new HashMap<>();
-                vendorUpdates.put("ratingSum", ratingSum);
-                vendorUpdates.put("ratingCount", ratingCount);
-                vendorUpdates.put("rating", average);
-                transaction.update(vendorRef, vendorUpdates);
-
-                Map<String, Object> ratingDoc = new HashMap<>();
-                ratingDoc.put("id", ratingId);
-                ratingDoc.put("userId", userId);
-                ratingDoc.put("vendorId", vendorId);
-                ratingDoc.put("value", value);
-                if (ratingSnap.exists()) {
-                    transaction.update(ratingRef, ratingDoc);
-                } else {
-                    transaction.set(ratingRef, ratingDoc);
-                }
+    /**
+     * Applies several users' ratings for one vendor in a single store transaction
+     * (used by {@link RatingIngestQueue} to coalesce queued ratings).
+     */
+    public Vendor submitRatings(String vendorId, Map<String, Double> valuesByUser) {
+        Vendor updated = metrics.record("ratings", "submitRatings",
+                () -> store.submitRatings(vendorId, valuesByUser));
+        metrics.recordSize("ratings", "submitRatings", valuesByUser.size());
+        vendorCache.invalidate(vendorId);
+        events.publishEvent(VendorChangedEvent.rated(updated));
+        return updated;
+    }
 
-                // Return updated vendor snapshot mapped to Vendor
-                DocumentSnapshot updated = transaction.get(vendorRef).get();
-                Vendor v = updated.toObject(Vendor.class);
-                if (v != null) v.setId(updated.getId());
-                return v;
-            });
+    /** Non-blocking {@link #submitRatings}; the cache is invalidated once the store has committed. */
+    public CompletableFuture<Vendor> submitRatingsAsync(String vendorId, Map<String, Double> valuesByUser) {
+        metrics.recordSize("ratings", "submitRatings", valuesByUser.size());
+        return metrics.recordAsync("ratings", "submitRatings", () -> store.submitRatingsAsync(vendorId, valuesByUser))
+                .thenApply(updated -> {
+                    vendorCache.invalidate(vendorId);
+                    events.publishEvent(VendorChangedEvent.rated(updated));
+                    return updated;
+                });
+    }
 
-            return future.get();
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Failed to submit rating", e);
+    /** Non-blocking {@link #submitRating}; the cache is invalidated once the store has committed. */
+    public CompletableFuture<Vendor> submitRatingAsync(String userId, String vendorId, double value) {
+        if (value < 0.0 || value > 5.0) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Rating must be between 0 and 5"));
         }
+        return metrics.recordAsync("ratings", "submitRating", () -> store.submitRatingAsync(userId, vendorId, value))
+                .thenApply(updated -> {
+                    vendorCache.invalidate(vendorId);
+                    events.publishEvent(VendorChangedEvent.rated(updated));
+                    return updated;
+                });
+    }
+
+    /** Up to {@code limit} rated vendor ids after {@code afterId}, from the store's per-user index (no scan of the ratings). */
+    public CompletableFuture<SortedSet<String>> ratedVendorIdsAsync(String userId, String afterId, int limit) {
+        return metrics.recordAsync("ratings", "ratedVendorIds", () -> store.ratedVendorIdsAsync(userId, afterId, limit));
     }
 }
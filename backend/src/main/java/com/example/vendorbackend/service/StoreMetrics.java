@@ -0,0 +1,75 @@
+package com.example.vendorbackend.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Timers around the services' calls into the VendorStore/RatingStore SPI.
+ * Every call is recorded as store.calls{store, operation, outcome=success|error}; calls that
+ * return several documents also record their size as store.result.size{store, operation}.
+ * Cache and live-view hits never reach the store and therefore are not counted here.
+ */
+@Component
+public class StoreMetrics {
+
+    private final MeterRegistry registry;
+
+    public StoreMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public <T> T record(String store, String operation, Supplier<T> call) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            T result = call.get();
+            outcome = "success";
+            return result;
+        } finally {
+            Timer.builder("store.calls")
+                    .tag("store", store)
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .register(registry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /** Times an async call from invocation until its future completes. */
+    public <T> CompletableFuture<T> recordAsync(String store, String operation, Supplier<CompletableFuture<T>> call) {
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((result, error) -> Timer.builder("store.calls")
+                .tag("store", store)
+                .tag("operation", operation)
+                .tag("outcome", error == null ? "success" : "error")
+                .register(registry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    public void run(String store, String operation, Runnable call) {
+        record(store, operation, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    public void recordSize(String store, String operation, int size) {
+        DistributionSummary.builder("store.result.size")
+                .tag("store", store)
+                .tag("operation", operation)
+                .register(registry)
+                .record(size);
+    }
+}
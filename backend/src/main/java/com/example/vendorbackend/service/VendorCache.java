@@ -0,0 +1,170 @@
+package com.example.vendorbackend.service;
+
+import com.example.vendorbackend.model.Vendor;
+import com.example.vendorbackend.repository.Futures;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache in front of the vendors collection.
+ * Entries are bounded by size and expire after the TTL; every write path invalidates
+ * the touched vendor and the cached full list explicitly. A load that was in flight when
+ * an invalidation happened may have read the old document, so its result is returned to
+ * its caller but not cached. Hit/miss/eviction counters are published as cache.* meters
+ * (tags cache=vendors / cache=vendorLists).
+ *
+ * Caffeine runs a loader inside ConcurrentHashMap's bin lock (a synchronized block). On
+ * virtual threads (spring.threads.virtual.enabled=true, JDK 21+) a blocking store call there
+ * would pin the carrier thread, so in that mode the blocking getters load outside the lock
+ * and give up de-duplication of concurrent loads for the same key.
+ */
+@Component
+public class VendorCache {
+
+    private static final String ALL = "all";
+    private static final int MAX_LISTS = 16; // tam liste + birkaç ?fields= projeksiyonu
+
+    private final Cache<String, Vendor> byId;
+    private final Cache<String, List<Vendor>> lists;
+    private final boolean loadOutsideLock;
+    // Her invalidate'te artar; yükleme sürerken değiştiyse sonuç cache'e yazılmaz
+    private final AtomicLong generation = new AtomicLong();
+
+    public VendorCache(MeterRegistry registry, long maxSize, Duration ttl) {
+        this(registry, maxSize, ttl, false);
+    }
+
+    @Autowired
+    public VendorCache(MeterRegistry registry,
+                       @Value("${vendors.cache.max-size:10000}") long maxSize,
+                       @Value("${vendors.cache.ttl:60s}") Duration ttl,
+                       @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.loadOutsideLock = virtualThreads;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.lists = Caffeine.newBuilder()
+                .maximumSize(MAX_LISTS)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, byId, "vendors");
+        CaffeineCacheMetrics.monitor(registry, lists, "vendorLists");
+    }
+
+    public Optional<Vendor> get(String id, Function<String, Optional<Vendor>> loader) {
+        if (loadOutsideLock) {
+            return Futures.join(getAsync(id, key -> Futures.supply(() -> loader.apply(key))));
+        }
+        // Bulunamayan id'ler cache'lenmez; sonradan create edilen belge hemen görünür
+        return Optional.ofNullable(byId.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    // Caffeine'in toplu yüklemesi de kilit dışında yükleyip putAll yapar; invalidate ile yarışı async yolda ele alınır
+    public List<Vendor> getAll(Collection<String> ids, Function<Set<String>, Map<String, Vendor>> loader) {
+        return Futures.join(getAllAsync(ids, keys -> Futures.supply(() -> loader.apply(keys))));
+    }
+
+    public List<Vendor> getList(Supplier<List<Vendor>> loader) {
+        if (loadOutsideLock) {
+            return Futures.join(getListAsync(() -> Futures.supply(loader)));
+        }
+        return lists.get(ALL, key -> Collections.unmodifiableList(loader.get()));
+    }
+
+    // Async okumalar: varsa bellekten, yoksa loader'ın future'ı tamamlanınca cache'e yazılır
+    // (arada invalidate olmadıysa). Senkron get()'in aksine aynı id için eşzamanlı yüklemeler birleştirilmez.
+
+    public CompletableFuture<Optional<Vendor>> getAsync(String id,
+                                                        Function<String, CompletableFuture<Optional<Vendor>>> loader) {
+        Vendor cached = byId.getIfPresent(id);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(Optional.of(cached));
+        }
+        long loadedAt = generation.get();
+        return loader.apply(id).thenApply(found -> {
+            found.ifPresent(v -> putIfCurrent(byId, id, v, loadedAt));
+            return found;
+        });
+    }
+
+    public CompletableFuture<List<Vendor>> getAllAsync(Collection<String> ids,
+                                                       Function<Set<String>, CompletableFuture<Map<String, Vendor>>> loader) {
+        Set<String> ordered = new LinkedHashSet<>(ids);
+        Map<String, Vendor> present = byId.getAllPresent(ordered);
+        Set<String> missing = new LinkedHashSet<>(ordered);
+        missing.removeAll(present.keySet());
+        long loadedAt = generation.get();
+        CompletableFuture<Map<String, Vendor>> loaded = missing.isEmpty()
+                ? CompletableFuture.completedFuture(Map.of())
+                : loader.apply(missing).thenApply(found -> {
+                    found.forEach((id, v) -> putIfCurrent(byId, id, v, loadedAt));
+                    return found;
+                });
+        return loaded.thenApply(found -> {
+            List<Vendor> result = new ArrayList<>(ordered.size());
+            for (String id : ordered) {
+                Vendor v = present.containsKey(id) ? present.get(id) : found.get(id);
+                if (v != null) result.add(v);
+            }
+            return result;
+        });
+    }
+
+    public CompletableFuture<List<Vendor>> getListAsync(Supplier<CompletableFuture<List<Vendor>>> loader) {
+        return getListAsync(ALL, loader);
+    }
+
+    /** Full list under its own key next to projected lists (keyed by their field set); all drop on any write. */
+    public CompletableFuture<List<Vendor>> getListAsync(String key, Supplier<CompletableFuture<List<Vendor>>> loader) {
+        List<Vendor> cached = lists.getIfPresent(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        long loadedAt = generation.get();
+        return loader.get().thenApply(all -> {
+            List<Vendor> list = Collections.unmodifiableList(all);
+            putIfCurrent(lists, key, list, loadedAt);
+            return list;
+        });
+    }
+
+    private <V> void putIfCurrent(Cache<String, V> cache, String key, V value, long loadedAt) {
+        if (generation.get() != loadedAt) {
+            return;
+        }
+        cache.put(key, value);
+        if (generation.get() != loadedAt) {
+            // put ile eşzamanlı bir invalidate arasında kaldı; bayat olabilir
+            cache.asMap().remove(key, value);
+        }
+    }
+
+    // Sayaç silmeden önce artar: kontrolü geçip sonra yazan yükleme ikinci kontrolde kendini geri alır
+
+    public void invalidate(String id) {
+        generation.incrementAndGet();
+        byId.invalidate(id);
+        lists.invalidateAll();
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        byId.invalidateAll();
+        lists.invalidateAll();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.vendorbackend.service;
+
+import com.example.vendorbackend.model.Vendor;
+import com.example.vendorbackend.repository.VendorMutation;
+
+import java.util.Set;
+
+/**
+ * Published (Spring application event) after a vendor write has committed on this instance.
+ * <ul>
+ *   <li>UPSERTED: {@code vendor} is the whole stored vendor (create, PUT re-read)</li>
+ *   <li>RATED: {@code vendor} is the whole stored vendor after a rating; only its rating fields changed</li>
+ *   <li>PATCHED: only {@code fields} of {@code vendor} carry the new values</li>
+ *   <li>DELETED: {@code vendor} is null</li>
+ *   <li>INVALIDATED: many vendors changed at once (bulk import); {@code id} is null</li>
+ * </ul>
+ */
+public record VendorChangedEvent(Kind kind, String id, Vendor vendor, Set<String> fields) {
+
+    public enum Kind { UPSERTED, RATED, PATCHED, DELETED, INVALIDATED }
+
+    public static VendorChangedEvent upserted(Vendor vendor) {
+        return new VendorChangedEvent(Kind.UPSERTED, vendor.getId(), vendor, null);
+    }
+
+    public static VendorChangedEvent rated(Vendor vendor) {
+        return new VendorChangedEvent(Kind.RATED, vendor.getId(), vendor, null);
+    }
+
+    public static VendorChangedEvent patched(String id, Vendor values, Set<String> fields) {
+        return new VendorChangedEvent(Kind.PATCHED, id, values, Set.copyOf(fields));
+    }
+
+    public static VendorChangedEvent deleted(String id) {
+        return new VendorChangedEvent(Kind.DELETED, id, null, null);
+    }
+
+    public static VendorChangedEvent invalidated() {
+        return new VendorChangedEvent(Kind.INVALIDATED, null, null, null);
+    }
+
+    /** The event for a committed {@link VendorMutation}. */
+    public static VendorChangedEvent of(VendorMutation mutation) {
+        return switch (mutation.kind()) {
+            case CREATE -> upserted(mutation.vendor());
+            case PATCH -> patched(mutation.id(), mutation.vendor(), mutation.fields());
+            case DELETE -> deleted(mutation.id());
+        };
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.vendorbackend.service;
+
+import com.example.vendorbackend.model.Vendor;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * CSV (RFC 4180) form of vendors for bulk import/export. The header row names the columns,
+ * so files may omit or reorder them; unknown columns are ignored. Images are joined with '|'.
+ * rating/ratingCount are exported for reference only: imports start every vendor unrated.
+ */
+final class VendorCsv {
+
+    static final List<String> COLUMNS = List.of(
+            "id", "name", "category", "city", "representative", "contact", "price",
+            "notes", "agreementNumber", "bankAccount", "images", "rating", "ratingCount");
+
+    private VendorCsv() { }
+
+    /** Reads records one at a time; quoted fields may contain commas, quotes and line breaks. */
+    static final class Parser {
+        private final Reader in;
+
+        Parser(Reader in) {
+            this.in = in;
+        }
+
+        /** Next record's fields, or null at end of input. */
+        List<String> next() throws IOException {
+            int c = in.read();
+            if (c == -1) return null;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean inQuotes = false;
+            while (true) {
+                if (inQuotes) {
+                    if (c == -1) throw new IOException("Unterminated quoted field");
+                    if (c == '"') {
+                        int n = in.read();
+                        if (n != '"') { // kapanış tırnağı; "" ise kaçışlı tırnak
+                            inQuotes = false;
+                            c = n;
+                            continue;
+                        }
+                    }
+                    field.append((char) c);
+                } else if (c == '"' && field.length() == 0) {
+                    inQuotes = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == -1) {
+                    fields.add(field.toString());
+                    return fields;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = in.read();
+            }
+        }
+    }
+
+    /** Column name → index, from the header record. */
+    static Map<String, Integer> header(List<String> record) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < record.size(); i++) {
+            columns.putIfAbsent(record.get(i).trim(), i);
+        }
+        return columns;
+    }
+
+    /** Throws IllegalArgumentException for a value that does not fit its column. */
+    static Vendor toVendor(Map<String, Integer> columns, List<String> record) {
+        Vendor v = new Vendor();
+        v.setId(value(columns, record, "id"));
+        v.setName(value(columns, record, "name"));
+        v.setCategory(value(columns, record, "category"));
+        v.setCity(value(columns, record, "city"));
+        v.setRepresentative(value(columns, record, "representative"));
+        v.setContact(value(columns, record, "contact"));
+        v.setNotes(value(columns, record, "notes"));
+        v.setAgreementNumber(value(columns, record, "agreementNumber"));
+        v.setBankAccount(value(columns, record, "bankAccount"));
+        String price = value(columns, record, "price");
+        if (price != null) {
+            try {
+                v.setPrice(new BigDecimal(price.trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid price: " + price);
+            }
+        }
+        String images = value(columns, record, "images");
+        if (images != null) {
+            v.setImages(new ArrayList<>(Arrays.asList(images.split("\\|"))));
+        }
+        return v;
+    }
+
+    // Boş hücre = alan yok
+    private static String value(Map<String, Integer> columns, List<String> record, String column) {
+        Integer i = columns.get(column);
+        if (i == null || i >= record.size() || record.get(i).isEmpty()) return null;
+        return record.get(i);
+    }
+
+    static void writeHeader(Writer out) throws IOException {
+        writeRecord(out, COLUMNS);
+    }
+
+    static void write(Writer out, Vendor v) throws IOException {
+        writeRecord(out, Arrays.asList(
+                v.getId(), v.getName(), v.getCategory(), v.getCity(), v.getRepresentative(), v.getContact(),
+                v.getPrice() == null ? null : v.getPrice().toPlainString(),
+                v.getNotes(), v.getAgreementNumber(), v.getBankAccount(),
+                v.getImages() == null ? null : String.join("|", v.getImages()),
+                v.getRating() == null ? null : v.getRating().toString(),
+                v.getRatingCount() == null ? null : v.getRatingCount().toString()));
+    }
+
+    private static void writeRecord(Writer out, List<String> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) out.write(',');
+            String value = values.get(i);
+            if (value == null) continue;
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                out.write('"');
+                out.write(value.replace("\"", "\"\""));
+                out.write('"');
+            } else {
+                out.write(value);
+            }
+        }
+        out.write("\r\n");
+    }
+}
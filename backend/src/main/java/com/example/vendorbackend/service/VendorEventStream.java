@@ -0,0 +1,362 @@
+package com.example.vendorbackend.service;
+
+import com.example.vendorbackend.model.Vendor;
+import com.example.vendorbackend.model.VendorFields;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fan-out of {@link VendorChangedEvent}s to GET /api/vendors/stream clients as Server-Sent Events,
+ * so open lists apply deltas instead of refetching:
+ * <ul>
+ *   <li>{@code upserted}: the whole vendor (created or replaced)</li>
+ *   <li>{@code patched}: {@code {id, fields: {name: value, ...}}} with only the changed fields</li>
+ *   <li>{@code rated}: {@code {id, rating, ratingCount}} after a rating</li>
+ *   <li>{@code deleted}: {@code {id}}</li>
+ *   <li>{@code invalidated}: many vendors changed (bulk import); clients should reload</li>
+ * </ul>
+ * The publishing thread (often a Firestore callback thread) only queues the event to every
+ * client's bounded buffer; a sender task per client drains it on a fixed pool of
+ * {@code vendors.stream.sender-threads}, and the event's JSON is written once, by the first sender
+ * that needs it. A client whose buffer is full is a slow consumer and gets disconnected rather than
+ * slowing down writers or growing memory; EventSource-style clients reconnect and reload.
+ * <p>
+ * A send blocks its sender thread until the socket takes the bytes. A client whose send has not
+ * returned within {@code vendors.stream.send-timeout} is disconnected and its thread written off:
+ * the pool gets a replacement until that send returns (the container's write timeout ends it), so
+ * dead sockets cannot starve the other clients. An emitter is completed by the thread that was
+ * sending to it once the send returns, or by the watchdog thread if none is; never queued behind
+ * other sends, and never waiting on the emitter's lock held by a stuck send.
+ * <p>
+ * By default only writes made on this instance are streamed. While the live view's snapshot
+ * listener runs (vendors.read-mode=live) the stream is fed from it instead, so it carries every
+ * instance's writes: each change arrives as {@code upserted} or {@code deleted}, and
+ * {@code invalidated} follows every (re)subscription since changes may have been missed.
+ */
+@Component
+public class VendorEventStream {
+
+    private static final Logger log = LoggerFactory.getLogger(VendorEventStream.class);
+    private static final long IDLE = Long.MIN_VALUE;
+    private static final long WRITTEN_OFF = Long.MIN_VALUE + 1; // watchdog thread'in yerine yenisini açtı
+
+    /** One event as queued to every client; serialized on first use, off the publishing thread. */
+    final class Event {
+        final long id;
+        final String name;
+        private final Object payload;
+        private String data;
+        private boolean failed;
+
+        Event(long id, String name, Object payload) {
+            this.id = id;
+            this.name = name;
+            this.payload = payload;
+        }
+
+        /** The JSON payload, or null if it could not be serialized (the event is then skipped). */
+        synchronized String data() {
+            if (data == null && !failed) {
+                try {
+                    data = objectMapper.writeValueAsString(payload); // istemci başına değil, bir kez
+                } catch (JsonProcessingException e) {
+                    failed = true;
+                    log.warn("Could not serialize {} event {}", name, id, e);
+                }
+            }
+            return data;
+        }
+    }
+
+    private final Event heartbeat = new Event(0, null, null);
+
+    final class Client {
+        final SseEmitter emitter;
+        final BlockingQueue<Event> buffer;
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean closed = new AtomicBoolean();
+        final AtomicBoolean completed = new AtomicBoolean();
+        final AtomicLong sendingSince = new AtomicLong(IDLE); // gönderim başlangıcı (nanoTime)
+
+        Client(SseEmitter emitter) {
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final Duration timeout;
+    private final Semaphore slots; // vendors.stream.max-clients; kapanan istemci yerini bırakır
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+    private final Set<Client> sending = ConcurrentHashMap.newKeySet(); // yavaş diye düşürülenler de dahil
+    private final AtomicLong sequence = new AtomicLong();
+    private final Counter dropped;
+    private final Counter stalled;
+    private final int senderThreads;
+    private final Duration sendTimeout;
+    private final ThreadPoolExecutor senders;
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "vendor-stream-watchdog");
+        t.setDaemon(true);
+        return t;
+    });
+    private int writtenOff; // takılı gönderimler yüzünden havuza eklenen thread sayısı
+    private volatile boolean fromSnapshots; // live view listener'ı çalışırken olaylar oradan gelir
+
+    public VendorEventStream(ObjectMapper objectMapper,
+                             MeterRegistry registry,
+                             @Value("${vendors.stream.buffer-size:256}") int bufferSize,
+                             @Value("${vendors.stream.max-clients:1000}") int maxClients,
+                             @Value("${vendors.stream.timeout:30m}") Duration timeout,
+                             @Value("${vendors.stream.sender-threads:16}") int senderThreads,
+                             @Value("${vendors.stream.send-timeout:10s}") Duration sendTimeout) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.slots = new Semaphore(maxClients);
+        this.timeout = timeout;
+        // İstemci başına en fazla bir gönderim görevi sırada; thread sayısı sabit, boşta kalanlar kapanır
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread t = new Thread(r, "vendor-stream");
+                    t.setDaemon(true);
+                    return t;
+                });
+        this.senders.allowCoreThreadTimeOut(true);
+        this.senderThreads = senderThreads;
+        this.sendTimeout = sendTimeout;
+        long period = Math.max(1, sendTimeout.toMillis() / 2);
+        watchdog.scheduleWithFixedDelay(this::checkSends, period, period, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("vendors.stream.clients", clients, Set::size)
+                .description("Connected vendor event stream clients")
+                .register(registry);
+        this.dropped = Counter.builder("vendors.stream.dropped")
+                .description("Stream clients disconnected because their buffer was full")
+                .register(registry);
+        this.stalled = Counter.builder("vendors.stream.stalled")
+                .description("Stream clients disconnected because a send exceeded vendors.stream.send-timeout")
+                .register(registry);
+    }
+
+    /** A new stream, or null when {@code vendors.stream.max-clients} are already connected (caller answers 503). */
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(timeout.toMillis()));
+    }
+
+    SseEmitter subscribe(SseEmitter emitter) {
+        if (!slots.tryAcquire()) {
+            return null;
+        }
+        Client client = new Client(emitter);
+        emitter.onCompletion(() -> close(client));
+        emitter.onTimeout(() -> close(client));
+        emitter.onError(error -> close(client));
+        clients.add(client);
+        return emitter;
+    }
+
+    int clientCount() {
+        return clients.size();
+    }
+
+    /** This instance's writes; ignored while the stream is fed from the live view's snapshots. */
+    @EventListener
+    public void onVendorChanged(VendorChangedEvent event) {
+        if (!fromSnapshots) {
+            enqueue(event);
+        }
+    }
+
+    /**
+     * Called by the live view listener: while {@code active}, the stream carries the changes it passes
+     * to {@link #onSnapshotChange} (every instance's writes) instead of this instance's events.
+     */
+    public void feedFromSnapshots(boolean active) {
+        fromSnapshots = active;
+    }
+
+    public void onSnapshotChange(VendorChangedEvent event) {
+        if (fromSnapshots) {
+            enqueue(event);
+        }
+    }
+
+    private void enqueue(VendorChangedEvent event) {
+        if (clients.isEmpty()) {
+            return;
+        }
+        Vendor v = event.vendor();
+        Object data = switch (event.kind()) {
+            case UPSERTED -> v;
+            case PATCHED -> Map.of("id", event.id(), "fields", VendorFields.values(v, event.fields()));
+            case RATED -> {
+                Map<String, Object> rating = new LinkedHashMap<>();
+                rating.put("id", event.id());
+                rating.put("rating", v.getRating());
+                rating.put("ratingCount", v.getRatingCount());
+                yield rating;
+            }
+            case DELETED -> Map.of("id", event.id());
+            case INVALIDATED -> Map.of();
+        };
+        publish(new Event(sequence.incrementAndGet(), event.kind().name().toLowerCase(Locale.ROOT), data));
+    }
+
+    // Proxy'ler ve load balancer boştaki bağlantıyı kesmesin; yavaş istemciler de böylece fark edilir
+    @Scheduled(fixedDelayString = "${vendors.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        publish(heartbeat);
+    }
+
+    private void publish(Event event) {
+        for (Client client : clients) {
+            if (!client.buffer.offer(event)) {
+                dropped.increment();
+                log.info("Disconnecting slow vendor stream client ({} events buffered)", bufferSize);
+                close(client);
+                finish(client);
+                continue;
+            }
+            schedule(client);
+        }
+    }
+
+    private void schedule(Client client) {
+        if (client.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(client));
+        }
+    }
+
+    private void drain(Client client) {
+        try {
+            Event event;
+            while (!client.closed.get() && (event = client.buffer.poll()) != null) {
+                if (event == heartbeat) {
+                    send(client, SseEmitter.event().comment("heartbeat"));
+                    continue;
+                }
+                String data = event.data();
+                if (data != null) {
+                    send(client, SseEmitter.event().id(Long.toString(event.id)).name(event.name).data(data));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            close(client); // istemci bağlantıyı kapatmış
+        } finally {
+            client.draining.set(false);
+        }
+        if (client.closed.get()) {
+            complete(client); // gönderim bitti: emitter kilidi boş
+        } else if (!client.buffer.isEmpty()) {
+            schedule(client); // drain bittikten sonra gelen olay kaçmasın
+        }
+    }
+
+    private void send(Client client, SseEmitter.SseEventBuilder event) throws IOException {
+        client.sendingSince.set(System.nanoTime());
+        sending.add(client);
+        try {
+            client.emitter.send(event);
+        } finally {
+            sending.remove(client);
+            if (client.sendingSince.getAndSet(IDLE) == WRITTEN_OFF) {
+                resizeSenders(-1); // yerine açılan thread artık gerekmiyor
+            }
+        }
+    }
+
+    // Süresini aşan gönderimin istemcisi düşer, thread'i yerine havuza bir yenisi eklenir
+    private void checkSends() {
+        long now = System.nanoTime();
+        for (Client client : sending) {
+            long since = client.sendingSince.get();
+            if (since == IDLE || since == WRITTEN_OFF || now - since < sendTimeout.toNanos()) {
+                continue;
+            }
+            if (client.sendingSince.compareAndSet(since, WRITTEN_OFF)) {
+                stalled.increment();
+                log.info("Disconnecting vendor stream client stuck in a send for over {}", sendTimeout);
+                resizeSenders(1);
+                close(client);
+                finish(client);
+            }
+        }
+    }
+
+    private synchronized void resizeSenders(int delta) {
+        writtenOff += delta;
+        int size = senderThreads + writtenOff;
+        if (delta > 0) {
+            senders.setMaximumPoolSize(size);
+            senders.setCorePoolSize(size); // sıradaki drain'ler için yeni thread başlatır
+        } else {
+            senders.setCorePoolSize(size);
+            senders.setMaximumPoolSize(size);
+        }
+    }
+
+    int senderPoolSize() {
+        return senders.getCorePoolSize();
+    }
+
+    /**
+     * Completes a closed client's emitter without waiting on a send: complete() takes the lock a
+     * send in progress holds, so if one is running its sender completes the emitter when it returns.
+     */
+    private void finish(Client client) {
+        if (!client.draining.get()) {
+            watchdog.execute(() -> complete(client));
+        }
+    }
+
+    private void complete(Client client) {
+        if (client.completed.compareAndSet(false, true)) {
+            try {
+                client.emitter.complete();
+            } catch (IllegalStateException e) {
+                // istemci tarafı zaten kapanmış
+            }
+        }
+    }
+
+    private void close(Client client) {
+        if (!client.closed.compareAndSet(false, true)) {
+            return; // tamamlanma, hata ve yavaş istemci yolları aynı istemciyi birden fazla kapatabilir
+        }
+        clients.remove(client);
+        client.buffer.clear();
+        slots.release();
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (Client client : clients) {
+            close(client);
+            finish(client);
+        }
+        watchdog.shutdown(); // sıradaki tamamlamalar çalışır
+        senders.shutdownNow();
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.vendorbackend.service;
+
+import com.example.vendorbackend.dto.VendorFacetPage;
+import com.example.vendorbackend.model.Vendor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Faceted filtering for GET /api/vendors/facets. Every vendor gets a dense ordinal, and every value
+ * of the category, city and rating facets an {@link OrdinalBitmap} of the vendors having it. A
+ * filter is an OR of bitmaps within a facet and an AND across facets; facet counts are popcounts
+ * of the other facets' filter ANDed with each value's bitmap, so nothing is scanned per vendor.
+ * Category and city are exact values (as in the stats filters); rating is a bucket of the average
+ * ("0-1" .. "4-5", or "unrated"). Kept current from {@link VendorChangedEvent}s; reloaded when
+ * invalidated or, if set, after {@code vendors.facets.max-age} (see {@link VendorIndex}).
+ */
+@Component
+public class VendorFacetIndex extends VendorIndex {
+
+    public static final List<String> FACETS = List.of("category", "city", "rating");
+
+    static final String UNRATED = "unrated";
+    static final List<String> RATING_BUCKETS = List.of("0-1", "1-2", "2-3", "3-4", "4-5", UNRATED);
+
+    private static final int COLLECT_LIMIT = 1024; // bundan az eşleşmede id sırası bitmap'ten, fazlasında id ağacından
+
+    private final TreeMap<String, Integer> ordinals = new TreeMap<>(); // id sırasıyla, sayfalama için
+    private final List<Vendor> vendors = new ArrayList<>();
+    private final List<String[]> indexed = new ArrayList<>(); // ordinal -> facet değerleri (vendor nesnesi sonradan değişebilir)
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private OrdinalBitmap live = new OrdinalBitmap();
+    private final Map<String, TreeMap<String, OrdinalBitmap>> postings = new HashMap<>(); // facet -> değer -> vendor'lar
+
+    public VendorFacetIndex(@Value("${vendors.facets.max-age:0}") Duration maxAge) {
+        super(maxAge);
+        FACETS.forEach(facet -> postings.put(facet, new TreeMap<>()));
+    }
+
+    @Override
+    protected void clear() {
+        ordinals.clear();
+        vendors.clear();
+        indexed.clear();
+        freeOrdinals.clear();
+        live = new OrdinalBitmap();
+        postings.values().forEach(Map::clear);
+    }
+
+    @Override
+    protected void add(Vendor v) {
+        remove(v.getId());
+        String[] values = new String[FACETS.size()];
+        for (int f = 0; f < values.length; f++) {
+            values[f] = value(FACETS.get(f), v);
+        }
+        int ordinal;
+        if (freeOrdinals.isEmpty()) {
+            ordinal = vendors.size();
+            vendors.add(v);
+            indexed.add(values);
+        } else {
+            ordinal = freeOrdinals.pop();
+            vendors.set(ordinal, v);
+            indexed.set(ordinal, values);
+        }
+        ordinals.put(v.getId(), ordinal);
+        live.set(ordinal);
+        for (int f = 0; f < values.length; f++) {
+            if (values[f] != null) {
+                postings.get(FACETS.get(f)).computeIfAbsent(values[f], k -> new OrdinalBitmap()).set(ordinal);
+            }
+        }
+    }
+
+    @Override
+    protected void apply(VendorChangedEvent event) {
+        switch (event.kind()) {
+            case UPSERTED, RATED -> add(event.vendor());
+            case PATCHED -> {
+                Integer ordinal = ordinals.get(event.id());
+                if (ordinal != null) add(patched(vendors.get(ordinal), event.vendor(), event.fields()));
+            }
+            case DELETED -> remove(event.id());
+            case INVALIDATED -> { }
+        }
+    }
+
+    private void remove(String id) {
+        Integer ordinal = ordinals.remove(id);
+        if (ordinal == null) return;
+        vendors.set(ordinal, null);
+        String[] values = indexed.set(ordinal, null);
+        freeOrdinals.push(ordinal);
+        live.clear(ordinal);
+        for (int f = 0; f < values.length; f++) {
+            if (values[f] == null) continue;
+            Map<String, OrdinalBitmap> facet = postings.get(FACETS.get(f));
+            OrdinalBitmap bitmap = facet.get(values[f]);
+            bitmap.clear(ordinal);
+            if (bitmap.isEmpty()) facet.remove(values[f]);
+        }
+    }
+
+    /**
+     * Vendors having, for every facet in {@code selected}, one of its values: the first {@code limit}
+     * after {@code afterId} in id order, the total, and the counts per facet value. Throws
+     * IllegalArgumentException for an unknown facet or rating bucket.
+     */
+    public synchronized VendorFacetPage facets(Map<String, Set<String>> selected, int limit, String afterId) {
+        Map<String, OrdinalBitmap> filters = new HashMap<>();
+        selected.forEach((facet, values) -> {
+            if (!postings.containsKey(facet)) {
+                throw new IllegalArgumentException("Unknown facet: " + facet);
+            }
+            if (facet.equals("rating") && !RATING_BUCKETS.containsAll(values)) {
+                throw new IllegalArgumentException("rating must be one of " + RATING_BUCKETS);
+            }
+            if (values.isEmpty()) return;
+            OrdinalBitmap any = new OrdinalBitmap();
+            for (String value : values) {
+                OrdinalBitmap bitmap = postings.get(facet).get(value);
+                if (bitmap != null) any.or(bitmap);
+            }
+            filters.put(facet, any);
+        });
+
+        Map<String, Map<String, Long>> counts = new LinkedHashMap<>();
+        for (String facet : FACETS) {
+            // kendi seçimi hariç diğer facet'lerin filtresi: kullanıcı aynı facet'te başka değer ekleyebilsin
+            OrdinalBitmap others = live.copy();
+            filters.forEach((other, filter) -> {
+                if (!other.equals(facet)) others.and(filter);
+            });
+            Map<String, Long> values = new LinkedHashMap<>();
+            postings.get(facet).forEach((value, bitmap) -> {
+                int count = others.andCardinality(bitmap);
+                if (count > 0) values.put(value, (long) count);
+            });
+            counts.put(facet, values);
+        }
+
+        OrdinalBitmap matches = live.copy();
+        filters.values().forEach(matches::and);
+        int total = matches.cardinality();
+        List<Vendor> page = page(matches, total, limit + 1, afterId); // bir fazlası: sonraki sayfa var mı?
+        boolean hasMore = page.size() > limit;
+        List<Vendor> items = hasMore ? new ArrayList<>(page.subList(0, limit)) : page;
+        String next = hasMore ? VendorService.encodePageToken(items.get(items.size() - 1).getId()) : null;
+        return new VendorFacetPage(total, counts, items, next);
+    }
+
+    // Eşleşmelerden id sırasıyla ilk n tanesi; seyrekse eşleşenler sıralanır, yoğunsa id ağacı gezilir
+    private List<Vendor> page(OrdinalBitmap matches, int total, int n, String afterId) {
+        List<Vendor> page = new ArrayList<>(Math.min(n, total));
+        if (total <= COLLECT_LIMIT) {
+            for (int o = matches.nextSetBit(0); o >= 0; o = matches.nextSetBit(o + 1)) {
+                Vendor v = vendors.get(o);
+                if (afterId == null || v.getId().compareTo(afterId) > 0) page.add(v);
+            }
+            page.sort(Comparator.comparing(Vendor::getId));
+            return page.size() > n ? new ArrayList<>(page.subList(0, n)) : page;
+        }
+        Map<String, Integer> after = afterId == null ? ordinals : ordinals.tailMap(afterId, false);
+        for (int ordinal : after.values()) {
+            if (matches.get(ordinal)) {
+                page.add(vendors.get(ordinal));
+                if (page.size() == n) break;
+            }
+        }
+        return page;
+    }
+
+    private static String value(String facet, Vendor v) {
+        return switch (facet) {
+            case "category" -> blankToNull(v.getCategory());
+            case "city" -> blankToNull(v.getCity());
+            default -> ratingBucket(v);
+        };
+    }
+
+    static String ratingBucket(Vendor v) {
+        if (v.getRatingCount() == null || v.getRatingCount() == 0) {
+            return UNRATED;
+        }
+        int floor = (int) Math.min(4, Math.max(0, Math.floor(v.getRating())));
+        return RATING_BUCKETS.get(floor);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.vendorbackend.service;
+
+import com.example.vendorbackend.model.Vendor;
+import com.example.vendorbackend.model.VendorFields;
+import org.springframework.context.event.EventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * In-memory structure derived from the vendor list: built once from a full load and then
+ * kept current from {@link VendorChangedEvent}s. Events arrive on whatever thread published
+ * them (often a Firestore callback thread), so they are only queued there; the index's own
+ * applier thread applies them, and so does a query before it answers. Loads are finished on
+ * the applier too. With a positive {@code maxAge} the index is also rebuilt in the background
+ * once older than that, which picks up writes made on other instances; by default (0) it is
+ * only rebuilt after an INVALIDATED event. Subclasses hold their state under this object's lock.
+ */
+public abstract class VendorIndex {
+
+    private final long maxAgeNanos;
+    private final ThreadPoolExecutor applier;
+    private final ConcurrentLinkedQueue<VendorChangedEvent> inbox = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private boolean loaded;
+    private boolean stale;
+    private long loadedAt;
+    private CompletableFuture<Void> loading;
+    private List<VendorChangedEvent> pending; // yükleme sürerken gelen değişiklikler, sonra yeniden uygulanır
+
+    protected VendorIndex(Duration maxAge) {
+        this.maxAgeNanos = maxAge.toNanos();
+        // Tek thread: olaylar yayın sırasıyla uygulanır; boşta kalınca thread kapanır
+        this.applier = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, getClass().getSimpleName() + "-applier");
+            t.setDaemon(true);
+            return t;
+        });
+        this.applier.allowCoreThreadTimeOut(true);
+    }
+
+    /** Drops all state before a reload. */
+    protected abstract void clear();
+
+    /** Adds one vendor of a full load. */
+    protected abstract void add(Vendor v);
+
+    /** Applies an UPSERTED, RATED, PATCHED or DELETED change. */
+    protected abstract void apply(VendorChangedEvent event);
+
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    public synchronized boolean isFresh() {
+        return loaded && !stale && (maxAgeNanos <= 0 || System.nanoTime() - loadedAt < maxAgeNanos);
+    }
+
+    /**
+     * Answers {@code query} once the index is loaded and the changes received so far are applied.
+     * Only the first call waits for {@code loader}; a stale index keeps answering while it is reloaded.
+     */
+    public <T> CompletableFuture<T> query(Supplier<CompletableFuture<List<Vendor>>> loader, Supplier<T> query) {
+        drain();
+        if (!isLoaded()) {
+            return load(loader).thenApply(ignored -> {
+                drain();
+                return query.get();
+            });
+        }
+        if (!isFresh()) {
+            load(loader);
+        }
+        return CompletableFuture.completedFuture(query.get());
+    }
+
+    /**
+     * (Re)builds the index from {@code loader}'s vendor list. Concurrent callers share one load;
+     * changes published while it runs are applied on top of the loaded list.
+     */
+    public CompletableFuture<Void> load(Supplier<CompletableFuture<List<Vendor>>> loader) {
+        CompletableFuture<Void> started;
+        synchronized (this) {
+            if (loading != null) {
+                return loading;
+            }
+            started = new CompletableFuture<>();
+            loading = started;
+            pending = new ArrayList<>();
+        }
+        CompletableFuture<List<Vendor>> all;
+        try {
+            all = loader.get();
+        } catch (RuntimeException e) {
+            all = CompletableFuture.failedFuture(e);
+        }
+        all.whenCompleteAsync((vendors, error) -> finishLoad(vendors, error, started), applier);
+        return started;
+    }
+
+    private void finishLoad(List<Vendor> vendors, Throwable error, CompletableFuture<Void> started) {
+        synchronized (this) {
+            drain(); // kuyruktakiler pending'e
+            if (error == null) {
+                clear();
+                vendors.forEach(this::add);
+                loaded = true;
+                stale = false;
+                loadedAt = System.nanoTime();
+                pending.forEach(this::dispatch);
+            }
+            pending = null;
+            loading = null;
+        }
+        if (error == null) {
+            started.complete(null);
+        } else {
+            started.completeExceptionally(error);
+        }
+    }
+
+    /** Queues the change for the applier thread; never waits for the index's lock. */
+    @EventListener
+    public void onVendorChanged(VendorChangedEvent event) {
+        inbox.add(event);
+        if (scheduled.compareAndSet(false, true)) {
+            applier.execute(() -> {
+                scheduled.set(false); // bundan sonra gelenler yeni bir çalıştırma planlar
+                drain();
+            });
+        }
+    }
+
+    /** Applies the queued changes on the calling thread. */
+    synchronized void drain() {
+        for (VendorChangedEvent event; (event = inbox.poll()) != null; ) {
+            if (pending != null) {
+                pending.add(event);
+            }
+            if (loaded) {
+                dispatch(event);
+            }
+        }
+    }
+
+    private void dispatch(VendorChangedEvent event) {
+        if (event.kind() == VendorChangedEvent.Kind.INVALIDATED) {
+            stale = true; // sonraki sorguda yeniden yüklenir
+        } else {
+            apply(event);
+        }
+    }
+
+    // Saklanan vendor cache/view ile paylaşılabilir; değiştirmek yerine kopyası güncellenir
+    static Vendor patched(Vendor current, Vendor values, Set<String> fields) {
+        Vendor copy = new Vendor();
+        VendorFields.copy(current, copy, VendorFields.editable());
+        VendorFields.copy(values, copy, fields);
+        copy.setId(current.getId());
+        copy.setRating(current.getRating());
+        copy.setRatingSum(current.getRatingSum());
+        copy.setRatingCount(current.getRatingCount());
+        return copy;
+    }
+
+    // Kategori/şehir karşılaştırmaları büyük/küçük harf ve kenar boşluğu duyarsız
+    static String normalize(String value) {
+        return value == null || value.isBlank() ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
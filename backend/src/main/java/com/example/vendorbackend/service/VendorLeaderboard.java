@@ -0,0 +1,124 @@
+package com.example.vendorbackend.service;
+
+import com.example.vendorbackend.model.Vendor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Rated vendors kept in rating order, once overall and once per category, city and
+ * category + city, so a top-N query walks the first N entries of one sorted set.
+ * Kept current from {@link VendorChangedEvent}s (ratings, edits, deletes); reloaded when invalidated
+ * or, if set, after {@code vendors.leaderboard.max-age} (see {@link VendorIndex}).
+ */
+@Component
+public class VendorLeaderboard extends VendorIndex {
+
+    private static final String ALL = "";
+
+    /** Sort key, best first: higher average, then more ratings, then id. */
+    private record Entry(double rating, int ratingCount, String id) implements Comparable<Entry> {
+        static final Comparator<Entry> ORDER = Comparator.comparingDouble(Entry::rating).reversed()
+                .thenComparing(Comparator.comparingInt(Entry::ratingCount).reversed())
+                .thenComparing(Entry::id);
+
+        @Override
+        public int compareTo(Entry other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    private record Placed(Vendor vendor, Entry entry, List<String> facets) { }
+
+    private final Map<String, TreeSet<Entry>> boards = new HashMap<>(); // facet anahtarı -> sıralı küme
+    private final Map<String, Placed> placed = new HashMap<>();
+
+    public VendorLeaderboard(@Value("${vendors.leaderboard.max-age:0}") Duration maxAge) {
+        super(maxAge);
+    }
+
+    @Override
+    protected void clear() {
+        boards.clear();
+        placed.clear();
+    }
+
+    @Override
+    protected void add(Vendor v) {
+        put(v);
+    }
+
+    /**
+     * Best {@code n} rated vendors, optionally within a category and/or city (case-insensitive).
+     * O(log n + N): one map lookup and the first N entries of a sorted set.
+     */
+    public synchronized List<Vendor> top(String category, String city, int n) {
+        TreeSet<Entry> board = boards.get(key(normalize(category), normalize(city)));
+        if (board == null) {
+            return List.of();
+        }
+        List<Vendor> result = new ArrayList<>(Math.min(n, board.size()));
+        for (Entry entry : board) {
+            if (result.size() == n) break;
+            result.add(placed.get(entry.id()).vendor());
+        }
+        return result;
+    }
+
+    @Override
+    protected void apply(VendorChangedEvent event) {
+        switch (event.kind()) {
+            case UPSERTED, RATED -> put(event.vendor());
+            case PATCHED -> {
+                Placed current = placed.get(event.id());
+                // Puanı olmayan vendor listede yok; puan aldığında RATED ile tamamı gelir
+                if (current != null) put(patched(current.vendor(), event.vendor(), event.fields()));
+            }
+            case DELETED -> remove(event.id());
+            case INVALIDATED -> { }
+        }
+    }
+
+    private void put(Vendor v) {
+        remove(v.getId());
+        if (v.getRatingCount() == null || v.getRatingCount() <= 0 || v.getRating() == null) {
+            return; // henüz puanlanmamış
+        }
+        Entry entry = new Entry(v.getRating(), v.getRatingCount(), v.getId());
+        List<String> facets = facets(v);
+        for (String facet : facets) {
+            boards.computeIfAbsent(facet, k -> new TreeSet<>()).add(entry);
+        }
+        placed.put(v.getId(), new Placed(v, entry, facets));
+    }
+
+    private void remove(String id) {
+        Placed old = placed.remove(id);
+        if (old == null) return;
+        for (String facet : old.facets()) {
+            TreeSet<Entry> board = boards.get(facet);
+            board.remove(old.entry());
+            if (board.isEmpty()) boards.remove(facet);
+        }
+    }
+
+    private static List<String> facets(Vendor v) {
+        String category = normalize(v.getCategory());
+        String city = normalize(v.getCity());
+        List<String> facets = new ArrayList<>(4);
+        facets.add(ALL);
+        if (category != null) facets.add(key(category, null));
+        if (city != null) facets.add(key(null, city));
+        if (category != null && city != null) facets.add(key(category, city));
+        return facets;
+    }
+
+    private static String key(String category, String city) {
+        if (category == null && city == null) return ALL;
+        if (city == null) return "category:" + category;
+        if (category == null) return "city:" + city;
+        return "category:" + category + "|city:" + city;
+    }
+}
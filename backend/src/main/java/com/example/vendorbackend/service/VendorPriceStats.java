@@ -0,0 +1,174 @@
+package com.example.vendorbackend.service;
+
+import com.example.vendorbackend.dto.VendorStats;
+import com.example.vendorbackend.model.Vendor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Price distribution per category, city and category + city (exact values, as in the Firestore
+ * filters of VendorStore#aggregateAsync), one {@link PriceSketch} each. Also knows which
+ * categories and cities exist and how many vendors each has, unrated and without an agreement,
+ * so grouped stats only query the store for rating totals. Kept current from {@link VendorChangedEvent}s;
+ * reloaded when invalidated or, if set, after {@code vendors.stats.max-age} (see {@link VendorIndex}).
+ */
+@Component
+public class VendorPriceStats extends VendorIndex {
+
+    /** Fields the index is loaded from (sparse fieldset read). */
+    static final Set<String> FIELDS = Set.of("category", "city", "price", "agreementNumber", "ratingCount");
+
+    /** Vendor counts of one facet, as in {@link com.example.vendorbackend.repository.VendorAggregates}. */
+    public record Counts(long vendors, long unrated, long withoutAgreement) { }
+
+    /** null category/city = any. */
+    private record FacetKey(String category, String city) { }
+
+    private record Snapshot(String category, String city, BigDecimal price, boolean unrated, boolean withoutAgreement) {
+        Snapshot rated(boolean unrated) {
+            return new Snapshot(category, city, price, unrated, withoutAgreement);
+        }
+    }
+
+    private static final class Facet {
+        long vendors;
+        long unrated;
+        long withoutAgreement;
+        final PriceSketch prices = new PriceSketch();
+    }
+
+    private final Map<String, Snapshot> vendors = new HashMap<>();
+    private final Map<FacetKey, Facet> facets = new HashMap<>();
+
+    public VendorPriceStats(@Value("${vendors.stats.max-age:0}") Duration maxAge) {
+        super(maxAge);
+    }
+
+    @Override
+    protected void clear() {
+        vendors.clear();
+        facets.clear();
+    }
+
+    @Override
+    protected void add(Vendor v) {
+        put(v.getId(), new Snapshot(v.getCategory(), v.getCity(), v.getPrice(), unrated(v),
+                withoutAgreement(v.getAgreementNumber())));
+    }
+
+    @Override
+    protected void apply(VendorChangedEvent event) {
+        switch (event.kind()) {
+            case UPSERTED -> add(event.vendor());
+            case RATED -> {
+                // yalnızca ilk puan sayıları değiştirir
+                Snapshot current = vendors.get(event.id());
+                if (current != null && event.vendor() != null && current.unrated() != unrated(event.vendor())) {
+                    put(event.id(), current.rated(unrated(event.vendor())));
+                }
+            }
+            case PATCHED -> {
+                Snapshot current = vendors.get(event.id());
+                if (current == null) return; // başka instance'ta oluşturulmuş; yeniden yüklemede gelir
+                Vendor values = event.vendor();
+                Set<String> fields = event.fields();
+                put(event.id(), new Snapshot(
+                        fields.contains("category") ? values.getCategory() : current.category(),
+                        fields.contains("city") ? values.getCity() : current.city(),
+                        fields.contains("price") ? values.getPrice() : current.price(),
+                        current.unrated(),
+                        fields.contains("agreementNumber")
+                                ? withoutAgreement(values.getAgreementNumber()) : current.withoutAgreement()));
+            }
+            case DELETED -> remove(event.id());
+            case INVALIDATED -> { }
+        }
+    }
+
+    /** Price distribution of the vendors in {@code category} and/or {@code city}; null if none has a price. */
+    public synchronized VendorStats.PriceStats price(String category, String city) {
+        Facet facet = facets.get(new FacetKey(category, city));
+        if (facet == null || facet.prices.count() == 0) {
+            return null;
+        }
+        PriceSketch prices = facet.prices;
+        BigDecimal mean = prices.sum().divide(BigDecimal.valueOf(prices.count()), 2, RoundingMode.HALF_UP);
+        return new VendorStats.PriceStats(prices.count(), mean,
+                round(prices.quantile(0.50)), round(prices.quantile(0.90)), round(prices.quantile(0.99)));
+    }
+
+    /** Vendor counts in {@code category} and/or {@code city}; zeros if there is none. */
+    public synchronized Counts counts(String category, String city) {
+        Facet facet = facets.get(new FacetKey(category, city));
+        return facet == null ? new Counts(0, 0, 0) : new Counts(facet.vendors, facet.unrated, facet.withoutAgreement);
+    }
+
+    /** Distinct categories (within {@code city} if given), sorted. */
+    public synchronized List<String> categories(String city) {
+        TreeSet<String> values = new TreeSet<>();
+        for (FacetKey key : facets.keySet()) {
+            if (key.category() != null && Objects.equals(key.city(), city)) values.add(key.category());
+        }
+        return new ArrayList<>(values);
+    }
+
+    /** Distinct cities (within {@code category} if given), sorted. */
+    public synchronized List<String> cities(String category) {
+        TreeSet<String> values = new TreeSet<>();
+        for (FacetKey key : facets.keySet()) {
+            if (key.city() != null && Objects.equals(key.category(), category)) values.add(key.city());
+        }
+        return new ArrayList<>(values);
+    }
+
+    private void put(String id, Snapshot snapshot) {
+        remove(id);
+        vendors.put(id, snapshot);
+        for (FacetKey key : keys(snapshot)) {
+            Facet facet = facets.computeIfAbsent(key, k -> new Facet());
+            facet.vendors++;
+            if (snapshot.unrated()) facet.unrated++;
+            if (snapshot.withoutAgreement()) facet.withoutAgreement++;
+            if (snapshot.price() != null) facet.prices.add(snapshot.price());
+        }
+    }
+
+    private void remove(String id) {
+        Snapshot old = vendors.remove(id);
+        if (old == null) return;
+        for (FacetKey key : keys(old)) {
+            Facet facet = facets.get(key);
+            if (old.unrated()) facet.unrated--;
+            if (old.withoutAgreement()) facet.withoutAgreement--;
+            if (old.price() != null) facet.prices.remove(old.price());
+            if (--facet.vendors == 0) facets.remove(key);
+        }
+    }
+
+    private static List<FacetKey> keys(Snapshot s) {
+        List<FacetKey> keys = new ArrayList<>(4);
+        keys.add(new FacetKey(null, null));
+        if (s.category() != null) keys.add(new FacetKey(s.category(), null));
+        if (s.city() != null) keys.add(new FacetKey(null, s.city()));
+        if (s.category() != null && s.city() != null) keys.add(new FacetKey(s.category(), s.city()));
+        return keys;
+    }
+
+    // VendorAggregates.of ile aynı tanımlar
+    private static boolean unrated(Vendor v) {
+        return v.getRatingCount() == null || v.getRatingCount() == 0;
+    }
+
+    private static boolean withoutAgreement(String agreementNumber) {
+        return agreementNumber == null || agreementNumber.isEmpty();
+    }
+
+    private static BigDecimal round(Double value) {
+        return value == null ? null : BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,305 @@
+package com.example.vendorbackend.service;
+
+import com.example.vendorbackend.model.Vendor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index over name, category, city, representative and notes for GET /api/vendors/search.
+ * Terms are lower-cased and accent-folded ("Şəki" = "seki"). Every query word must match a term
+ * exactly, as a prefix, or (words of 4+ letters) within one typo; matches are ranked by the field
+ * they hit and how exactly. Typo candidates come from a one-deletion neighbourhood of each term,
+ * so no query scans the vocabulary. Kept current from {@link VendorChangedEvent}s; reloaded when
+ * invalidated or, if set, after {@code vendors.search.max-age} (see {@link VendorIndex}).
+ */
+@Component
+public class VendorSearchIndex extends VendorIndex {
+
+    private record Field(String name, Function<Vendor, String> value, int weight) { }
+
+    private static final List<Field> FIELDS = List.of(
+            new Field("name", Vendor::getName, 8),
+            new Field("category", Vendor::getCategory, 4),
+            new Field("city", Vendor::getCity, 4),
+            new Field("representative", Vendor::getRepresentative, 2),
+            new Field("notes", Vendor::getNotes, 1));
+
+    private static final float EXACT = 1.0f;
+    private static final float PREFIX = 0.6f;
+    private static final float TYPO = 0.4f;
+    private static final int MAX_PREFIX_TERMS = 64; // kısa öneklerde taranan terim sınırı
+    private static final int MIN_TYPO_LENGTH = 4;
+    private static final Pattern SPLIT = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    /** Vendors (by ordinal) containing a term, with the weight of the best field it is in. */
+    private static final class Posting {
+        int[] ordinals = new int[2];
+        byte[] weights = new byte[2];
+        int size;
+
+        void add(int ordinal, int weight) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            ordinals[size] = ordinal;
+            weights[size++] = (byte) weight;
+        }
+
+        void remove(int ordinal) {
+            for (int i = 0; i < size; i++) {
+                if (ordinals[i] == ordinal) { // sıra önemsiz: sonuncuyu yerine taşı
+                    ordinals[i] = ordinals[--size];
+                    weights[i] = weights[size];
+                    return;
+                }
+            }
+        }
+    }
+
+    // Vendor'lar sıra numarasıyla (ordinal) tutulur: sorgu puanları Map yerine diziler üzerinde toplanır
+    private final TreeMap<String, Posting> postings = new TreeMap<>();
+    private final Map<String, Set<String>> deletions = new HashMap<>(); // bir harfi silinmiş hal -> terimler
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private final List<Vendor> vendors = new ArrayList<>();
+    private final List<Set<String>> indexed = new ArrayList<>(); // ordinal -> terimler (vendor nesnesi sonradan değişebilir)
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+
+    public VendorSearchIndex(@Value("${vendors.search.max-age:0}") Duration maxAge) {
+        super(maxAge);
+    }
+
+    @Override
+    protected void clear() {
+        postings.clear();
+        deletions.clear();
+        ordinals.clear();
+        vendors.clear();
+        indexed.clear();
+        freeOrdinals.clear();
+    }
+
+    @Override
+    protected void add(Vendor v) {
+        remove(v.getId());
+        Map<String, Integer> terms = terms(v);
+        int ordinal;
+        if (freeOrdinals.isEmpty()) {
+            ordinal = vendors.size();
+            vendors.add(v);
+            indexed.add(terms.keySet());
+        } else {
+            ordinal = freeOrdinals.pop();
+            vendors.set(ordinal, v);
+            indexed.set(ordinal, terms.keySet());
+        }
+        ordinals.put(v.getId(), ordinal);
+        terms.forEach((term, weight) -> {
+            Posting posting = postings.get(term);
+            if (posting == null) {
+                posting = new Posting();
+                postings.put(term, posting);
+                for (String deletion : deletions(term)) {
+                    deletions.computeIfAbsent(deletion, k -> new HashSet<>()).add(term);
+                }
+            }
+            posting.add(ordinal, weight);
+        });
+    }
+
+    @Override
+    protected void apply(VendorChangedEvent event) {
+        switch (event.kind()) {
+            case UPSERTED, RATED -> add(event.vendor()); // sonuçlarda güncel puan dönsün
+            case PATCHED -> {
+                Integer ordinal = ordinals.get(event.id());
+                if (ordinal != null) add(patched(vendors.get(ordinal), event.vendor(), event.fields()));
+            }
+            case DELETED -> remove(event.id());
+            case INVALIDATED -> { }
+        }
+    }
+
+    private void remove(String id) {
+        Integer ordinal = ordinals.remove(id);
+        if (ordinal == null) return;
+        vendors.set(ordinal, null);
+        Set<String> terms = indexed.set(ordinal, null);
+        freeOrdinals.push(ordinal);
+        for (String term : terms) {
+            Posting posting = postings.get(term);
+            posting.remove(ordinal);
+            if (posting.size == 0) {
+                postings.remove(term);
+                for (String deletion : deletions(term)) {
+                    Set<String> neighbours = deletions.get(deletion);
+                    neighbours.remove(term);
+                    if (neighbours.isEmpty()) deletions.remove(deletion);
+                }
+            }
+        }
+    }
+
+    /** Best {@code limit} vendors matching every word of {@code query}; empty for a query without words. */
+    public synchronized List<Vendor> search(String query, int limit) {
+        Set<String> words = new LinkedHashSet<>(tokens(query));
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        int capacity = vendors.size();
+        float[] total = new float[capacity];
+        float[] best = new float[capacity];   // bu kelimedeki en iyi puan
+        int[] matched = new int[capacity];    // kaç kelimeyle eşleşti (AND)
+        int[] hits = new int[0];
+        int hitCount = 0;
+
+        int k = 0;
+        for (String word : words) {
+            int[] touched = new int[16];
+            int touchedCount = 0;
+            for (Map.Entry<Posting, Float> match : matches(word)) {
+                Posting posting = match.getKey();
+                float quality = match.getValue();
+                for (int i = 0; i < posting.size; i++) {
+                    int ordinal = posting.ordinals[i];
+                    if (matched[ordinal] < k) continue; // önceki bir kelimeyle eşleşmemiş
+                    float score = quality * posting.weights[i];
+                    if (matched[ordinal] == k) {
+                        matched[ordinal] = k + 1;
+                        best[ordinal] = score;
+                        if (touchedCount == touched.length) touched = Arrays.copyOf(touched, touchedCount * 2);
+                        touched[touchedCount++] = ordinal;
+                    } else if (score > best[ordinal]) {
+                        best[ordinal] = score;
+                    }
+                }
+            }
+            for (int i = 0; i < touchedCount; i++) {
+                total[touched[i]] += best[touched[i]];
+            }
+            hits = touched;
+            hitCount = touchedCount;
+            if (hitCount == 0) {
+                return List.of();
+            }
+            k++;
+        }
+
+        // en yüksek puan önce, eşit puanda küçük id önce; heap'in tepesinde en zayıf aday durur
+        Comparator<Integer> weakestFirst = (a, b) -> {
+            int byScore = Float.compare(total[a], total[b]);
+            return byScore != 0 ? byScore : vendors.get(b).getId().compareTo(vendors.get(a).getId());
+        };
+        PriorityQueue<Integer> top = new PriorityQueue<>(limit, weakestFirst);
+        for (int i = 0; i < hitCount; i++) {
+            if (top.size() < limit) {
+                top.add(hits[i]);
+            } else if (weakestFirst.compare(hits[i], top.peek()) > 0) {
+                top.poll();
+                top.add(hits[i]);
+            }
+        }
+        List<Vendor> result = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            result.add(vendors.get(top.poll()));
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    // Kelimeyle eşleşen terimlerin posting'leri ve eşleşme türü puanı (tam, önek, yazım hatası)
+    private List<Map.Entry<Posting, Float>> matches(String word) {
+        List<Map.Entry<Posting, Float>> matches = new ArrayList<>();
+        Posting exact = postings.get(word);
+        if (exact != null) matches.add(Map.entry(exact, EXACT));
+
+        int expanded = 0;
+        for (Posting prefixed : postings.subMap(word, false, word + Character.MAX_VALUE, false).values()) {
+            if (++expanded > MAX_PREFIX_TERMS) break;
+            matches.add(Map.entry(prefixed, PREFIX));
+        }
+
+        if (word.length() >= MIN_TYPO_LENGTH) {
+            for (String candidate : typoCandidates(word)) {
+                matches.add(Map.entry(postings.get(candidate), TYPO));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Terms one edit (insert, delete, substitute or adjacent swap) away from {@code word}: they share
+     * a one-deletion form with it, or one of them is such a form of the other.
+     */
+    private Set<String> typoCandidates(String word) {
+        Set<String> candidates = new HashSet<>();
+        Set<String> own = deletions(word);
+        for (String deletion : own) {
+            if (postings.containsKey(deletion)) candidates.add(deletion); // fazladan harf
+        }
+        Set<String> direct = deletions.get(word);
+        if (direct != null) candidates.addAll(direct); // eksik harf
+        for (String deletion : own) {
+            Set<String> terms = deletions.get(deletion);
+            if (terms == null) continue;
+            for (String term : terms) {
+                if (term.length() == word.length() && withinOneEdit(word, term)) candidates.add(term);
+            }
+        }
+        candidates.remove(word);
+        return candidates;
+    }
+
+    // Aynı uzunlukta iki kelime: tek harf farkı ya da yan yana iki harfin yer değiştirmesi
+    private static boolean withinOneEdit(String a, String b) {
+        int first = -1;
+        int diffs = 0;
+        for (int i = 0; i < a.length(); i++) {
+            if (a.charAt(i) != b.charAt(i)) {
+                if (++diffs == 1) first = i;
+                else if (diffs > 2) return false;
+            }
+        }
+        if (diffs <= 1) return true;
+        return first + 1 < a.length() && a.charAt(first) == b.charAt(first + 1)
+                && a.charAt(first + 1) == b.charAt(first) && a.substring(first + 2).equals(b.substring(first + 2));
+    }
+
+    private static Set<String> deletions(String term) {
+        if (term.length() < MIN_TYPO_LENGTH) return Set.of();
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i < term.length(); i++) {
+            result.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        return result;
+    }
+
+    // Terim -> vendor'da geçtiği en ağırlıklı alan
+    private static Map<String, Integer> terms(Vendor v) {
+        Map<String, Integer> terms = new HashMap<>();
+        for (Field field : FIELDS) {
+            for (String term : tokens(field.value().apply(v))) {
+                terms.merge(term, field.weight(), Math::max);
+            }
+        }
+        return terms;
+    }
+
+    static List<String> tokens(String text) {
+        if (text == null || text.isBlank()) return List.of();
+        String folded = text.toLowerCase(Locale.ROOT).replace('ı', 'i').replace('ə', 'e');
+        folded = MARKS.matcher(Normalizer.normalize(folded, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String token : SPLIT.split(folded)) {
+            if (!token.isEmpty()) tokens.add(token);
+        }
+        return tokens;
+    }
+}
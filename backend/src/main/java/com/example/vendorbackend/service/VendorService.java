@@ -1,123 +1,459 @@
 package com.example.vendorbackend.service;
 
+import com.example.vendorbackend.dto.BatchRequest;
+import com.example.vendorbackend.dto.BatchResponse;
+import com.example.vendorbackend.dto.VendorFacetPage;
+import com.example.vendorbackend.dto.VendorPage;
 import com.example.vendorbackend.model.Vendor;
-import com.google.api.core.ApiFuture;
-import com.google.cloud.firestore.*;
-import com.google.firebase.cloud.FirestoreClient;
+import com.example.vendorbackend.model.VendorFields;
+import com.example.vendorbackend.repository.Futures;
+import com.example.vendorbackend.repository.VendorMutation;
+import com.example.vendorbackend.repository.VendorNotFoundException;
+import com.example.vendorbackend.repository.VendorStore;
+import com.example.vendorbackend.repository.VendorVersionMismatchException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class VendorService {
 
-    private static final String COLLECTION = "vendors";
+    private static final String STORE = "vendors"; // store.calls metrik etiketi
+    private static final int MAX_EXCLUDED_READ_AHEAD = 500; // tek okumada fazladan istenen satır sınırı
 
-    private Firestore db() {
-        return FirestoreClient.getFirestore();
+    private final VendorStore store;
+    private final VendorCache cache;
+    private final VendorView view;
+    private final VendorLeaderboard leaderboard;
+    private final VendorSearchIndex searchIndex;
+    private final VendorFacetIndex facetIndex;
+    private final StoreMetrics metrics;
+    private final ApplicationEventPublisher events;
+
+    public VendorService(VendorStore store, VendorCache cache, VendorView view, VendorLeaderboard leaderboard,
+                         VendorSearchIndex searchIndex, VendorFacetIndex facetIndex, StoreMetrics metrics,
+                         ApplicationEventPublisher events) {
+        this.store = store;
+        this.cache = cache;
+        this.view = view;
+        this.leaderboard = leaderboard;
+        this.searchIndex = searchIndex;
+        this.facetIndex = facetIndex;
+        this.metrics = metrics;
+        this.events = events;
     }
 
-    // LIST - Firestore'dan hepsini çek
+    // LIST - live view hazırsa oradan, değilse cache'ten, o da yoksa store'dan hepsini çek
     public List<Vendor> findAll() {
+        if (view.isReady()) {
+            return view.findAll();
+        }
+        return cache.getList(() -> {
+            List<Vendor> all = metrics.record(STORE, "findAll", store::findAll);
+            metrics.recordSize(STORE, "findAll", all.size());
+            return all;
+        });
+    }
+
+    // PAGE - belge id'sine göre sıralı, startAfter cursor'lı tek sayfa
+    public VendorPage findPage(int limit, String pageToken) {
+        String afterId = pageToken == null ? null : decodePageToken(pageToken);
+        if (view.isReady()) {
+            return view.page(limit, afterId);
+        }
+        // bir fazlası: sonraki sayfa var mı?
+        List<Vendor> docs = metrics.record(STORE, "findPage", () -> store.findPage(limit + 1, afterId));
+        return toPage(docs, limit);
+    }
+
+    private VendorPage toPage(List<Vendor> docs, int limit) {
+        metrics.recordSize(STORE, "findPage", docs.size());
+        boolean hasMore = docs.size() > limit;
+        List<Vendor> items = hasMore ? new ArrayList<>(docs.subList(0, limit)) : docs;
+        String next = hasMore ? encodePageToken(items.get(items.size() - 1).getId()) : null;
+        return new VendorPage(items, next);
+    }
+
+    static String encodePageToken(String lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(lastId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String decodePageToken(String token) {
         try {
-            ApiFuture<QuerySnapshot> future = db().collection(COLLECTION).get();
-            List<QueryDocumentSnapshot> docs = future.get().getDocuments();
-            List<Vendor> result = new ArrayList<>();
-            for (QueryDocumentSnapshot d : docs) {
-                Vendor v = d.toObject(Vendor.class);
-                // id alanını belge id'siyle doldur
-                v.setId(d.getId());
-                result.add(v);
-            }
-            return result;
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Failed to read vendors from Firestore", e);
+            return new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page token", e);
         }
     }
 
-    // CREATE - Firestore'a yaz
+    // CREATE - store'a yaz
     public Vendor create(Vendor v) {
-        try {
-            String id = (v.getId() == null || v.getId().isBlank())
-                    ? UUID.randomUUID().toString()
-                    : v.getId();
+        String id = prepareNew(v);
+        Vendor saved = metrics.record(STORE, "save", () -> store.save(v));
+        cache.invalidate(id);
+        events.publishEvent(VendorChangedEvent.upserted(saved));
+        return saved;
+    }
 
-            v.setId(id);
-            v.setRating(0.0); // Başlangıçta 0 puan
-            v.setRatingCount(0); // Başlangıçta 0 puan sayısı
-            // Belge id’sini biz belirleyelim ki sonra kolay silelim/güncelleyelim
-            ApiFuture<WriteResult> write = db().collection(COLLECTION).document(id).set(v);
-            write.get(); // tamamlanmasını bekleyelim
-            return v;
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Failed to create vendor in Firestore", e);
-        }
+    static String prepareNew(Vendor v) {
+        String id = (v.getId() == null || v.getId().isBlank())
+                ? UUID.randomUUID().toString()
+                : v.getId();
+
+        v.setId(id);
+        v.setRating(0.0); // Başlangıçta 0 puan
+        v.setRatingCount(0); // Başlangıçta 0 puan sayısı
+        v.setRatingSum(0.0);
+        // Belge id’sini biz belirleyelim ki sonra kolay silelim/güncelleyelim
+        return id;
     }
 
-    // DELETE - Firestore'dan sil
+    // DELETE - store'dan sil
     public void delete(String id) {
-        try {
-            db().collection(COLLECTION).document(id).delete().get();
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Failed to delete vendor in Firestore", e);
-        }
+        metrics.run(STORE, "delete", () -> store.delete(id));
+        cache.invalidate(id);
+        events.publishEvent(VendorChangedEvent.deleted(id));
     }
 
-    // (İleride lazım olursa) GET BY ID
+    // GET BY ID - cache'ten, yoksa tek belge okuması
     public Optional<Vendor> findById(String id) {
-        try {
-            DocumentSnapshot snap = db().collection(COLLECTION).document(id).get().get();
-            if (snap.exists()) {
-                Vendor v = snap.toObject(Vendor.class);
-                if (v != null) v.setId(snap.getId());
-                return Optional.ofNullable(v);
+        if (view.isReady()) {
+            return view.findById(id);
+        }
+        return cache.get(id, key -> metrics.record(STORE, "findById", () -> store.findById(key)));
+    }
+
+    // MULTI GET - verilen id'leri tek round trip ile oku; olmayanlar atlanır
+    public List<Vendor> findAllById(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        if (view.isReady()) {
+            return view.findAllById(ids);
+        }
+        return cache.getAll(ids, keys -> {
+            Map<String, Vendor> found = metrics.record(STORE, "findAllById", () -> store.findAllById(keys));
+            metrics.recordSize(STORE, "findAllById", found.size());
+            return found;
+        });
+    }
+
+    // UPDATE - payload'daki dolu alanlar yazılır (bkz. patchAsync), sonra güncel hali okunur
+    public Optional<Vendor> update(String id, Vendor payload) {
+        return Futures.join(updateAsync(id, payload));
+    }
+
+    // ---- Async varyantlar: store I/O sürerken çağıran thread bekletilmez ----
+
+    public CompletableFuture<List<Vendor>> findAllAsync() {
+        if (view.isReady()) {
+            return CompletableFuture.completedFuture(view.findAll());
+        }
+        return cache.getListAsync(() -> metrics.recordAsync(STORE, "findAll", store::findAllAsync)
+                .thenApply(all -> {
+                    metrics.recordSize(STORE, "findAll", all.size());
+                    return all;
+                }));
+    }
+
+    /**
+     * Sparse fieldset read: the store only loads {@code fields}, so other fields of the returned
+     * vendors are unset. Projected lists are cached per field set.
+     */
+    public CompletableFuture<List<Vendor>> findAllAsync(Set<String> fields) {
+        if (view.isReady()) {
+            return CompletableFuture.completedFuture(view.findAll());
+        }
+        String key = "fields:" + String.join(",", new TreeSet<>(fields));
+        return cache.getListAsync(key, () -> metrics.recordAsync(STORE, "findAll", () -> store.findAllAsync(fields))
+                .thenApply(all -> {
+                    metrics.recordSize(STORE, "findAll", all.size());
+                    return all;
+                }));
+    }
+
+    public CompletableFuture<VendorPage> findPageAsync(int limit, String pageToken, Set<String> fields) {
+        String afterId = pageToken == null ? null : decodePageToken(pageToken);
+        if (view.isReady()) {
+            return CompletableFuture.completedFuture(view.page(limit, afterId));
+        }
+        return metrics.recordAsync(STORE, "findPage", () -> store.findPageAsync(limit + 1, afterId, fields))
+                .thenApply(docs -> toPage(docs, limit));
+    }
+
+    /** Throws IllegalArgumentException right away for a malformed page token. */
+    public CompletableFuture<VendorPage> findPageAsync(int limit, String pageToken) {
+        String afterId = pageToken == null ? null : decodePageToken(pageToken);
+        if (view.isReady()) {
+            return CompletableFuture.completedFuture(view.page(limit, afterId));
+        }
+        return metrics.recordAsync(STORE, "findPage", () -> store.findPageAsync(limit + 1, afterId))
+                .thenApply(docs -> toPage(docs, limit));
+    }
+
+    /** An id-ordered set of ids paged like the vendors, e.g. the ones a user has rated. */
+    @FunctionalInterface
+    public interface IdRange {
+        /** Up to {@code limit} ids sorting after {@code afterId} (null: from the first), in id order. */
+        CompletableFuture<SortedSet<String>> after(String afterId, int limit);
+    }
+
+    /**
+     * Page of vendors not in {@code excluded}, in the same id order and with the same page tokens as
+     * {@link #findPageAsync(int, String)}. The excluded ids are read alongside the vendors, a slice at a
+     * time from the same cursor, so neither side is read further than the page needs: each vendor read
+     * asks for the rows still needed plus the excluded ids of the slice. {@code fields} may be null for
+     * full vendors. Throws IllegalArgumentException right away for a malformed page token.
+     */
+    public CompletableFuture<VendorPage> findPageExcludingAsync(IdRange excluded, int limit,
+                                                                String pageToken, Set<String> fields) {
+        String afterId = pageToken == null ? null : decodePageToken(pageToken);
+        return collectExcluding(excluded, limit, afterId, fields, new ArrayList<>(limit + 1))
+                .thenApply(docs -> toPage(docs, limit));
+    }
+
+    private CompletableFuture<List<Vendor>> collectExcluding(IdRange excluded, int limit, String afterId,
+                                                             Set<String> fields, List<Vendor> collected) {
+        return excluded.after(afterId, MAX_EXCLUDED_READ_AHEAD).thenCompose(skip -> {
+            // dilim doluysa son id'den sonraki dışlananlar henüz okunmadı
+            String known = skip.size() < MAX_EXCLUDED_READ_AHEAD ? null : skip.last();
+            int batch = limit + 1 - collected.size() + skip.size();
+            return vendorsAfter(afterId, batch, fields).thenCompose(docs -> {
+                for (Vendor v : docs) {
+                    if (known != null && v.getId().compareTo(known) > 0) {
+                        return collectExcluding(excluded, limit, known, fields, collected);
+                    }
+                    if (skip.contains(v.getId())) continue;
+                    collected.add(v);
+                    // bir fazlası: sonraki sayfa var mı?
+                    if (collected.size() > limit) return CompletableFuture.completedFuture(collected);
+                }
+                if (docs.size() < batch) {
+                    return CompletableFuture.completedFuture(collected);
+                }
+                return collectExcluding(excluded, limit, docs.get(docs.size() - 1).getId(), fields, collected);
+            });
+        });
+    }
+
+    // live view hazırsa bellekten, değilse store'dan id sırasıyla
+    private CompletableFuture<List<Vendor>> vendorsAfter(String afterId, int limit, Set<String> fields) {
+        if (view.isReady()) {
+            return CompletableFuture.completedFuture(view.page(limit, afterId).getItems());
+        }
+        return metrics.recordAsync(STORE, "findPage", () -> fields == null
+                ? store.findPageAsync(limit, afterId)
+                : store.findPageAsync(limit, afterId, fields));
+    }
+
+    /** Best {@code n} rated vendors, optionally within a category and/or city, from {@link VendorLeaderboard}. */
+    public CompletableFuture<List<Vendor>> topAsync(String category, String city, int n) {
+        return leaderboard.query(this::findAllAsync, () -> leaderboard.top(category, city, n));
+    }
+
+    /** Full-text search over name, category, city, representative and notes (see {@link VendorSearchIndex}). */
+    public CompletableFuture<List<Vendor>> searchAsync(String query, int limit) {
+        return searchIndex.query(this::findAllAsync, () -> searchIndex.search(query, limit));
+    }
+
+    /**
+     * Page of the vendors matching the selected facet values, with totals and facet counts (see
+     * {@link VendorFacetIndex}). Throws IllegalArgumentException right away for a malformed page token;
+     * the returned future fails with it for an unknown facet or rating bucket.
+     */
+    public CompletableFuture<VendorFacetPage> facetsAsync(Map<String, Set<String>> selected, int limit,
+                                                         String pageToken) {
+        String afterId = pageToken == null ? null : decodePageToken(pageToken);
+        return facetIndex.query(this::findAllAsync, () -> facetIndex.facets(selected, limit, afterId));
+    }
+
+    public CompletableFuture<Optional<Vendor>> findByIdAsync(String id) {
+        if (view.isReady()) {
+            return CompletableFuture.completedFuture(view.findById(id));
+        }
+        return cache.getAsync(id, key -> metrics.recordAsync(STORE, "findById", () -> store.findByIdAsync(key)));
+    }
+
+    public CompletableFuture<List<Vendor>> findAllByIdAsync(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        if (view.isReady()) {
+            return CompletableFuture.completedFuture(view.findAllById(ids));
+        }
+        return cache.getAllAsync(ids, keys -> metrics.recordAsync(STORE, "findAllById", () -> store.findAllByIdAsync(keys))
+                .thenApply(found -> {
+                    metrics.recordSize(STORE, "findAllById", found.size());
+                    return found;
+                }));
+    }
+
+    public CompletableFuture<Vendor> createAsync(Vendor v) {
+        String id = prepareNew(v);
+        return metrics.recordAsync(STORE, "save", () -> store.saveAsync(v))
+                .whenComplete((saved, error) -> {
+                    cache.invalidate(id);
+                    if (error == null) events.publishEvent(VendorChangedEvent.upserted(saved));
+                });
+    }
+
+    /**
+     * Sets only {@code fields} (values taken from {@code values}) on an existing vendor: one write and
+     * no read, so rating aggregates and other fields are left as stored and concurrent ratings are not
+     * overwritten. Fails with {@link VendorNotFoundException} if the vendor does not exist; throws
+     * IllegalArgumentException right away for a field that is not editable (see {@link VendorFields}).
+     */
+    public CompletableFuture<Void> patchAsync(String id, Vendor values, Set<String> fields) {
+        return patchAsync(id, values, fields, null);
+    }
+
+    /**
+     * Conditional patch: fails with {@link VendorVersionMismatchException} unless the vendor is at
+     * {@code expectedVersion}.
+     */
+    public CompletableFuture<Void> patchAsync(String id, Vendor values, Set<String> fields, Long expectedVersion) {
+        for (String field : fields) {
+            if (!VendorFields.isEditable(field)) {
+                throw new IllegalArgumentException("Unknown or read-only vendor field: " + field);
             }
-            return Optional.empty();
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Failed to get vendor from Firestore", e);
         }
+        if (fields.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        List<VendorMutation> patch = List.of(VendorMutation.patch(id, values, fields, expectedVersion));
+        return metrics.recordAsync(STORE, "patch", () -> store.commitAsync(patch))
+                .whenComplete((ignored, error) -> committed(patch, error));
     }
 
-    // (İleride lazım olursa) UPDATE
-    public Vendor update(String id, Vendor payload) {
-        try {
-            payload.setId(id);
-            db().collection(COLLECTION).document(id).set(payload).get();
-            return payload;
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Failed to update vendor in Firestore", e);
+    /**
+     * PUT semantics: non-null editable fields of {@code payload} are patched, then the vendor is re-read
+     * from the store. The re-read skips the live view and the cache, which may not have the write yet,
+     * so the body and its version (ETag) are the ones just written.
+     */
+    public CompletableFuture<Optional<Vendor>> updateAsync(String id, Vendor payload) {
+        return updateAsync(id, payload, null);
+    }
+
+    public CompletableFuture<Optional<Vendor>> updateAsync(String id, Vendor payload, Long expectedVersion) {
+        return patchAsync(id, payload, VendorFields.present(payload), expectedVersion)
+                .thenCompose(ignored -> metrics.recordAsync(STORE, "findById", () -> store.findByIdAsync(id)));
+    }
+
+    public CompletableFuture<Void> deleteAsync(String id) {
+        return metrics.recordAsync(STORE, "delete", () -> store.deleteAsync(id))
+                .whenComplete((ignored, error) -> {
+                    cache.invalidate(id);
+                    if (error == null) events.publishEvent(VendorChangedEvent.deleted(id));
+                });
+    }
+
+    /** Conditional delete (If-Match); an unconditional one goes through {@link #deleteAsync(String)}. */
+    public CompletableFuture<Void> deleteAsync(String id, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return deleteAsync(id);
         }
+        List<VendorMutation> delete = List.of(VendorMutation.delete(id, expectedVersion));
+        return metrics.recordAsync(STORE, "delete", () -> store.commitAsync(delete))
+                .whenComplete((ignored, error) -> committed(delete, error));
     }
 
-    public Vendor updateRating(String id, double newRating) {
-        try {
-            Optional<Vendor> optVendor = findById(id);
-            if (optVendor.isEmpty()) {
-                throw new RuntimeException("Vendor not found with id: " + id);
+    // Yazma bitti: cache'ten düşür, başarılıysa değişikliği yayınla (leaderboard vb.)
+    private void committed(List<VendorMutation> mutations, Throwable error) {
+        for (VendorMutation m : mutations) {
+            cache.invalidate(m.id());
+            if (error == null) events.publishEvent(VendorChangedEvent.of(m));
+        }
+    }
+
+    // ---- Batch: geçerli işlemler 500'lük atomik commit gruplarına bölünür, gruplar paralel yazılır.
+    // Düşen grup tek tek yeniden denenir: sonuçlar hangi işlemin hatalı olduğunu gösterir ----
+
+    static final int MAX_WRITES_PER_COMMIT = 500; // Firestore WriteBatch sınırı
+
+    public CompletableFuture<BatchResponse> batchAsync(List<BatchRequest.Operation> operations) {
+        BatchResponse.Result[] results = new BatchResponse.Result[operations.size()];
+        List<VendorMutation> mutations = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < operations.size(); i++) {
+            BatchRequest.Operation op = operations.get(i);
+            try {
+                mutations.add(toMutation(op));
+                indexes.add(i);
+            } catch (IllegalArgumentException e) {
+                results[i] = new BatchResponse.Result(i, op == null ? null : op.getId(), "invalid", e.getMessage());
+            }
+        }
+
+        List<CompletableFuture<Void>> commits = new ArrayList<>();
+        for (int from = 0; from < mutations.size(); from += MAX_WRITES_PER_COMMIT) {
+            int to = Math.min(from + MAX_WRITES_PER_COMMIT, mutations.size());
+            List<VendorMutation> group = mutations.subList(from, to);
+            List<Integer> groupIndexes = indexes.subList(from, to);
+            commits.add(commitGroup(group).thenCompose(error -> {
+                if (error == null || group.size() == 1) {
+                    report(group, groupIndexes, error, results);
+                    return CompletableFuture.completedFuture(null);
+                }
+                // Grup geri alındı; tek bir eksik/bayat hedef diğer 499 işlemi de düşürmüş olabilir
+                List<CompletableFuture<Void>> singles = new ArrayList<>(group.size());
+                for (int k = 0; k < group.size(); k++) {
+                    List<VendorMutation> single = group.subList(k, k + 1);
+                    List<Integer> singleIndex = groupIndexes.subList(k, k + 1);
+                    singles.add(commitGroup(single).thenAccept(e -> report(single, singleIndex, e, results)));
+                }
+                return CompletableFuture.allOf(singles.toArray(CompletableFuture[]::new));
+            }));
+        }
+        return CompletableFuture.allOf(commits.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> new BatchResponse(Arrays.asList(results)));
+    }
+
+    // Hata tamamlanmış future'ın değeri olarak döner (null: commit edildi)
+    private CompletableFuture<Throwable> commitGroup(List<VendorMutation> group) {
+        metrics.recordSize(STORE, "commit", group.size());
+        return metrics.recordAsync(STORE, "commit", () -> store.commitAsync(group))
+                .handle((ignored, error) -> error == null ? null : Futures.unwrap(error));
+    }
+
+    private void report(List<VendorMutation> group, List<Integer> indexes, Throwable error,
+                        BatchResponse.Result[] results) {
+        for (int k = 0; k < group.size(); k++) {
+            results[indexes.get(k)] = new BatchResponse.Result(indexes.get(k), group.get(k).id(),
+                    error == null ? "ok" : "failed", error == null ? null : error.getMessage());
+        }
+        committed(group, error);
+    }
+
+    // Geçersiz işlem IllegalArgumentException ile reddedilir, hiçbir gruba girmez
+    private static VendorMutation toMutation(BatchRequest.Operation op) {
+        if (op == null || op.getOp() == null) {
+            throw new IllegalArgumentException("op is required");
+        }
+        Vendor v = op.getVendor();
+        switch (op.getOp().toLowerCase(Locale.ROOT)) {
+            case "create" -> {
+                if (v == null) throw new IllegalArgumentException("vendor is required");
+                if (op.getId() != null) v.setId(op.getId());
+                prepareNew(v);
+                return VendorMutation.create(v);
+            }
+            case "patch" -> {
+                String id = op.getId() != null ? op.getId() : (v == null ? null : v.getId());
+                if (id == null || id.isBlank()) throw new IllegalArgumentException("id is required");
+                if (v == null) throw new IllegalArgumentException("vendor is required");
+                Set<String> fields = VendorFields.present(v);
+                if (fields.isEmpty()) throw new IllegalArgumentException("no editable fields to update");
+                return VendorMutation.patch(id, v, fields);
+            }
+            case "delete" -> {
+                if (op.getId() == null || op.getId().isBlank()) throw new IllegalArgumentException("id is required");
+                return VendorMutation.delete(op.getId());
             }
-            
-            Vendor vendor = optVendor.get();
-            
-            // Calculate new average rating
-            double currentRating = vendor.getRating() != null ? vendor.getRating() : 0.0;
-            int currentCount = vendor.getRatingCount() != null ? vendor.getRatingCount() : 0;
-            
-            // Calculate new average: (current_total + new_rating) / (count + 1)
-            double currentTotal = currentRating * currentCount;
-            double newTotal = currentTotal + newRating;
-            int newCount = currentCount + 1;
-            double newAverageRating = newTotal / newCount;
-            
-            vendor.setRating(newAverageRating);
-            vendor.setRatingCount(newCount);
-            
-            // Update in Firestore
-            db().collection(COLLECTION).document(id).set(vendor).get();
-            return vendor;
-            
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Failed to update rating in Firestore", e);
+            default -> throw new IllegalArgumentException("Unknown op: " + op.getOp());
         }
     }
 }
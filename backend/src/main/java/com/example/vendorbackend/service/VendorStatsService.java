@@ -0,0 +1,85 @@
+package com.example.vendorbackend.service;
+
+import com.example.vendorbackend.dto.VendorStats;
+import com.example.vendorbackend.model.Vendor;
+import com.example.vendorbackend.repository.VendorAggregates;
+import com.example.vendorbackend.repository.VendorStore;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Dashboard figures without reading every vendor: counts and rating totals come from the store's
+ * server-side aggregation (Firestore count/sum), price quantiles from {@link VendorPriceStats}.
+ * Grouped stats take the counts from VendorPriceStats too and aggregate only the rating totals.
+ */
+@Service
+public class VendorStatsService {
+
+    private static final String STORE = "vendors"; // store.calls metrik etiketi
+
+    private final VendorStore store;
+    private final VendorService vendorService;
+    private final VendorPriceStats prices;
+    private final StoreMetrics metrics;
+
+    public VendorStatsService(VendorStore store, VendorService vendorService, VendorPriceStats prices,
+                              StoreMetrics metrics) {
+        this.store = store;
+        this.vendorService = vendorService;
+        this.prices = prices;
+        this.metrics = metrics;
+    }
+
+    /** Stats of the vendors in {@code category} and/or {@code city} (exact match, null = any). */
+    public CompletableFuture<VendorStats> statsAsync(String category, String city) {
+        CompletableFuture<VendorAggregates> aggregates =
+                metrics.recordAsync(STORE, "aggregate", () -> store.aggregateAsync(category, city));
+        CompletableFuture<VendorStats.PriceStats> price =
+                prices.query(this::loadPrices, () -> prices.price(category, city));
+        return aggregates.thenCombine(price, (a, p) -> new VendorStats(category, city, a.count(), a.unrated(),
+                a.withoutAgreement(), a.ratingCount(), a.ratingCount() == 0 ? null : a.ratingSum() / a.ratingCount(), p));
+    }
+
+    private record Group(String category, String city, VendorPriceStats.Counts counts,
+                         VendorStats.PriceStats price) { }
+
+    /**
+     * The stats of each existing category (groupBy "category") or city ("city"), within the other
+     * filter if given. The groups, their vendor counts and prices come from {@link VendorPriceStats};
+     * only the rating totals are aggregated by the store, one query per group, in parallel.
+     * Throws IllegalArgumentException right away for any other groupBy.
+     */
+    public CompletableFuture<List<VendorStats>> statsByAsync(String groupBy, String category, String city) {
+        boolean byCategory = "category".equals(groupBy);
+        if (!byCategory && !"city".equals(groupBy)) {
+            throw new IllegalArgumentException("groupBy must be category or city");
+        }
+        return prices.query(this::loadPrices, () -> {
+            List<Group> groups = new ArrayList<>();
+            for (String value : byCategory ? prices.categories(city) : prices.cities(category)) {
+                String c = byCategory ? value : category;
+                String t = byCategory ? city : value;
+                groups.add(new Group(c, t, prices.counts(c, t), prices.price(c, t)));
+            }
+            return groups;
+        }).thenCompose(groups -> {
+            List<CompletableFuture<VendorStats>> stats = new ArrayList<>(groups.size());
+            for (Group g : groups) {
+                stats.add(metrics.recordAsync(STORE, "ratingTotals",
+                                () -> store.ratingTotalsAsync(g.category(), g.city()))
+                        .thenApply(r -> new VendorStats(g.category(), g.city(), g.counts().vendors(),
+                                g.counts().unrated(), g.counts().withoutAgreement(), r.ratingCount(),
+                                r.ratingCount() == 0 ? null : r.ratingSum() / r.ratingCount(), g.price())));
+            }
+            return CompletableFuture.allOf(stats.toArray(CompletableFuture[]::new))
+                    .thenApply(ignored -> stats.stream().map(CompletableFuture::join).toList());
+        });
+    }
+
+    private CompletableFuture<List<Vendor>> loadPrices() {
+        return vendorService.findAllAsync(VendorPriceStats.FIELDS);
+    }
+}
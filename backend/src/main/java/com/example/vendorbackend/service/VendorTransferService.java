@@ -0,0 +1,206 @@
+package com.example.vendorbackend.service;
+
+import com.example.vendorbackend.dto.ImportReport;
+import com.example.vendorbackend.model.Vendor;
+import com.example.vendorbackend.repository.Futures;
+import com.example.vendorbackend.repository.VendorBulkWriter;
+import com.example.vendorbackend.repository.VendorStore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.*;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk import/export of vendors as NDJSON (one JSON object per line) or CSV (see {@link VendorCsv}).
+ * Both directions stream: imports parse one row at a time and keep at most
+ * {@code vendors.import.max-in-flight} writes outstanding in the store's bulk writer;
+ * exports read the collection page by page. Memory use does not grow with the file size.
+ *
+ * Imported rows go through the same rules as POST /api/vendors: a missing id gets a UUID
+ * and the vendor starts unrated. Rows without a name or with malformed values are reported
+ * in the {@link ImportReport} and skipped; the rest of the file is still imported.
+ */
+@Service
+public class VendorTransferService {
+
+    private static final String STORE = "vendors"; // store.calls metrik etiketi
+    static final int MAX_REPORTED_ERRORS = 100;
+    static final int EXPORT_PAGE_SIZE = 500;
+
+    private final VendorStore store;
+    private final VendorCache cache;
+    private final StoreMetrics metrics;
+    private final ObjectReader jsonReader;
+    private final ObjectWriter jsonWriter;
+    private final int maxInFlight;
+    private final ApplicationEventPublisher events;
+
+    public VendorTransferService(VendorStore store, VendorCache cache, StoreMetrics metrics, ObjectMapper mapper,
+                                 @Value("${vendors.import.max-in-flight:500}") int maxInFlight,
+                                 ApplicationEventPublisher events) {
+        this.store = store;
+        this.cache = cache;
+        this.metrics = metrics;
+        this.events = events;
+        this.jsonReader = mapper.readerFor(Vendor.class);
+        this.jsonWriter = mapper.writerFor(Vendor.class);
+        this.maxInFlight = maxInFlight;
+    }
+
+    public ImportReport importNdjson(Reader body) throws IOException {
+        BufferedReader lines = new BufferedReader(body);
+        try (Import session = new Import()) {
+            long row = 0;
+            String line;
+            while ((line = lines.readLine()) != null) {
+                row++;
+                if (line.isBlank()) continue;
+                Vendor v;
+                try {
+                    v = jsonReader.readValue(line);
+                } catch (JsonProcessingException e) {
+                    session.reject(row, null, "Invalid JSON: " + e.getOriginalMessage());
+                    continue;
+                }
+                session.write(row, v);
+            }
+            return session.finish();
+        }
+    }
+
+    public ImportReport importCsv(Reader body) throws IOException {
+        VendorCsv.Parser parser = new VendorCsv.Parser(body instanceof BufferedReader ? body : new BufferedReader(body));
+        List<String> first = parser.next();
+        if (first == null) {
+            return new ImportReport(0, 0, List.of());
+        }
+        Map<String, Integer> columns = VendorCsv.header(first);
+        if (!columns.containsKey("name")) {
+            throw new IllegalArgumentException("CSV header must contain a name column");
+        }
+        try (Import session = new Import()) {
+            long row = 0;
+            List<String> record;
+            while ((record = parser.next()) != null) {
+                row++;
+                if (record.size() == 1 && record.get(0).isBlank()) continue;
+                Vendor v;
+                try {
+                    v = VendorCsv.toVendor(columns, record);
+                } catch (IllegalArgumentException e) {
+                    Integer idColumn = columns.get("id");
+                    session.reject(row, idColumn != null && idColumn < record.size() ? record.get(idColumn) : null,
+                            e.getMessage());
+                    continue;
+                }
+                session.write(row, v);
+            }
+            return session.finish();
+        }
+    }
+
+    /**
+     * One import run. Writes complete on the store's threads, so counters and the error list
+     * are thread-safe; close() waits for every outstanding write before the cache is cleared.
+     */
+    private final class Import implements AutoCloseable {
+        private final VendorBulkWriter writer = store.bulkWriter();
+        private final Semaphore inFlight = new Semaphore(maxInFlight);
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<ImportReport.RowError> errors = Collections.synchronizedList(new ArrayList<>());
+        private boolean closed;
+
+        void write(long row, Vendor v) {
+            if (v.getName() == null || v.getName().isBlank()) {
+                reject(row, v.getId(), "name is required");
+                return;
+            }
+            VendorService.prepareNew(v);
+            // Yazıcı önündeki kuyruk sınırlı: doluysa parse etmeyi bekle
+            inFlight.acquireUninterruptibly();
+            metrics.recordAsync(STORE, "bulkSave", () -> writer.save(v)).whenComplete((ignored, error) -> {
+                if (error == null) {
+                    imported.incrementAndGet();
+                } else {
+                    reject(row, v.getId(), Futures.unwrap(error).getMessage());
+                }
+                inFlight.release();
+            });
+        }
+
+        void reject(long row, String id, String message) {
+            failed.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(new ImportReport.RowError(row, id, message));
+                }
+            }
+        }
+
+        ImportReport finish() {
+            close();
+            metrics.recordSize(STORE, "import", (int) Math.min(Integer.MAX_VALUE, imported.get()));
+            List<ImportReport.RowError> sorted = new ArrayList<>(errors);
+            sorted.sort(Comparator.comparingLong(ImportReport.RowError::getRow));
+            return new ImportReport(imported.get(), failed.get(), sorted);
+        }
+
+        @Override
+        public void close() {
+            if (closed) return;
+            closed = true;
+            try {
+                writer.close();
+                inFlight.acquireUninterruptibly(maxInFlight);
+            } finally {
+                // Hangi id'lerin yazıldığını tek tek takip etmek yerine tüm cache
+                cache.invalidateAll();
+                events.publishEvent(VendorChangedEvent.invalidated());
+            }
+        }
+    }
+
+    public void exportNdjson(Writer out) throws IOException {
+        forEachPage(out, v -> {
+            out.write(jsonWriter.writeValueAsString(v));
+            out.write('\n');
+        });
+    }
+
+    public void exportCsv(Writer out) throws IOException {
+        VendorCsv.writeHeader(out);
+        forEachPage(out, v -> VendorCsv.write(out, v));
+    }
+
+    private interface VendorSink {
+        void accept(Vendor v) throws IOException;
+    }
+
+    // Cache'i doldurmamak için doğrudan store'dan, belge id'sine göre sayfa sayfa
+    private void forEachPage(Writer out, VendorSink sink) throws IOException {
+        String afterId = null;
+        while (true) {
+            String cursor = afterId;
+            List<Vendor> page = metrics.record(STORE, "findPage", () -> store.findPage(EXPORT_PAGE_SIZE, cursor));
+            metrics.recordSize(STORE, "findPage", page.size());
+            for (Vendor v : page) {
+                sink.accept(v);
+            }
+            out.flush();
+            if (page.size() < EXPORT_PAGE_SIZE) return;
+            afterId = page.get(page.size() - 1).getId();
+        }
+    }
+}
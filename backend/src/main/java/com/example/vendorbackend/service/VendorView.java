@@ -0,0 +1,69 @@
+package com.example.vendorbackend.service;
+
+import com.example.vendorbackend.dto.VendorPage;
+import com.example.vendorbackend.model.Vendor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory materialized copy of the vendors collection, kept sorted by document id
+ * so pages line up with Firestore's orderBy(documentId) cursors.
+ * It is filled by {@link VendorViewListener} (vendors.read-mode=live); until the first
+ * snapshot has been applied it is not ready and VendorService reads go to the cache/Firestore.
+ */
+@Component
+public class VendorView {
+
+    private final ConcurrentSkipListMap<String, Vendor> vendors = new ConcurrentSkipListMap<>();
+    private volatile boolean ready;
+
+    public boolean isReady() { return ready; }
+
+    public void markReady() { ready = true; }
+
+    /** Listener koptu: okumalar tekrar cache/Firestore'a döner, yeniden bağlanınca baştan dolar. */
+    public void reset() {
+        ready = false;
+        vendors.clear();
+    }
+
+    public void upsert(Vendor v) { vendors.put(v.getId(), v); }
+
+    public void remove(String id) { vendors.remove(id); }
+
+    public int size() { return vendors.size(); }
+
+    public Optional<Vendor> findById(String id) {
+        return Optional.ofNullable(vendors.get(id));
+    }
+
+    public List<Vendor> findAll() {
+        return new ArrayList<>(vendors.values());
+    }
+
+    public List<Vendor> findAllById(Collection<String> ids) {
+        List<Vendor> result = new ArrayList<>(ids.size());
+        for (String id : new LinkedHashSet<>(ids)) {
+            Vendor v = vendors.get(id);
+            if (v != null) result.add(v);
+        }
+        return result;
+    }
+
+    public VendorPage page(int limit, String afterId) {
+        NavigableMap<String, Vendor> tail = afterId == null ? vendors : vendors.tailMap(afterId, false);
+        List<Vendor> items = new ArrayList<>(limit);
+        boolean hasMore = false;
+        for (Vendor v : tail.values()) {
+            if (items.size() == limit) {
+                hasMore = true;
+                break;
+            }
+            items.add(v);
+        }
+        String next = hasMore ? VendorService.encodePageToken(items.get(items.size() - 1).getId()) : null;
+        return new VendorPage(items, next);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.vendorbackend.service;
+
+import com.example.vendorbackend.model.Vendor;
+import com.example.vendorbackend.repository.FirestoreVendorStore;
+import com.google.cloud.firestore.*;
+import com.google.firebase.cloud.FirestoreClient;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * vendors.read-mode=live: keeps {@link VendorView} in sync with the vendors collection
+ * through a Firestore snapshot listener. Each snapshot only carries the changed documents,
+ * so after the initial load the view is updated incrementally; every instance sees writes
+ * from every other instance without a TTL.
+ */
+@Component
+@Profile("!jpa")
+@ConditionalOnProperty(name = "vendors.read-mode", havingValue = "live")
+public class VendorViewListener {
+
+    private static final Logger log = LoggerFactory.getLogger(VendorViewListener.class);
+    private static final String COLLECTION = FirestoreVendorStore.COLLECTION;
+
+    private final VendorView view;
+    private final VendorEventStream stream;
+    private final Duration retryDelay;
+    private final ScheduledExecutorService retries = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "vendor-view-retry");
+        t.setDaemon(true);
+        return t;
+    });
+    private volatile ListenerRegistration registration;
+    private volatile boolean stopped;
+
+    public VendorViewListener(VendorView view, VendorEventStream stream,
+                              @Value("${vendors.live.retry-delay:5s}") Duration retryDelay) {
+        this.view = view;
+        this.stream = stream;
+        this.retryDelay = retryDelay;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (stopped) return;
+        Firestore db = FirestoreClient.getFirestore();
+        registration = db.collection(COLLECTION).addSnapshotListener(this::onSnapshot);
+        log.info("Listening to '{}' for the live vendor view", COLLECTION);
+    }
+
+    void onSnapshot(QuerySnapshot snapshot, FirestoreException error) {
+        if (error != null) {
+            // Listener bu noktada kapanır; view'i bırakıp bir süre sonra yeniden abone ol
+            log.warn("Vendor snapshot listener failed, falling back to direct reads: {}", error.getMessage());
+            view.reset();
+            stream.feedFromSnapshots(false); // aradaki süre bu instance'ın olaylarıyla
+            if (!stopped) {
+                retries.schedule(this::start, retryDelay.toMillis(), TimeUnit.MILLISECONDS);
+            }
+            return;
+        }
+        // İlk snapshot tüm koleksiyondur: stream'e tek tek değil, "yeniden yükle" olarak gider
+        boolean initial = !view.isReady();
+        apply(snapshot.getDocumentChanges(), !initial);
+        view.markReady();
+        if (initial) {
+            stream.feedFromSnapshots(true);
+            stream.onSnapshotChange(VendorChangedEvent.invalidated());
+        }
+    }
+
+    void apply(List<DocumentChange> changes, boolean streamed) {
+        for (DocumentChange change : changes) {
+            QueryDocumentSnapshot doc = change.getDocument();
+            switch (change.getType()) {
+                case ADDED, MODIFIED -> {
+                    Vendor v = FirestoreVendorStore.toVendor(doc);
+                    view.upsert(v);
+                    if (streamed) stream.onSnapshotChange(VendorChangedEvent.upserted(v));
+                }
+                case REMOVED -> {
+                    view.remove(doc.getId());
+                    if (streamed) stream.onSnapshotChange(VendorChangedEvent.deleted(doc.getId()));
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+        stream.feedFromSnapshots(false);
+        retries.shutdownNow();
+        if (registration != null) {
+            registration.remove();
+        }
+    }
+}
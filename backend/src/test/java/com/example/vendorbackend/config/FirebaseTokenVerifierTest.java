@@ -0,0 +1,71 @@
+package com.example.vendorbackend.config;
+
+import com.google.firebase.auth.FirebaseToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FirebaseTokenVerifierTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    private static FirebaseToken token(String uid, long expEpochSecond) {
+        FirebaseToken token = mock(FirebaseToken.class);
+        when(token.getUid()).thenReturn(uid);
+        when(token.getClaims()).thenReturn(Map.of("exp", expEpochSecond));
+        return token;
+    }
+
+    private FirebaseTokenVerifier verifier(Map<String, FirebaseToken> issued) {
+        return new FirebaseTokenVerifier((idToken, checkRevoked) -> {
+            verifications.incrementAndGet();
+            return issued.get(idToken);
+        }, new SimpleMeterRegistry(), 100, Duration.ofMinutes(5), false, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void repeatedTokenIsVerifiedOnce() throws Exception {
+        FirebaseToken alice = token("alice", NOW.getEpochSecond() + 3600);
+        FirebaseTokenVerifier verifier = verifier(Map.of("t1", alice));
+
+        assertSame(alice, verifier.verify("t1"));
+        assertSame(alice, verifier.verify("t1"));
+        assertSame(alice, verifier.verify("t1"));
+        assertEquals(1, verifications.get());
+    }
+
+    @Test
+    void expiredTokenIsNotCached() throws Exception {
+        FirebaseTokenVerifier verifier = verifier(Map.of("old", token("bob", NOW.getEpochSecond() - 1)));
+
+        verifier.verify("old");
+        verifier.verify("old");
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void invalidateUserForcesReverification() throws Exception {
+        FirebaseTokenVerifier verifier = verifier(Map.of(
+                "a", token("alice", NOW.getEpochSecond() + 3600),
+                "b", token("bob", NOW.getEpochSecond() + 3600)));
+        verifier.verify("a");
+        verifier.verify("b");
+
+        verifier.invalidateUser("alice");
+        verifier.verify("a");
+        verifier.verify("b");
+        assertEquals(3, verifications.get());
+    }
+}
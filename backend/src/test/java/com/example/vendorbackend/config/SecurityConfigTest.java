@@ -0,0 +1,33 @@
+package com.example.vendorbackend.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.web.header.HeaderWriter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SecurityConfigTest {
+
+    private final HeaderWriter writer = SecurityConfig.cacheControlHeaders();
+
+    private MockHttpServletResponse written(String method, String pattern) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/ignored");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        writer.writeHeaders(request, response);
+        return response;
+    }
+
+    @Test
+    void onlyETaggedVendorReadsSkipTheNoStoreDefault() {
+        assertNull(written("GET", "/api/vendors/{id}").getHeader("Cache-Control"));
+        assertNull(written("GET", "/api/vendors").getHeader("Cache-Control"));
+
+        assertTrue(written("GET", "/api/profile").getHeader("Cache-Control").contains("no-store"));
+        assertTrue(written("POST", "/api/auth/logout").getHeader("Cache-Control").contains("no-store"));
+        assertTrue(written("GET", "/api/vendors/search").getHeader("Cache-Control").contains("no-store"));
+        assertTrue(written("PUT", "/api/vendors/{id}").getHeader("Cache-Control").contains("no-store"));
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.vendorbackend.controller;
+
+import com.example.vendorbackend.dto.VendorPage;
+import com.example.vendorbackend.model.Vendor;
+import com.example.vendorbackend.repository.RatingStore;
+import com.example.vendorbackend.service.RatingService;
+import com.example.vendorbackend.service.StoreMetrics;
+import com.example.vendorbackend.service.VendorCache;
+import com.example.vendorbackend.service.VendorLeaderboard;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.vendorbackend.controller.VendorControllerFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RatingControllerTest {
+
+    /** Serves u1's rated ids in id-ordered slices and counts the index entries read. */
+    private static class RatedIndex implements RatingStore {
+        final SortedSet<String> rated = new TreeSet<>();
+        final AtomicInteger reads = new AtomicInteger();
+
+        @Override
+        public Vendor submitRatings(String vendorId, Map<String, Double> valuesByUser) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SortedSet<String> ratedVendorIds(String userId, String afterId, int limit) {
+            SortedSet<String> slice = new TreeSet<>();
+            if (!"u1".equals(userId)) return slice;
+            for (String id : afterId == null ? rated : rated.tailSet(afterId)) {
+                if (id.equals(afterId)) continue;
+                if (slice.size() == limit) break;
+                slice.add(id);
+            }
+            reads.addAndGet(slice.size());
+            return slice;
+        }
+    }
+
+    private static RatingController controller(CountingVendorStore store, RatingStore ratings) {
+        VendorCache cache = new VendorCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+        StoreMetrics metrics = new StoreMetrics(new SimpleMeterRegistry());
+        VendorLeaderboard leaderboard = new VendorLeaderboard(Duration.ofMinutes(5));
+        return new RatingController(new RatingService(ratings, cache, metrics, publishTo(leaderboard)),
+                vendorService(store, cache, metrics, leaderboard), Optional.empty());
+    }
+
+    private static List<String> unrated(RatingController controller, int limit, Runnable afterFirstPage) {
+        List<String> seen = new ArrayList<>();
+        String token = null;
+        do {
+            VendorPage page = (VendorPage) controller.getUnratedVendors(asUser("u1"), limit, token, null).join()
+                    .getBody();
+            if (token == null) afterFirstPage.run();
+            page.getItems().forEach(v -> seen.add(v.getId()));
+            token = page.getNextPageToken();
+        } while (token != null);
+        return seen;
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {50, 5_000})
+    void unratedVendorsSkipTheUsersRatedIdsWithoutScanning(int size) {
+        CountingVendorStore store = new CountingVendorStore(size);
+        RatedIndex ratings = new RatedIndex();
+        // v0..v9 puanlanmış: id sırasında (v0, v1, v10, v100, ...) ilk sayfaların arasına dağılır
+        for (int i = 0; i < 10; i++) ratings.rated.add("v" + i);
+        RatingController controller = controller(store, ratings);
+
+        List<String> seen = unrated(controller, 20, () ->
+                // ilk sayfa: istenen 21 satır + önündeki puanlanmış id'ler, tek okuma
+                assertTrue(store.reads.get() <= 21 + ratings.rated.size(), "reads: " + store.reads.get()));
+
+        assertEquals(size - ratings.rated.size(), seen.size());
+        assertEquals(size - ratings.rated.size(), new HashSet<>(seen).size());
+        assertTrue(Collections.disjoint(ratings.rated, seen));
+        assertEquals(new ArrayList<>(new TreeSet<>(seen)), seen); // id sırası korunur
+
+        assertEquals(400, controller.getUnratedVendors(new MockHttpServletRequest(), 20, null, null).join()
+                .getStatusCode().value());
+        assertEquals(400, controller.getUnratedVendors(asUser("u1"), 20, "%%%", null).join()
+                .getStatusCode().value());
+    }
+
+    @Test
+    void aLargeRatedSetIsReadInSlicesAlongsideTheVendors() {
+        CountingVendorStore store = new CountingVendorStore(5_000);
+        RatedIndex ratings = new RatedIndex();
+        // 1200 puan (v1000..v2199) tek dilime sığmaz; ilk sayfa index'in yalnızca ilk dilimini okur
+        for (int i = 1_000; i < 2_200; i++) ratings.rated.add("v" + i);
+        RatingController controller = controller(store, ratings);
+
+        List<String> seen = unrated(controller, 20, () -> assertEquals(500, ratings.reads.get()));
+
+        assertEquals(5_000 - 1_200, seen.size());
+        assertTrue(Collections.disjoint(ratings.rated, seen));
+        assertEquals(new ArrayList<>(new TreeSet<>(seen)), seen);
+    }
+}
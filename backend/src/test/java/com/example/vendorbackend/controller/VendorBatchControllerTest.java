@@ -0,0 +1,69 @@
+package com.example.vendorbackend.controller;
+
+import com.example.vendorbackend.dto.BatchRequest;
+import com.example.vendorbackend.dto.BatchResponse;
+import com.example.vendorbackend.model.Vendor;
+import com.example.vendorbackend.repository.VendorMutation;
+import com.example.vendorbackend.service.StoreMetrics;
+import com.example.vendorbackend.service.VendorCache;
+import com.example.vendorbackend.service.VendorLeaderboard;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.vendorbackend.controller.VendorControllerFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class VendorBatchControllerTest {
+
+    @Test
+    void batchSplitsIntoCommitGroupsAndReportsEachOperation() {
+        List<Integer> groupSizes = new ArrayList<>();
+        CountingVendorStore store = new CountingVendorStore(10) {
+            @Override
+            public void commit(List<VendorMutation> mutations) {
+                groupSizes.add(mutations.size());
+                super.commit(mutations);
+            }
+        };
+        VendorCache cache = new VendorCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+        VendorBatchController controller = new VendorBatchController(
+                vendorService(store, cache, new StoreMetrics(new SimpleMeterRegistry()),
+                        new VendorLeaderboard(Duration.ofMinutes(5))));
+
+        List<BatchRequest.Operation> ops = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            Vendor v = new Vendor();
+            v.setId("new" + i);
+            v.setName("New " + i);
+            ops.add(new BatchRequest.Operation("create", null, v));
+        }
+        Vendor patch = new Vendor();
+        patch.setCity("Baku");
+        ops.add(new BatchRequest.Operation("patch", "ghost", patch)); // yok: grubu düşürür
+        ops.add(new BatchRequest.Operation("patch", "v1", patch));
+        ops.add(new BatchRequest.Operation("delete", "v2", null));
+        ops.add(new BatchRequest.Operation("patch", "v3", new Vendor())); // değişecek alan yok
+        ops.add(new BatchRequest.Operation("rename", "v4", null));
+        BatchRequest request = new BatchRequest();
+        request.setOperations(ops);
+
+        BatchResponse response = controller.batch(request).join().getBody();
+
+        // son grup düştü ve işlemleri tek tek yeniden denendi
+        assertEquals(List.of(500, 500, 3, 1, 1, 1), groupSizes);
+        assertEquals(1_002, response.getSucceeded());
+        assertEquals(3, response.getFailed());
+        assertEquals("failed", response.getResults().get(1_000).getStatus());
+        assertEquals("Vendor not found: ghost", response.getResults().get(1_000).getError());
+        assertEquals("ok", response.getResults().get(1_001).getStatus());
+        assertEquals("invalid", response.getResults().get(1_003).getStatus());
+        assertEquals("v4", response.getResults().get(1_004).getId());
+        assertEquals("Baku", store.docs.get("v1").getCity());
+        assertEquals(0.0, store.docs.get("new7").getRating());
+        assertEquals(10 + 1_000 - 1, store.docs.size());
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.vendorbackend.controller;
+
+import com.example.vendorbackend.model.Vendor;
+import com.example.vendorbackend.service.VendorView;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+
+import static com.example.vendorbackend.controller.VendorControllerFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class VendorControllerETagTest {
+
+    @Test
+    void etagsAnswerConditionalRequests() {
+        CountingVendorStore store = new CountingVendorStore(10);
+        VendorController controller = controller(store);
+
+        ResponseEntity<Vendor> first = controller.getById("v1", null).join();
+        String etag = first.getHeaders().getETag();
+        assertNotNull(etag);
+        assertEquals("no-cache, private", first.getHeaders().getCacheControl());
+        assertEquals("no-store", controller.getById("missing", null).join().getHeaders().getCacheControl());
+        ResponseEntity<Vendor> again = controller.getById("v1", etag).join();
+        assertEquals(304, again.getStatusCode().value());
+        assertNull(again.getBody());
+
+        String listTag = controller.list(null, null, null, null, null).join().getHeaders().getETag();
+        assertEquals(304, controller.list(null, null, null, null, "W/" + listTag).join().getStatusCode().value());
+
+        // Başka bir istemci güncelledi: eski ETag ile yazma 412, yeni sürüm 200 döner
+        assertEquals(204, controller.patch("v1", Map.of("city", "Baku"), etag).join().getStatusCode().value());
+        Vendor form = new Vendor();
+        form.setName("Stale");
+        assertEquals(412, controller.update("v1", form, etag).join().getStatusCode().value());
+        assertEquals(412, controller.delete("v1", "W/" + etag).join().getStatusCode().value());
+        assertEquals("Vendor 1", store.docs.get("v1").getName());
+
+        ResponseEntity<Vendor> current = controller.getById("v1", etag).join();
+        assertEquals(200, current.getStatusCode().value());
+        String fresh = current.getHeaders().getETag();
+        assertNotEquals(etag, fresh);
+        assertEquals(200, controller.update("v1", form, fresh).join().getStatusCode().value());
+
+        controller.delete("v2", null).join();
+        assertEquals(200, controller.list(null, null, null, null, listTag).join().getStatusCode().value());
+    }
+
+    @Test
+    void putAnswersWithTheWrittenVersionWhileTheLiveViewLags() {
+        CountingVendorStore store = new CountingVendorStore(10);
+        VendorView view = new VendorView();
+        Vendor before = new Vendor();
+        before.setId("v1");
+        before.setName("Vendor 1");
+        before.setVersion(store.docs.get("v1").getVersion());
+        view.upsert(before); // listener bu yazmayı henüz görmedi
+        view.markReady();
+        VendorController controller = controller(store, view);
+        String etag = controller.getById("v1", null).join().getHeaders().getETag();
+
+        Vendor form = new Vendor();
+        form.setName("Renamed");
+        ResponseEntity<Vendor> updated = controller.update("v1", form, etag).join();
+
+        assertEquals(200, updated.getStatusCode().value());
+        assertEquals("Renamed", updated.getBody().getName());
+        String written = updated.getHeaders().getETag();
+        assertNotEquals(etag, written);
+        // yanıttaki ETag ile hemen sonraki koşullu yazma 412 almaz
+        assertEquals(204, controller.patch("v1", Map.of("city", "Baku"), written).join().getStatusCode().value());
+    }
+}
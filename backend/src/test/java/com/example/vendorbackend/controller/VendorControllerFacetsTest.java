@@ -0,0 +1,45 @@
+package com.example.vendorbackend.controller;
+
+import com.example.vendorbackend.dto.VendorFacetPage;
+import com.example.vendorbackend.dto.VendorSummary;
+import com.example.vendorbackend.model.Vendor;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.example.vendorbackend.controller.VendorControllerFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class VendorControllerFacetsTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void facetsAreServedFromBitmapsAndFollowWrites() {
+        CountingVendorStore store = new CountingVendorStore(1_000);
+        store.docs.values().forEach(v -> v.setCity(v.getId().endsWith("0") ? "Baku" : "Ganja"));
+        VendorController controller = controller(store);
+
+        // ilk istek indeksi yükler; bilinmeyen rating aralığı yüklemeden sonra da 400
+        assertEquals(400, controller.facets(null, null, List.of("5+"), null, null, null).join()
+                .getStatusCode().value());
+        assertEquals(1_000, store.reads.getAndSet(0));
+
+        VendorFacetPage page = (VendorFacetPage) controller.facets(null, List.of("Baku"), null, 5, null, null)
+                .join().getBody();
+        assertEquals(100, page.getTotal());
+        assertEquals(Map.of("Baku", 100L, "Ganja", 900L), page.getFacets().get("city"));
+        assertEquals(List.of("v0", "v10", "v100", "v110", "v120"), ids((List<Vendor>) page.getItems()));
+
+        controller.patch("v1", Map.of("city", "Baku", "category", "Food"), null).join();
+        controller.delete("v0", null).join();
+        VendorFacetPage food = (VendorFacetPage) controller
+                .facets(List.of("Food"), List.of("Baku"), null, 5, null, List.of("name")).join().getBody();
+        assertEquals(1, food.getTotal());
+        assertEquals("Vendor 1", ((VendorSummary) food.getItems().get(0)).getName());
+        assertEquals(Map.of("Food", 1L), food.getFacets().get("category"));
+        assertEquals(Map.of("Baku", 1L), food.getFacets().get("city")); // v0 silindi, v1 Baku'ya taşındı ama tek Food o
+        assertEquals(400, controller.facets(null, null, null, 5, "%%%", null).join().getStatusCode().value());
+        assertEquals(0, store.reads.get());
+    }
+}
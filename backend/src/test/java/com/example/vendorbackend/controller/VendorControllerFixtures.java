@@ -0,0 +1,195 @@
+package com.example.vendorbackend.controller;
+
+import com.example.vendorbackend.model.Vendor;
+import com.example.vendorbackend.model.VendorFields;
+import com.example.vendorbackend.model.VendorVersion;
+import com.example.vendorbackend.repository.RatingStore;
+import com.example.vendorbackend.repository.VendorMutation;
+import com.example.vendorbackend.repository.VendorNotFoundException;
+import com.example.vendorbackend.repository.VendorStore;
+import com.example.vendorbackend.repository.VendorVersionMismatchException;
+import com.example.vendorbackend.service.RatingService;
+import com.example.vendorbackend.service.StoreMetrics;
+import com.example.vendorbackend.service.VendorCache;
+import com.example.vendorbackend.service.VendorChangedEvent;
+import com.example.vendorbackend.service.VendorFacetIndex;
+import com.example.vendorbackend.service.VendorLeaderboard;
+import com.example.vendorbackend.service.VendorSearchIndex;
+import com.example.vendorbackend.service.VendorService;
+import com.example.vendorbackend.service.VendorView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Controllers wired to in-memory stores for the controller tests, with the indexes fed by the
+ * service's change events the way Spring's event multicaster would.
+ */
+final class VendorControllerFixtures {
+
+    private VendorControllerFixtures() {
+    }
+
+    /**
+     * In-memory VendorStore that counts document reads the way Firestore bills them:
+     * a collection scan costs one read per document, a keyed get costs one read per id.
+     */
+    static class CountingVendorStore implements VendorStore {
+        final TreeMap<String, Vendor> docs = new TreeMap<>();
+        final AtomicInteger reads = new AtomicInteger();
+
+        CountingVendorStore(int size) {
+            for (int i = 0; i < size; i++) {
+                Vendor v = new Vendor();
+                v.setId("v" + i);
+                v.setName("Vendor " + i);
+                v.setVersion(VendorVersion.next());
+                docs.put(v.getId(), v);
+            }
+        }
+
+        @Override
+        public List<Vendor> findAll() {
+            reads.addAndGet(docs.size());
+            return new ArrayList<>(docs.values());
+        }
+
+        @Override
+        public List<Vendor> findPage(int limit, String afterId) {
+            List<Vendor> page = (afterId == null ? docs : docs.tailMap(afterId, false)).values()
+                    .stream().limit(limit).toList();
+            reads.addAndGet(page.size());
+            return page;
+        }
+
+        @Override
+        public Optional<Vendor> findById(String id) {
+            reads.incrementAndGet();
+            return Optional.ofNullable(docs.get(id));
+        }
+
+        @Override
+        public Map<String, Vendor> findAllById(Set<String> ids) {
+            Map<String, Vendor> result = new LinkedHashMap<>();
+            for (String id : ids) {
+                reads.incrementAndGet();
+                Vendor v = docs.get(id);
+                if (v != null) result.put(id, v);
+            }
+            return result;
+        }
+
+        @Override
+        public Vendor save(Vendor v) {
+            v.setVersion(VendorVersion.next());
+            docs.put(v.getId(), v);
+            return v;
+        }
+
+        @Override
+        public void delete(String id) {
+            docs.remove(id);
+        }
+
+        // Firestore'daki gibi: field mask'li update belgeyi okumaz (okuma sayılmaz)
+        @Override
+        public void commit(List<VendorMutation> mutations) {
+            for (VendorMutation m : mutations) {
+                switch (m.kind()) {
+                    case CREATE -> save(m.vendor());
+                    case PATCH -> {
+                        Vendor existing = docs.get(m.id());
+                        if (existing == null) throw new VendorNotFoundException(m.id());
+                        if (m.expectedVersion() != null && !m.expectedVersion().equals(existing.getVersion())) {
+                            throw new VendorVersionMismatchException(m.id());
+                        }
+                        VendorFields.copy(m.vendor(), existing, m.fields());
+                        existing.setVersion(VendorVersion.next());
+                    }
+                    case DELETE -> {
+                        Vendor existing = docs.get(m.id());
+                        if (m.expectedVersion() != null
+                                && (existing == null || !m.expectedVersion().equals(existing.getVersion()))) {
+                            throw new VendorVersionMismatchException(m.id());
+                        }
+                        delete(m.id());
+                    }
+                }
+            }
+        }
+    }
+
+    /** Applies ratings straight onto the in-memory docs without going through VendorStore reads. */
+    static RatingStore ratingStore(CountingVendorStore store) {
+        return new RatingStore() {
+            @Override
+            public Vendor submitRatings(String vendorId, Map<String, Double> valuesByUser) {
+                Vendor v = store.docs.get(vendorId);
+                if (v == null) {
+                    throw new VendorNotFoundException(vendorId);
+                }
+                valuesByUser.values().forEach(value -> {
+                    v.setRatingSum(v.getRatingSum() + value);
+                    v.setRatingCount(v.getRatingCount() + 1);
+                });
+                v.setVersion(VendorVersion.next());
+                return v;
+            }
+
+            @Override
+            public SortedSet<String> ratedVendorIds(String userId, String afterId, int limit) {
+                return new TreeSet<>();
+            }
+        };
+    }
+
+    static VendorController controller(CountingVendorStore store) {
+        return controller(store, new VendorView());
+    }
+
+    static VendorController controller(CountingVendorStore store, VendorView view) {
+        VendorCache cache = new VendorCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+        StoreMetrics metrics = new StoreMetrics(new SimpleMeterRegistry());
+        VendorLeaderboard leaderboard = new VendorLeaderboard(Duration.ofMinutes(5));
+        return new VendorController(vendorService(store, cache, metrics, leaderboard, view),
+                new RatingService(ratingStore(store), cache, metrics, publishTo(leaderboard)),
+                Jackson2ObjectMapperBuilder.json().build());
+    }
+
+    static VendorService vendorService(VendorStore store, VendorCache cache, StoreMetrics metrics,
+                                       VendorLeaderboard leaderboard) {
+        return vendorService(store, cache, metrics, leaderboard, new VendorView());
+    }
+
+    static VendorService vendorService(VendorStore store, VendorCache cache, StoreMetrics metrics,
+                                       VendorLeaderboard leaderboard, VendorView view) {
+        VendorSearchIndex searchIndex = new VendorSearchIndex(Duration.ofMinutes(5));
+        VendorFacetIndex facetIndex = new VendorFacetIndex(Duration.ofMinutes(5));
+        return new VendorService(store, cache, view, leaderboard, searchIndex, facetIndex, metrics,
+                event -> {
+                    leaderboard.onVendorChanged((VendorChangedEvent) event);
+                    searchIndex.onVendorChanged((VendorChangedEvent) event);
+                    facetIndex.onVendorChanged((VendorChangedEvent) event);
+                });
+    }
+
+    // Spring'in event multicaster'ı yerine: yayınlanan değişiklik doğrudan leaderboard'a
+    static ApplicationEventPublisher publishTo(VendorLeaderboard leaderboard) {
+        return event -> leaderboard.onVendorChanged((VendorChangedEvent) event);
+    }
+
+    static MockHttpServletRequest asUser(String userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute("userId", userId);
+        return request;
+    }
+
+    static List<String> ids(List<Vendor> vendors) {
+        return vendors.stream().map(Vendor::getId).toList();
+    }
+}
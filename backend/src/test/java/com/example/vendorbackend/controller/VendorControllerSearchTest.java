@@ -0,0 +1,34 @@
+package com.example.vendorbackend.controller;
+
+import com.example.vendorbackend.dto.VendorSummary;
+import com.example.vendorbackend.model.Vendor;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.example.vendorbackend.controller.VendorControllerFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class VendorControllerSearchTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void searchIsServedFromTheIndexAndFollowsWrites() {
+        CountingVendorStore store = new CountingVendorStore(1_000);
+        store.docs.get("v7").setCity("Baku");
+        VendorController controller = controller(store);
+
+        assertEquals(List.of("v7"), ids((List<Vendor>) controller.search("vendor 7", 1, null).join().getBody()));
+        assertEquals(1_000, store.reads.getAndSet(0)); // ilk arama listeyi bir kez yükler; v70.. önek olarak geride
+
+        controller.patch("v8", Map.of("city", "Baku"), null).join();
+        controller.delete("v7", null).join();
+        assertEquals(List.of("v8"), ids((List<Vendor>) controller.search("bkau", 5, null).join().getBody()));
+        List<VendorSummary> summaries =
+                (List<VendorSummary>) controller.search("baku", 5, List.of("name")).join().getBody();
+        assertEquals("Vendor 8", summaries.get(0).getName());
+        assertEquals(400, controller.search("baku", 5, List.of("secret")).join().getStatusCode().value());
+        assertEquals(0, store.reads.get());
+    }
+}
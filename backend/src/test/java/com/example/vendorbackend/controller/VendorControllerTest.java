@@ -0,0 +1,157 @@
+package com.example.vendorbackend.controller;
+
+import com.example.vendorbackend.dto.RatingUpdateRequest;
+import com.example.vendorbackend.model.Vendor;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import static com.example.vendorbackend.controller.VendorControllerFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class VendorControllerTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 1_000, 50_000})
+    void singleVendorPathsReadOneDocumentRegardlessOfCollectionSize(int size) {
+        CountingVendorStore store = new CountingVendorStore(size);
+        VendorController controller = controller(store);
+
+        controller.getById("v5", null).join();
+        assertEquals(1, store.reads.getAndSet(0));
+
+        // PATCH tek yazma, okuma yok; PUT güncel hali geri okur
+        controller.patch("v6", Map.of("city", "Baku"), null).join();
+        assertEquals(0, store.reads.getAndSet(0));
+
+        Vendor patch = new Vendor();
+        patch.setCity("Baku");
+        controller.update("v6", patch, null).join();
+        assertEquals(1, store.reads.getAndSet(0));
+
+        RatingUpdateRequest rating = new RatingUpdateRequest();
+        rating.setRating(4.0);
+        // Puan yazımı vendor belgesini okumaz (atomik increment)
+        controller.updateRating("v7", rating, asUser("u1")).join();
+        assertEquals(0, store.reads.getAndSet(0));
+
+        controller.list(List.of("v1", "v2", "v3"), null, null, null, null).join();
+        assertEquals(3, store.reads.getAndSet(0));
+
+        controller.list(null, 5, null, null, null).join();
+        assertEquals(6, store.reads.getAndSet(0));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 1_000})
+    void unknownIdIsNotFoundAfterSingleRead(int size) {
+        CountingVendorStore store = new CountingVendorStore(size);
+        VendorController controller = controller(store);
+
+        assertEquals(404, controller.getById("missing", null).join().getStatusCode().value());
+        assertEquals(1, store.reads.get());
+    }
+
+    @Test
+    void ratingUnknownVendorIsNotFound() {
+        CountingVendorStore store = new CountingVendorStore(10);
+        VendorController controller = controller(store);
+
+        RatingUpdateRequest rating = new RatingUpdateRequest();
+        rating.setRating(3.0);
+        assertEquals(404, controller.updateRating("missing", rating, asUser("u1")).join().getStatusCode().value());
+        assertEquals(400, controller.updateRating("v1", rating, new MockHttpServletRequest()).join().getStatusCode().value());
+    }
+
+    @Test
+    void editsNeverTouchRatingAggregates() {
+        CountingVendorStore store = new CountingVendorStore(10);
+        VendorController controller = controller(store);
+        RatingUpdateRequest rating = new RatingUpdateRequest();
+        rating.setRating(4.0);
+        controller.updateRating("v1", rating, asUser("u1")).join();
+        controller.getById("v1", null).join(); // cache'e al
+
+        Vendor form = new Vendor(); // EditVendor formu tüm alanları gönderir
+        form.setName("Renamed");
+        form.setRating(0.0);
+        form.setRatingCount(0);
+        Vendor updated = controller.update("v1", form, null).join().getBody();
+        assertEquals("Renamed", updated.getName());
+        assertEquals(1, updated.getRatingCount());
+        assertEquals(4.0, updated.getRating());
+
+        Map<String, Object> changes = new HashMap<>();
+        changes.put("notes", null);
+        changes.put("price", "12.5");
+        assertEquals(204, controller.patch("v1", changes, null).join().getStatusCode().value());
+        Vendor patched = controller.getById("v1", null).join().getBody();
+        assertEquals(new BigDecimal("12.5"), patched.getPrice());
+        assertEquals("Renamed", patched.getName());
+        assertEquals(4.0, patched.getRating());
+
+        assertEquals(400, controller.patch("v1", Map.of("ratingCount", 0), null).join().getStatusCode().value());
+        assertEquals(400, controller.patch("v1", Map.of("price", "cheap"), null).join().getStatusCode().value());
+        assertEquals(404, controller.patch("missing", Map.of("city", "X"), null).join().getStatusCode().value());
+        assertEquals(404, controller.update("missing", form, null).join().getStatusCode().value());
+    }
+
+    @Test
+    void fieldsSelectSparseFieldsets() throws Exception {
+        CountingVendorStore store = new CountingVendorStore(10);
+        store.docs.get("v1").setNotes("x".repeat(2000));
+        VendorController controller = controller(store);
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+
+        Object all = controller.list(null, null, null, List.of("name", "rating"), null).join().getBody();
+        JsonNode first = json.valueToTree(all).get(1);
+        assertEquals(List.of("id", "name", "rating"), iterable(first.fieldNames()));
+        assertEquals("Vendor 1", first.get("name").asText());
+
+        Object page = controller.list(null, 2, null, List.of("city"), null).join().getBody();
+        JsonNode items = json.valueToTree(page).get("items");
+        assertEquals(2, items.size());
+        assertEquals(List.of("id"), iterable(items.get(0).fieldNames())); // city boş: alan yok
+
+        assertEquals(400, controller.list(null, null, null, List.of("bankAccount", "ratingSum"), null).join()
+                .getStatusCode().value());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {20, 10_000})
+    void topVendorsAreServedFromTheLeaderboardAfterOneLoad(int size) {
+        CountingVendorStore store = new CountingVendorStore(size);
+        store.docs.get("v3").setCategory("Food");
+        store.docs.get("v4").setCategory("Food");
+        VendorController controller = controller(store);
+        RatingUpdateRequest rating = new RatingUpdateRequest();
+        rating.setRating(4.0);
+        controller.updateRating("v3", rating, asUser("u1")).join();
+
+        assertEquals(List.of("v3"), ids(controller.top("food", null, 5).join().getBody()));
+        assertEquals(size, store.reads.getAndSet(0)); // ilk sorgu listeyi bir kez yükler
+
+        rating.setRating(5.0);
+        controller.updateRating("v4", rating, asUser("u1")).join();
+        controller.patch("v3", Map.of("city", "Baku"), null).join();
+        for (int i = 0; i < 10; i++) {
+            assertEquals(List.of("v4", "v3"), ids(controller.top("food", null, 5).join().getBody()));
+        }
+        assertEquals(List.of("v3"), ids(controller.top("FOOD", "baku", 5).join().getBody()));
+        assertEquals(List.of("v4"), ids(controller.top(null, null, 1).join().getBody()));
+        assertEquals(0, store.reads.get());
+    }
+
+    private static List<String> iterable(Iterator<String> names) {
+        List<String> result = new ArrayList<>();
+        names.forEachRemaining(result::add);
+        return result;
+    }
+}
@@ -0,0 +1,309 @@
+package com.example.vendorbackend.repository;
+
+import com.example.vendorbackend.model.Vendor;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.api.gax.grpc.GrpcStatusCode;
+import com.google.api.gax.rpc.NotFoundException;
+import com.google.cloud.firestore.*;
+import io.grpc.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the Firestore rating transaction against an in-memory stand-in: documents live in a map,
+ * a transaction's writes are applied only when it commits, and a commit can be made to conflict
+ * once so the callback runs again the way Firestore retries an aborted transaction.
+ */
+class FirestoreRatingStoreTest {
+
+    private final Map<String, Map<String, Object>> docs = new HashMap<>();
+    private final Firestore db = mock(Firestore.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final FirestoreRatingStore store = new FirestoreRatingStore(
+            new ShardedRatingCounter(1, Duration.ofSeconds(5), false), registry, () -> db);
+    private Runnable concurrentWrite; // ilk denemenin okumalarından sonra başka bir yazar commit eder
+
+    @BeforeEach
+    void setUp() {
+        when(db.collection(anyString())).thenAnswer(inv -> collection(inv.getArgument(0)));
+        when(db.runTransaction(any())).thenAnswer(inv -> run(inv.getArgument(0)));
+        when(db.batch()).thenAnswer(inv -> batch());
+    }
+
+    @Test
+    void newRatingsAreCountedAndUpdatesOnlyAddTheDifference() {
+        vendorDoc("v");
+
+        store.submitRating("u1", "v", 4.0);
+        store.submitRating("u2", "v", 2.0);
+        Vendor v = store.submitRating("u1", "v", 5.0); // u1 puanını günceller
+
+        assertEquals(2, v.getRatingCount());
+        assertEquals(7.0, v.getRatingSum());
+        assertEquals(3.5, v.getRating());
+        assertEquals(5.0, docs.get("ratings/u1_v").get("value"));
+        assertEquals(Map.of("vendorId", "v"), docs.get("userRatings/u1/vendors/v"));
+        assertEquals(0.0, retries());
+    }
+
+    @Test
+    void ratedIdsArePagedFromTheUsersSubcollection() {
+        for (String id : List.of("c", "a", "b", "d")) vendorDoc(id);
+        for (String id : List.of("c", "a", "b")) store.submitRating("u1", id, 3.0);
+        store.submitRating("u1", "a", 4.0); // güncelleme yeni belge eklemez
+        store.submitRating("u2", "d", 1.0);
+
+        assertEquals(List.of("a", "b"), new ArrayList<>(store.ratedVendorIds("u1", null, 2)));
+        assertEquals(List.of("c"), new ArrayList<>(store.ratedVendorIds("u1", "b", 2)));
+        assertEquals(List.of("d"), new ArrayList<>(store.ratedVendorIdsAsync("u2", null, 10).join()));
+        assertEquals(3, docs.keySet().stream().filter(path -> path.startsWith("userRatings/u1/vendors/")).count());
+    }
+
+    @Test
+    void ratingsThatPredateTheSubcollectionAreCopiedOnce() {
+        docs.put("ratings/u1_x", new HashMap<>(Map.of("userId", "u1", "vendorId", "x", "value", 2.0)));
+        docs.put("ratings/u2_y", new HashMap<>(Map.of("userId", "u2", "vendorId", "y", "value", 2.0)));
+
+        assertEquals(List.of("x"), new ArrayList<>(store.ratedVendorIds("u1", null, 10)));
+        assertEquals(true, docs.get("userRatings/u1").get("indexed"));
+        assertTrue(docs.containsKey("userRatings/u1/vendors/x"));
+
+        docs.remove("ratings/u1_x"); // artık yalnızca alt koleksiyondan okunur
+        assertEquals(List.of("x"), new ArrayList<>(store.ratedVendorIds("u1", null, 10)));
+        assertFalse(docs.containsKey("userRatings/u2/vendors/y"));
+    }
+
+    @Test
+    void retryRereadsTheUsersRatingSoAConcurrentUpsertIsNotCountedTwice() {
+        vendorDoc("v");
+        concurrentWrite = () -> {
+            // aynı kullanıcının başka bir instance'tan gelen puanı araya girer
+            docs.put("ratings/u1_v", new HashMap<>(Map.of("userId", "u1", "vendorId", "v", "value", 4.0)));
+            docs.get("vendors/v").put("ratingSum", 4.0);
+            docs.get("vendors/v").put("ratingCount", 1L);
+        };
+
+        Vendor v = store.submitRating("u1", "v", 5.0);
+
+        assertEquals(1, v.getRatingCount());
+        assertEquals(5.0, v.getRatingSum());
+        assertEquals(1.0, retries());
+    }
+
+    @Test
+    void missingVendorFailsWithoutWritingTheRating() {
+        VendorNotFoundException e = assertThrows(VendorNotFoundException.class,
+                () -> store.submitRating("u1", "nope", 3.0));
+
+        assertEquals("Vendor not found: nope", e.getMessage());
+        assertFalse(docs.containsKey("ratings/u1_nope"));
+    }
+
+    private double retries() {
+        return registry.counter("firestore.transaction.retries", "operation", "submitRatings").count();
+    }
+
+    private void vendorDoc(String id) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("name", "Vendor " + id);
+        fields.put("ratingSum", 0.0);
+        fields.put("ratingCount", 0L);
+        docs.put("vendors/" + id, fields);
+    }
+
+    // --- in-memory stand-in ---
+
+    private record Write(String path, Map<String, Object> fields, boolean merge, boolean update) { }
+
+    private <T> ApiFuture<T> run(Transaction.Function<T> function) throws Exception {
+        while (true) {
+            List<Write> writes = new ArrayList<>();
+            T result = function.updateCallback(transaction(writes));
+            if (concurrentWrite != null) {
+                // okunan belge değişti: Firestore transaction'ı iptal edip callback'i yeniden çalıştırır
+                concurrentWrite.run();
+                concurrentWrite = null;
+                continue;
+            }
+            for (Write w : writes) {
+                if (w.update() && !docs.containsKey(w.path())) {
+                    return ApiFutures.immediateFailedFuture(new NotFoundException(
+                            new RuntimeException("no entity to update: " + w.path()),
+                            GrpcStatusCode.of(Status.Code.NOT_FOUND), false));
+                }
+            }
+            writes.forEach(this::apply);
+            return ApiFutures.immediateFuture(result);
+        }
+    }
+
+    private Transaction transaction(List<Write> writes) {
+        return mock(Transaction.class, inv -> switch (inv.getMethod().getName()) {
+            case "get" -> ApiFutures.immediateFuture(snapshot(((DocumentReference) inv.getArgument(0)).getPath()));
+            case "getAll" -> ApiFutures.immediateFuture(Arrays.stream((DocumentReference[]) inv.getRawArguments()[0])
+                    .map(ref -> snapshot(ref.getPath()))
+                    .toList());
+            case "set", "update" -> {
+                writes.add(write(inv));
+                yield inv.getMock();
+            }
+            default -> throw new UnsupportedOperationException(inv.getMethod().getName());
+        });
+    }
+
+    private WriteBatch batch() {
+        List<Write> writes = new ArrayList<>();
+        return mock(WriteBatch.class, inv -> switch (inv.getMethod().getName()) {
+            case "set" -> {
+                writes.add(write(inv));
+                yield inv.getMock();
+            }
+            case "commit" -> {
+                writes.forEach(this::apply);
+                yield ApiFutures.immediateFuture(List.of());
+            }
+            default -> throw new UnsupportedOperationException(inv.getMethod().getName());
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Write write(InvocationOnMock inv) {
+        return new Write(((DocumentReference) inv.getArgument(0)).getPath(),
+                (Map<String, Object>) inv.getArgument(1),
+                inv.getArguments().length > 2, inv.getMethod().getName().equals("update"));
+    }
+
+    private void apply(Write w) {
+        Map<String, Object> doc = w.merge() || w.update()
+                ? new HashMap<>(docs.getOrDefault(w.path(), Map.of()))
+                : new HashMap<>();
+        w.fields().forEach((field, value) -> doc.put(field, resolve(doc.get(field), value)));
+        docs.put(w.path(), doc);
+    }
+
+    // FieldValue.increment/arrayUnion'ın içeriği public değil
+    private static Object resolve(Object current, Object value) {
+        if (!(value instanceof FieldValue)) {
+            return value;
+        }
+        try {
+            if (value.getClass().getSimpleName().equals("NumericIncrementFieldValue")) {
+                Number by = (Number) field(value, "operand");
+                Number base = current == null ? 0L : (Number) current;
+                return by instanceof Double || base instanceof Double
+                        ? (Object) (base.doubleValue() + by.doubleValue())
+                        : (Object) (base.longValue() + by.longValue());
+            }
+            List<Object> union = current == null ? new ArrayList<>() : new ArrayList<>((List<?>) current);
+            for (Object element : (List<?>) field(value, "elements")) {
+                if (!union.contains(element)) union.add(element);
+            }
+            return union;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Object field(Object target, String name) throws ReflectiveOperationException {
+        Field f = target.getClass().getDeclaredField(name);
+        f.setAccessible(true);
+        return f.get(target);
+    }
+
+    // Belge id'sine göre sıralı; whereEqualTo/startAfter/limit uygulanır, orderBy/select sonucu değiştirmez
+    private record Scope(String path, String field, Object value, String after, int limit) { }
+
+    private CollectionReference collection(String path) {
+        return mock(CollectionReference.class, inv -> query(new Scope(path, null, null, null, Integer.MAX_VALUE), inv));
+    }
+
+    private Object query(Scope scope, InvocationOnMock inv) throws Throwable {
+        return switch (inv.getMethod().getName()) {
+            case "document" -> document(scope.path() + "/" + inv.getArgument(0));
+            case "orderBy", "select" -> inv.getMock();
+            case "whereEqualTo" -> mock(Query.class, next -> query(new Scope(scope.path(), inv.getArgument(0),
+                    inv.getArgument(1), scope.after(), scope.limit()), next));
+            case "startAfter" -> mock(Query.class, next -> query(new Scope(scope.path(), scope.field(),
+                    scope.value(), (String) ((Object[]) inv.getRawArguments()[0])[0], scope.limit()), next));
+            case "limit" -> mock(Query.class, next -> query(new Scope(scope.path(), scope.field(),
+                    scope.value(), scope.after(), inv.getArgument(0)), next));
+            case "get" -> ApiFutures.immediateFuture(results(scope));
+            default -> RETURNS_DEFAULTS.answer(inv);
+        };
+    }
+
+    private QuerySnapshot results(Scope scope) {
+        List<QueryDocumentSnapshot> found = new TreeMap<>(docs).entrySet().stream()
+                .filter(e -> e.getKey().startsWith(scope.path() + "/")
+                        && e.getKey().indexOf('/', scope.path().length() + 1) < 0)
+                .filter(e -> scope.field() == null || scope.value().equals(e.getValue().get(scope.field())))
+                .filter(e -> scope.after() == null || id(e.getKey()).compareTo(scope.after()) > 0)
+                .limit(scope.limit())
+                .map(e -> {
+                    QueryDocumentSnapshot doc = mock(QueryDocumentSnapshot.class);
+                    when(doc.getId()).thenReturn(id(e.getKey()));
+                    when(doc.getString(anyString())).thenAnswer(inv -> e.getValue().get(inv.<String>getArgument(0)));
+                    return doc;
+                })
+                .toList();
+        QuerySnapshot snapshot = mock(QuerySnapshot.class);
+        when(snapshot.getDocuments()).thenReturn(found);
+        return snapshot;
+    }
+
+    private static String id(String path) {
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    private DocumentReference document(String path) {
+        DocumentReference ref = mock(DocumentReference.class);
+        when(ref.getPath()).thenReturn(path);
+        when(ref.getId()).thenReturn(path.substring(path.lastIndexOf('/') + 1));
+        when(ref.collection(anyString())).thenAnswer(inv -> collection(path + "/" + inv.getArgument(0)));
+        when(ref.get()).thenAnswer(inv -> ApiFutures.immediateFuture(snapshot(path)));
+        when(ref.set(anyMap(), any(SetOptions.class))).thenAnswer(inv -> {
+            apply(new Write(path, inv.getArgument(0), true, false));
+            return ApiFutures.immediateFuture(null);
+        });
+        return ref;
+    }
+
+    private DocumentSnapshot snapshot(String path) {
+        Map<String, Object> data = docs.containsKey(path) ? new HashMap<>(docs.get(path)) : null;
+        DocumentSnapshot snap = mock(DocumentSnapshot.class);
+        when(snap.getId()).thenReturn(path.substring(path.lastIndexOf('/') + 1));
+        when(snap.exists()).thenReturn(data != null);
+        if (data != null) {
+            when(snap.contains(anyString())).thenAnswer(inv -> data.containsKey(inv.<String>getArgument(0)));
+            when(snap.get(anyString())).thenAnswer(inv -> data.get(inv.<String>getArgument(0)));
+            when(snap.getDouble(anyString())).thenAnswer(inv -> {
+                Object value = data.get(inv.<String>getArgument(0));
+                return value == null ? null : ((Number) value).doubleValue();
+            });
+            when(snap.getBoolean(anyString())).thenAnswer(inv -> data.get(inv.<String>getArgument(0)));
+            when(snap.toObject(Vendor.class)).thenAnswer(inv -> {
+                Vendor v = new Vendor();
+                v.setName((String) data.get("name"));
+                v.setRatingSum(((Number) data.get("ratingSum")).doubleValue());
+                v.setRatingCount(((Number) data.get("ratingCount")).intValue());
+                return v;
+            });
+        }
+        return snap;
+    }
+}
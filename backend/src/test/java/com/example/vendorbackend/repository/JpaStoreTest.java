@@ -0,0 +1,180 @@
+package com.example.vendorbackend.repository;
+
+import com.example.vendorbackend.model.Vendor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("jpa")
+@Import({JpaVendorStore.class, JpaRatingStore.class})
+class JpaStoreTest {
+
+    @Autowired
+    private VendorStore vendors;
+
+    @Autowired
+    private RatingStore ratings;
+
+    private Vendor vendor(String id) {
+        Vendor v = new Vendor();
+        v.setId(id);
+        v.setName("Vendor " + id);
+        v.setImages(List.of("https://example.com/" + id + ".png"));
+        return vendors.save(v);
+    }
+
+    @Test
+    void pagesByIdAndLooksUpByKey() {
+        for (String id : List.of("c", "a", "d", "b")) vendor(id);
+
+        assertEquals(List.of("a", "b"), vendors.findPage(2, null).stream().map(Vendor::getId).toList());
+        assertEquals(List.of("c", "d"), vendors.findPage(2, "b").stream().map(Vendor::getId).toList());
+        assertEquals(Set.of("a", "d"), vendors.findAllById(Set.of("a", "d", "zzz")).keySet());
+        assertEquals(1, vendors.findById("c").orElseThrow().getImages().size());
+
+        vendors.delete("c");
+        assertTrue(vendors.findById("c").isEmpty());
+    }
+
+    @Test
+    void ratingUpsertKeepsSumAndCountConsistent() {
+        vendor("v");
+
+        ratings.submitRating("u1", "v", 4.0);
+        ratings.submitRating("u2", "v", 2.0);
+        Vendor v = ratings.submitRating("u1", "v", 5.0); // u1 puanını günceller
+
+        assertEquals(2, v.getRatingCount());
+        assertEquals(7.0, v.getRatingSum());
+        assertEquals(3.5, v.getRating());
+    }
+
+    @Test
+    void ratedVendorIdsAreTheUsersOwnSorted() {
+        for (String id : List.of("b", "a", "c")) vendor(id);
+
+        ratings.submitRating("r1", "c", 3.0);
+        ratings.submitRating("r1", "a", 4.0);
+        ratings.submitRating("r1", "a", 5.0); // güncelleme yeni id eklemez
+        ratings.submitRating("r2", "b", 2.0);
+
+        assertEquals(List.of("a", "c"), new ArrayList<>(ratings.ratedVendorIds("r1", null, 10)));
+        assertEquals(List.of("c"), new ArrayList<>(ratings.ratedVendorIds("r1", "a", 10))); // aralık: a'dan sonra
+        assertEquals(List.of("a"), new ArrayList<>(ratings.ratedVendorIds("r1", null, 1)));
+        assertEquals(List.of("b"), new ArrayList<>(ratings.ratedVendorIdsAsync("r2", null, 10).join()));
+        assertTrue(ratings.ratedVendorIds("nobody", null, 10).isEmpty());
+    }
+
+    @Test
+    void aggregatesCountAndRatingsInTheDatabase() {
+        Vendor a = vendor("agg-a");
+        a.setCategory("AggFood");
+        a.setAgreementNumber("AG-1");
+        vendors.save(a);
+        Vendor b = vendor("agg-b");
+        b.setCategory("AggFood");
+        vendors.save(b);
+        vendor("agg-c");
+        ratings.submitRating("u1", "agg-a", 4.0);
+        ratings.submitRating("u2", "agg-a", 2.0);
+
+        VendorAggregates food = vendors.aggregateAsync("AggFood", null).join();
+        assertEquals(new VendorAggregates(2, 1, 1, 6.0, 2), food);
+        assertEquals(0, vendors.aggregateAsync("AggFood", "Nowhere").join().count());
+        assertEquals(0.0, vendors.aggregateAsync("Nothing", null).join().ratingSum());
+        assertEquals(new VendorRatingTotals(6.0, 2), vendors.ratingTotalsAsync("AggFood", null).join());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // her yazma commit edilip sürüm damgalansın
+    void everyWriteBumpsTheVersion() {
+        long created = vendor("ver").getVersion();
+        long rated = ratings.submitRating("u1", "ver", 4.0).getVersion();
+        assertTrue(rated > created);
+
+        Vendor patch = new Vendor();
+        patch.setCity("Izmir");
+        assertThrows(RuntimeException.class,
+                () -> vendors.commit(List.of(VendorMutation.patch("ver", patch, Set.of("city"), created))));
+        vendors.commit(List.of(VendorMutation.patch("ver", patch, Set.of("city"), rated)));
+        Vendor patched = vendors.findById("ver").orElseThrow();
+        assertEquals("Izmir", patched.getCity());
+        assertTrue(patched.getVersion() > rated);
+        vendors.commit(List.of(VendorMutation.delete("ver", patched.getVersion())));
+        assertTrue(vendors.findById("ver").isEmpty());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // her puan kendi transaction'ında commit edilsin
+    void concurrentRatingsOfOneVendorAreNotLost() throws Exception {
+        vendor("hot");
+        int threads = 8;
+        int perThread = 20;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        ratings.submitRating("u" + thread + "_" + i, "hot", 2.0);
+                    }
+                }));
+            }
+            for (Future<?> f : futures) f.get(30, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Vendor v = vendors.findById("hot").orElseThrow();
+        assertEquals(threads * perThread, v.getRatingCount());
+        assertEquals(2.0 * threads * perThread, v.getRatingSum());
+        assertEquals(2.0, v.getRating());
+        vendors.delete("hot");
+    }
+
+    @Test
+    void ratingUnknownVendorFails() {
+        assertThrows(RuntimeException.class, () -> ratings.submitRating("u1", "nope", 3.0));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // commit kendi transaction'ında
+    void commitGroupIsAtomic() {
+        vendor("keep");
+        Vendor created = new Vendor();
+        created.setId("new");
+        created.setName("New");
+        Vendor patch = new Vendor();
+        patch.setCity("Izmir");
+
+        assertThrows(RuntimeException.class, () -> vendors.commit(List.of(
+                VendorMutation.create(created),
+                VendorMutation.delete("keep"),
+                VendorMutation.patch("missing", patch, Set.of("city")))));
+        assertTrue(vendors.findById("new").isEmpty());
+        assertTrue(vendors.findById("keep").isPresent());
+
+        vendors.commit(List.of(VendorMutation.create(created), VendorMutation.patch("keep", patch, Set.of("city"))));
+        assertEquals("Izmir", vendors.findById("keep").orElseThrow().getCity());
+        assertEquals("Vendor keep", vendors.findById("keep").orElseThrow().getName());
+
+        vendors.commit(List.of(VendorMutation.delete("keep"), VendorMutation.delete("new")));
+        assertTrue(vendors.findAllById(Set.of("keep", "new")).isEmpty());
+    }
+}
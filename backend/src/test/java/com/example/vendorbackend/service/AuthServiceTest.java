@@ -0,0 +1,28 @@
+package com.example.vendorbackend.service;
+
+import com.example.vendorbackend.config.FirebaseTokenVerifier;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class AuthServiceTest {
+
+    @Test
+    void logoutRevokesRefreshTokensThenDropsCachedIdTokens() throws Exception {
+        List<String> calls = new ArrayList<>();
+        FirebaseTokenVerifier verifier = mock(FirebaseTokenVerifier.class);
+        doAnswer(inv -> calls.add("invalidate " + inv.getArgument(0))).when(verifier).invalidateUser(anyString());
+        AuthService auth = new AuthService(verifier, uid -> calls.add("revoke " + uid));
+
+        auth.logout("alice");
+
+        // önce iptal: sonradan yeniden doğrulanan token check-revoked ile reddedilir
+        assertEquals(List.of("revoke alice", "invalidate alice"), calls);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.vendorbackend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrdinalBitmapTest {
+
+    @Test
+    void agreesWithBitSetOnRandomSets() {
+        Random random = new Random(7);
+        OrdinalBitmap a = new OrdinalBitmap();
+        OrdinalBitmap b = new OrdinalBitmap();
+        BitSet expectedA = new BitSet();
+        BitSet expectedB = new BitSet();
+        for (int i = 0; i < 5_000; i++) {
+            int x = random.nextInt(10_000);
+            int y = random.nextInt(3_000); // b daha kısa: farklı uzunluktaki kelime dizileri
+            a.set(x);
+            expectedA.set(x);
+            b.set(y);
+            expectedB.set(y);
+        }
+        a.clear(expectedA.nextSetBit(0));
+        expectedA.clear(expectedA.nextSetBit(0));
+
+        BitSet and = (BitSet) expectedA.clone();
+        and.and(expectedB);
+        assertEquals(expectedA.cardinality(), a.cardinality());
+        assertEquals(and.cardinality(), a.andCardinality(b));
+        assertEquals(and.cardinality(), b.andCardinality(a));
+
+        OrdinalBitmap intersection = a.copy();
+        intersection.and(b);
+        OrdinalBitmap union = b.copy();
+        union.or(a);
+        BitSet or = (BitSet) expectedA.clone();
+        or.or(expectedB);
+        for (int i = 0; i < 10_100; i++) {
+            assertEquals(and.get(i), intersection.get(i), "and " + i);
+            assertEquals(or.get(i), union.get(i), "or " + i);
+        }
+        assertEquals(expectedA.cardinality(), a.cardinality()); // copy() asıl kümeyi değiştirmez
+
+        int seen = 0;
+        for (int o = union.nextSetBit(0); o >= 0; o = union.nextSetBit(o + 1)) {
+            assertEquals(or.nextSetBit(o), o);
+            seen++;
+        }
+        assertEquals(or.cardinality(), seen);
+    }
+
+    @Test
+    void emptiesAgainAfterClearingEveryOrdinal() {
+        OrdinalBitmap bitmap = new OrdinalBitmap();
+        assertTrue(bitmap.isEmpty());
+        assertEquals(-1, bitmap.nextSetBit(0));
+        bitmap.set(63);
+        bitmap.set(64);
+        bitmap.clear(63);
+        assertEquals(64, bitmap.nextSetBit(0));
+        bitmap.clear(64);
+        bitmap.clear(100_000); // hiç ayrılmamış kelime
+        assertTrue(bitmap.isEmpty());
+    }
+}
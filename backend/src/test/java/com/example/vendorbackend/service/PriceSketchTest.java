@@ -0,0 +1,51 @@
+package com.example.vendorbackend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceSketchTest {
+
+    @Test
+    void quantilesStayWithinRelativeAccuracy() {
+        PriceSketch sketch = new PriceSketch();
+        Random random = new Random(42);
+        double[] prices = new double[100_000];
+        for (int i = 0; i < prices.length; i++) {
+            // uzun kuyruklu dağılım: 1..~100k
+            prices[i] = Math.round(Math.exp(random.nextGaussian() * 1.5 + 6) * 100) / 100.0 + 1;
+            sketch.add(BigDecimal.valueOf(prices[i]));
+        }
+        Arrays.sort(prices);
+
+        for (double q : new double[] {0.0, 0.25, 0.5, 0.9, 0.99, 1.0}) {
+            double exact = prices[Math.max(0, (int) Math.ceil(q * prices.length) - 1)];
+            double estimate = sketch.quantile(q);
+            assertEquals(exact, estimate, exact * PriceSketch.RELATIVE_ACCURACY, "q=" + q);
+        }
+        assertEquals(prices.length, sketch.count());
+    }
+
+    @Test
+    void removedPricesNoLongerCount() {
+        PriceSketch sketch = new PriceSketch();
+        for (String p : new String[] {"0", "10.00", "20.00", "30.00", "1000.00"}) sketch.add(new BigDecimal(p));
+        sketch.remove(new BigDecimal("1000.00"));
+        sketch.remove(new BigDecimal("0"));
+
+        assertEquals(3, sketch.count());
+        assertEquals(new BigDecimal("60.00"), sketch.sum());
+        assertEquals(30.0, sketch.quantile(1.0), 0.3);
+        assertEquals(20.0, sketch.quantile(0.5), 0.2);
+        assertEquals(30.0, sketch.quantile(0.9), 0.3); // en yakın sıra: 3 değerin p90'ı en büyüğü
+
+        sketch.remove(new BigDecimal("10.00"));
+        sketch.remove(new BigDecimal("20.00"));
+        sketch.remove(new BigDecimal("30.00"));
+        assertNull(sketch.quantile(0.5));
+    }
+}
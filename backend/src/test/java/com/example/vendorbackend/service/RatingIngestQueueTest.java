@@ -0,0 +1,158 @@
+package com.example.vendorbackend.service;
+
+import com.example.vendorbackend.model.Vendor;
+import com.example.vendorbackend.repository.RatingStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BiFunction;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RatingIngestQueueTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<Map.Entry<String, Map<String, Double>>> writes = new CopyOnWriteArrayList<>();
+
+    private RatingIngestQueue queue(RatingStore store, int capacity) {
+        return queue(store, capacity, 8);
+    }
+
+    private RatingIngestQueue queue(RatingStore store, int capacity, int concurrency) {
+        VendorCache cache = new VendorCache(registry, 100, Duration.ofMinutes(1));
+        return new RatingIngestQueue(new RatingService(store, cache, new StoreMetrics(registry), event -> { }), registry,
+                capacity, 100, Duration.ofSeconds(1), Duration.ofSeconds(10), concurrency);
+    }
+
+    // Yalnızca yazma yolu; puanlanan id'ler bu testlerde okunmaz
+    private static RatingStore submitting(BiFunction<String, Map<String, Double>, Vendor> submit) {
+        return new RatingStore() {
+            @Override
+            public Vendor submitRatings(String vendorId, Map<String, Double> valuesByUser) {
+                return submit.apply(vendorId, valuesByUser);
+            }
+
+            @Override
+            public SortedSet<String> ratedVendorIds(String userId, String afterId, int limit) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    private final RatingStore recording = submitting((vendorId, valuesByUser) -> {
+        writes.add(Map.entry(vendorId, valuesByUser));
+        return new Vendor();
+    });
+
+    @Test
+    void coalescesPendingRatingsIntoOneWritePerVendorAndFlushesOnStop() {
+        RatingIngestQueue queue = queue(recording, 100);
+        queue.start();
+
+        assertTrue(queue.offer("u1", "v1", 3.0));
+        assertTrue(queue.offer("u2", "v1", 4.0));
+        assertTrue(queue.offer("u1", "v2", 1.0));
+        assertTrue(queue.offer("u1", "v1", 5.0)); // u1'in v1 için son puanı kazanır
+        queue.stop();
+
+        assertEquals(2, writes.size());
+        Map<String, Map<String, Double>> byVendor = new HashMap<>();
+        writes.forEach(w -> byVendor.put(w.getKey(), w.getValue()));
+        assertEquals(Map.of("u1", 5.0, "u2", 4.0), byVendor.get("v1"));
+        assertEquals(Map.of("u1", 1.0), byVendor.get("v2"));
+        assertEquals(4.0, registry.get("ratings.ingest.batch.size").summary().totalAmount());
+        assertFalse(queue.offer("u3", "v1", 2.0));
+    }
+
+    @Test
+    void rejectsWhenQueueIsFull() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RatingIngestQueue queue = queue(submitting((vendorId, valuesByUser) -> {
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new Vendor();
+        }), 1);
+        queue.start();
+
+        assertTrue(queue.offer("u1", "v1", 1.0));
+        writing.await(); // worker ilk flush'ta bekliyor
+        assertTrue(queue.offer("u2", "v1", 2.0));
+        assertFalse(queue.offer("u3", "v1", 3.0));
+        assertEquals(1.0, registry.get("ratings.ingest.rejected").counter().count());
+        assertEquals(1.0, registry.get("ratings.ingest.queue.depth").gauge().value());
+
+        release.countDown();
+        queue.stop();
+        assertEquals(0, queue.depth());
+    }
+
+    @Test
+    void writesTheVendorsOfAFlushConcurrentlyUpToTheLimit() throws InterruptedException {
+        Map<String, CompletableFuture<Vendor>> pending = new ConcurrentHashMap<>();
+        RatingIngestQueue queue = queue(new RatingStore() {
+            @Override
+            public Vendor submitRatings(String vendorId, Map<String, Double> valuesByUser) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public CompletableFuture<Vendor> submitRatingsAsync(String vendorId, Map<String, Double> valuesByUser) {
+                writes.add(Map.entry(vendorId, valuesByUser));
+                CompletableFuture<Vendor> write = new CompletableFuture<>();
+                pending.put(vendorId, write);
+                return write;
+            }
+
+            @Override
+            public SortedSet<String> ratedVendorIds(String userId, String afterId, int limit) {
+                throw new UnsupportedOperationException();
+            }
+        }, 100, 2);
+        List<RatingIngestQueue.PendingRating> batch = List.of(
+                new RatingIngestQueue.PendingRating("u1", "v1", 1.0),
+                new RatingIngestQueue.PendingRating("u1", "v2", 2.0),
+                new RatingIngestQueue.PendingRating("u1", "v3", 3.0));
+        Thread flushing = new Thread(() -> {
+            try {
+                queue.flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        flushing.start();
+
+        await(() -> writes.size() == 2); // iki transaction aynı anda açık, üçüncüsü yer bekliyor
+        Thread.sleep(50);
+        assertEquals(2, writes.size());
+        pending.get("v1").complete(new Vendor());
+        await(() -> writes.size() == 3);
+        pending.get("v2").completeExceptionally(new RuntimeException("boom"));
+        flushing.join(50);
+        assertTrue(flushing.isAlive()); // v3 bitmeden sonraki drain başlamaz
+
+        pending.get("v3").complete(new Vendor());
+        flushing.join(5_000);
+        assertFalse(flushing.isAlive());
+        assertEquals(1.0, registry.get("ratings.ingest.failed").counter().count());
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.vendorbackend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StoreMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final StoreMetrics metrics = new StoreMetrics(registry);
+
+    private long calls(String operation, String outcome) {
+        return registry.get("store.calls")
+                .tags("store", "vendors", "operation", operation, "outcome", outcome)
+                .timer().count();
+    }
+
+    @Test
+    void recordsOutcomePerOperation() {
+        assertEquals(List.of("a"), metrics.record("vendors", "findAll", () -> List.of("a")));
+        assertThrows(IllegalStateException.class, () -> metrics.run("vendors", "delete", () -> {
+            throw new IllegalStateException("boom");
+        }));
+        metrics.recordSize("vendors", "findAll", 1);
+
+        assertEquals(1, calls("findAll", "success"));
+        assertEquals(1, calls("delete", "error"));
+        assertEquals(1, registry.get("store.result.size").tag("operation", "findAll").summary().count());
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.vendorbackend.service;
+
+import com.example.vendorbackend.model.Vendor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VendorCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final VendorCache cache = new VendorCache(registry, 100, Duration.ofMinutes(1));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private Optional<Vendor> load(String id) {
+        loads.incrementAndGet();
+        if (id.startsWith("missing")) return Optional.empty();
+        Vendor v = new Vendor();
+        v.setId(id);
+        return Optional.of(v);
+    }
+
+    @Test
+    void servesRepeatedReadsFromMemoryUntilInvalidated() {
+        cache.get("a", this::load);
+        cache.get("a", this::load);
+        assertEquals(1, loads.get());
+
+        cache.invalidate("a");
+        cache.get("a", this::load);
+        assertEquals(2, loads.get());
+
+        assertEquals(2.0, registry.get("cache.gets").tag("cache", "vendors").tag("result", "miss")
+                .functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "vendors").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void doesNotCacheMisses() {
+        assertTrue(cache.get("missing", this::load).isEmpty());
+        assertTrue(cache.get("missing", this::load).isEmpty());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void multiGetLoadsOnlyAbsentIdsAndKeepsRequestOrder() {
+        cache.get("b", this::load);
+        loads.set(0);
+
+        List<Set<String>> batches = new ArrayList<>();
+        List<Vendor> result = cache.getAll(List.of("c", "b", "missing-1", "a"), ids -> {
+            batches.add(ids);
+            Map<String, Vendor> found = new LinkedHashMap<>();
+            for (String id : ids) load(id).ifPresent(v -> found.put(id, v));
+            return found;
+        });
+
+        assertEquals(List.of("c", "b", "a"), result.stream().map(Vendor::getId).toList());
+        assertEquals(1, batches.size());
+        assertEquals(Set.of("c", "missing-1", "a"), batches.get(0));
+    }
+
+    @Test
+    void anyWriteDropsTheCachedList() {
+        AtomicInteger listLoads = new AtomicInteger();
+        cache.getList(() -> { listLoads.incrementAndGet(); return new ArrayList<>(); });
+        cache.getList(() -> { listLoads.incrementAndGet(); return new ArrayList<>(); });
+        assertEquals(1, listLoads.get());
+
+        cache.invalidate("x");
+        cache.getList(() -> { listLoads.incrementAndGet(); return new ArrayList<>(); });
+        assertEquals(2, listLoads.get());
+    }
+
+    @Test
+    void asyncReadsShareTheCacheWithBlockingReads() {
+        cache.get("a", this::load);
+        loads.set(0);
+
+        assertTrue(cache.getAsync("a", id -> CompletableFuture.completedFuture(load(id))).join().isPresent());
+        assertEquals(0, loads.get());
+
+        CompletableFuture<Optional<Vendor>> pending = new CompletableFuture<>();
+        CompletableFuture<Optional<Vendor>> result = cache.getAsync("b", id -> pending);
+        assertFalse(result.isDone()); // store I/O sürerken kimse beklemez
+        pending.complete(load("b"));
+        assertEquals("b", result.join().orElseThrow().getId());
+        assertEquals(1, loads.get());
+
+        cache.get("b", this::load);
+        assertEquals(1, loads.get());
+
+        List<Vendor> many = cache.getAllAsync(List.of("c", "a", "missing-2"), ids -> {
+            Map<String, Vendor> found = new LinkedHashMap<>();
+            for (String id : ids) load(id).ifPresent(v -> found.put(id, v));
+            return CompletableFuture.completedFuture(found);
+        }).join();
+        assertEquals(List.of("c", "a"), many.stream().map(Vendor::getId).toList());
+        assertEquals(3, loads.get()); // sadece c ve missing-2 yüklendi
+    }
+
+    @Test
+    void loadThatCompletesAfterAnInvalidateIsNotCached() {
+        CompletableFuture<Optional<Vendor>> pending = new CompletableFuture<>();
+        CompletableFuture<Optional<Vendor>> read = cache.getAsync("a", id -> pending);
+        CompletableFuture<Map<String, Vendor>> pendingMany = new CompletableFuture<>();
+        CompletableFuture<List<Vendor>> readMany = cache.getAllAsync(List.of("b"), ids -> pendingMany);
+        CompletableFuture<List<Vendor>> pendingList = new CompletableFuture<>();
+        CompletableFuture<List<Vendor>> readList = cache.getListAsync(() -> pendingList);
+
+        cache.invalidate("a"); // okumalar sürerken bir PATCH commit edildi
+        pending.complete(load("a"));
+        pendingMany.complete(Map.of("b", load("b").orElseThrow()));
+        pendingList.complete(List.of());
+
+        assertTrue(read.join().isPresent()); // okuyan yine de sonucunu alır
+        assertEquals(1, readMany.join().size());
+        assertTrue(readList.join().isEmpty());
+
+        loads.set(0);
+        cache.get("a", this::load);
+        cache.get("b", this::load);
+        assertEquals(2, loads.get());
+        AtomicInteger listLoads = new AtomicInteger();
+        cache.getList(() -> { listLoads.incrementAndGet(); return new ArrayList<>(); });
+        assertEquals(1, listLoads.get());
+
+        // sonraki yüklemeler yine cache'lenir
+        cache.get("a", this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void virtualThreadModeLoadsOutsideTheLockWithSameSemantics() {
+        VendorCache outside = new VendorCache(registry, 100, Duration.ofMinutes(1), true);
+
+        outside.get("a", this::load);
+        outside.get("a", this::load);
+        assertTrue(outside.get("missing", this::load).isEmpty());
+        assertEquals(2, loads.get());
+
+        IllegalStateException boom = new IllegalStateException("store down");
+        assertSame(boom, assertThrows(IllegalStateException.class,
+                () -> outside.get("b", id -> { throw boom; })));
+        assertSame(boom, assertThrows(IllegalStateException.class,
+                () -> outside.getList(() -> { throw boom; })));
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.vendorbackend.service;
+
+import com.example.vendorbackend.model.Vendor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VendorEventStreamTest {
+
+    /** Records the raw SSE text it is asked to send; optionally blocks like a client that stopped reading. */
+    static class RecordingEmitter extends SseEmitter {
+        final List<String> sent = new CopyOnWriteArrayList<>();
+        final CountDownLatch unblock;
+        volatile boolean completed;
+
+        RecordingEmitter(CountDownLatch unblock) {
+            this.unblock = unblock;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            StringBuilder text = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                text.append(part.getData());
+            }
+            sent.add(text.toString());
+            if (unblock != null) {
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+
+    private static VendorEventStream stream(int bufferSize, int maxClients) {
+        return stream(Jackson2ObjectMapperBuilder.json().build(), bufferSize, maxClients);
+    }
+
+    private static VendorEventStream stream(ObjectMapper json, int bufferSize, int maxClients) {
+        return new VendorEventStream(json, new SimpleMeterRegistry(), bufferSize, maxClients, Duration.ofMinutes(1),
+                4, Duration.ofSeconds(10));
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(5);
+        }
+    }
+
+    private static Vendor vendor(String id, String name, double sum, int count) {
+        Vendor v = new Vendor();
+        v.setId(id);
+        v.setName(name);
+        v.setRatingSum(sum);
+        v.setRatingCount(count);
+        return v;
+    }
+
+    @Test
+    void streamsDeltasInOrder() throws InterruptedException {
+        VendorEventStream stream = stream(16, 10);
+        RecordingEmitter client = new RecordingEmitter(null);
+        stream.subscribe(client);
+
+        Vendor rename = new Vendor();
+        rename.setName("Renamed");
+        stream.onVendorChanged(VendorChangedEvent.upserted(vendor("a", "Bakery", 0, 0)));
+        stream.onVendorChanged(VendorChangedEvent.patched("a", rename, Set.of("name")));
+        stream.onVendorChanged(VendorChangedEvent.rated(vendor("a", "Renamed", 9.0, 2)));
+        stream.onVendorChanged(VendorChangedEvent.deleted("a"));
+        stream.onVendorChanged(VendorChangedEvent.invalidated());
+        await(() -> client.sent.size() == 5);
+
+        assertTrue(client.sent.get(0).startsWith("id:1\nevent:upserted\ndata:{\"id\":\"a\""), client.sent.get(0));
+        assertTrue(client.sent.get(0).contains("\"name\":\"Bakery\""));
+        assertEquals("id:2\nevent:patched\ndata:{\"id\":\"a\",\"fields\":{\"name\":\"Renamed\"}}\n\n",
+                client.sent.get(1).replace("{\"fields\":{\"name\":\"Renamed\"},\"id\":\"a\"}",
+                        "{\"id\":\"a\",\"fields\":{\"name\":\"Renamed\"}}")); // Map.of sırası sabit değil
+        assertEquals("id:3\nevent:rated\ndata:{\"id\":\"a\",\"rating\":4.5,\"ratingCount\":2}\n\n", client.sent.get(2));
+        assertEquals("id:4\nevent:deleted\ndata:{\"id\":\"a\"}\n\n", client.sent.get(3));
+        assertEquals("id:5\nevent:invalidated\ndata:{}\n\n", client.sent.get(4));
+
+        stream.heartbeat();
+        await(() -> client.sent.size() == 6);
+        assertEquals(":heartbeat\n\n", client.sent.get(5));
+    }
+
+    @Test
+    void disconnectsASlowClientWithoutHoldingBackOthers() throws InterruptedException {
+        VendorEventStream stream = stream(4, 10);
+        CountDownLatch stuck = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(stuck);
+        RecordingEmitter fast = new RecordingEmitter(null);
+        stream.subscribe(slow);
+        stream.subscribe(fast);
+
+        stream.onVendorChanged(VendorChangedEvent.deleted("v0"));
+        await(() -> slow.sent.size() == 1); // yavaş istemci ilk olayı yazarken takıldı
+        for (int i = 1; i <= 5; i++) {
+            stream.onVendorChanged(VendorChangedEvent.deleted("v" + i));
+            int sent = i + 1;
+            await(() -> fast.sent.size() == sent); // hızlı istemci yetişiyor, yavaşın tamponu doluyor
+        }
+
+        await(() -> stream.clientCount() == 1); // 5. olay 4'lük tampona sığmadı
+        assertFalse(slow.completed); // complete() takılı gönderimin kilidini beklerdi; gönderen thread tamamlar
+        stuck.countDown();
+        await(() -> slow.completed);
+
+        stream.onVendorChanged(VendorChangedEvent.deleted("after"));
+        await(() -> fast.sent.size() == 7);
+        assertEquals(1, slow.sent.size()); // kapatılan istemciye artık gönderilmez
+    }
+
+    @Test
+    void serializesOnceOnASenderThreadNotThePublisher() throws Exception {
+        List<String> threads = new CopyOnWriteArrayList<>();
+        ObjectMapper json = new ObjectMapper() {
+            @Override
+            public String writeValueAsString(Object value) throws JsonProcessingException {
+                threads.add(Thread.currentThread().getName());
+                return super.writeValueAsString(value);
+            }
+        };
+        VendorEventStream stream = stream(json, 16, 10);
+        RecordingEmitter first = new RecordingEmitter(null);
+        RecordingEmitter second = new RecordingEmitter(null);
+        stream.subscribe(first);
+        stream.subscribe(second);
+
+        stream.onVendorChanged(VendorChangedEvent.deleted("a"));
+        await(() -> first.sent.size() == 1 && second.sent.size() == 1);
+
+        assertEquals(List.of("vendor-stream"), threads);
+        assertEquals(first.sent, second.sent);
+    }
+
+    @Test
+    void whileFedFromSnapshotsLocalEventsAreNotStreamedTwice() throws InterruptedException {
+        VendorEventStream stream = stream(16, 10);
+        RecordingEmitter client = new RecordingEmitter(null);
+        stream.subscribe(client);
+
+        stream.onSnapshotChange(VendorChangedEvent.deleted("ignored")); // listener henüz başlamadı
+        stream.feedFromSnapshots(true);
+        stream.onVendorChanged(VendorChangedEvent.deleted("local"));   // snapshot'tan da gelecek
+        stream.onSnapshotChange(VendorChangedEvent.deleted("remote"));
+        stream.feedFromSnapshots(false);
+        stream.onVendorChanged(VendorChangedEvent.deleted("fallback"));
+        await(() -> client.sent.size() == 2);
+
+        assertTrue(client.sent.get(0).contains("{\"id\":\"remote\"}"), client.sent.get(0));
+        assertTrue(client.sent.get(1).contains("{\"id\":\"fallback\"}"), client.sent.get(1));
+    }
+
+    @Test
+    void aStalledSendIsWrittenOffSoOtherClientsKeepReceiving() throws InterruptedException {
+        VendorEventStream stream = new VendorEventStream(Jackson2ObjectMapperBuilder.json().build(),
+                new SimpleMeterRegistry(), 16, 10, Duration.ofMinutes(1), 1, Duration.ofMillis(100));
+        CountDownLatch stuck = new CountDownLatch(1);
+        RecordingEmitter dead = new RecordingEmitter(stuck);
+        stream.subscribe(dead);
+        stream.onVendorChanged(VendorChangedEvent.deleted("a"));
+        await(() -> dead.sent.size() == 1); // tek gönderim thread'i ölü sokette takıldı
+
+        RecordingEmitter live = new RecordingEmitter(null);
+        stream.subscribe(live);
+        stream.onVendorChanged(VendorChangedEvent.deleted("b"));
+        await(() -> live.sent.size() == 1); // watchdog yerine yeni thread açtı
+
+        assertEquals(1, stream.clientCount());
+        assertEquals(2, stream.senderPoolSize());
+        assertFalse(dead.completed);
+        stuck.countDown();
+        await(() -> dead.completed);
+        await(() -> stream.senderPoolSize() == 1);
+        assertEquals(1, dead.sent.size());
+    }
+
+    @Test
+    void refusesClientsBeyondTheLimit() {
+        VendorEventStream stream = stream(4, 1);
+        assertNotNull(stream.subscribe(new RecordingEmitter(null)));
+        assertNull(stream.subscribe(new RecordingEmitter(null)));
+    }
+
+    @Test
+    void concurrentSubscribesNeverExceedTheLimit() throws Exception {
+        VendorEventStream stream = stream(4, 50);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> accepted = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            accepted.add(pool.submit(() -> {
+                start.await();
+                int n = 0;
+                for (int i = 0; i < 100; i++) {
+                    if (stream.subscribe(new RecordingEmitter(null)) != null) n++;
+                }
+                return n;
+            }));
+        }
+        start.countDown();
+        int total = 0;
+        for (Future<Integer> f : accepted) total += f.get();
+        pool.shutdown();
+
+        assertEquals(50, total);
+        assertEquals(50, stream.clientCount());
+    }
+
+    @Test
+    void aDroppedClientFreesItsSlot() throws InterruptedException {
+        VendorEventStream stream = stream(1, 1);
+        CountDownLatch stuck = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(stuck);
+        stream.subscribe(slow);
+
+        stream.onVendorChanged(VendorChangedEvent.deleted("a"));
+        await(() -> slow.sent.size() == 1);
+        stream.onVendorChanged(VendorChangedEvent.deleted("b")); // tampona girer
+        stream.onVendorChanged(VendorChangedEvent.deleted("c")); // sığmaz: istemci düşer
+
+        assertNotNull(stream.subscribe(new RecordingEmitter(null)));
+        stuck.countDown();
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.vendorbackend.service;
+
+import com.example.vendorbackend.dto.VendorFacetPage;
+import com.example.vendorbackend.model.Vendor;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VendorFacetIndexTest {
+
+    private final VendorFacetIndex index = new VendorFacetIndex(Duration.ofMinutes(5));
+
+    private static Vendor vendor(String id, String category, String city, double sum, int count) {
+        Vendor v = new Vendor();
+        v.setId(id);
+        v.setCategory(category);
+        v.setCity(city);
+        v.setRatingSum(sum);
+        v.setRatingCount(count);
+        return v;
+    }
+
+    private void load(Vendor... vendors) {
+        index.load(() -> CompletableFuture.completedFuture(List.of(vendors))).join();
+    }
+
+    private static List<String> ids(VendorFacetPage page) {
+        return page.getItems().stream().map(v -> ((Vendor) v).getId()).toList();
+    }
+
+    @Test
+    void countsEachFacetUnderTheOtherFacetsSelections() {
+        load(vendor("a", "Food", "Baku", 9.0, 2),     // 4.5
+             vendor("b", "Food", "Ganja", 3.0, 1),    // 3.0
+             vendor("c", "Print", "Baku", 0.0, 0),    // puansız
+             vendor("d", "Print", "Baku", 4.0, 1),    // 4.0
+             vendor("e", "Food", "Baku", 5.0, 1));    // 5.0 -> "4-5"
+
+        VendorFacetPage all = index.facets(Map.of(), 10, null);
+        assertEquals(5, all.getTotal());
+        assertEquals(Map.of("Food", 3L, "Print", 2L), all.getFacets().get("category"));
+        assertEquals(Map.of("3-4", 1L, "4-5", 3L, "unrated", 1L), all.getFacets().get("rating"));
+
+        VendorFacetPage filtered = index.facets(
+                Map.of("city", Set.of("Baku"), "rating", Set.of("4-5", "unrated")), 10, null);
+        assertEquals(List.of("a", "c", "d", "e"), ids(filtered));
+        assertEquals(Map.of("Food", 2L, "Print", 2L), filtered.getFacets().get("category"));
+        // city sayıları city seçimini yok sayar, rating seçimine uyar
+        assertEquals(Map.of("Baku", 4L), filtered.getFacets().get("city"));
+        assertEquals(Map.of("4-5", 3L, "unrated", 1L), filtered.getFacets().get("rating"));
+
+        assertEquals(0, index.facets(Map.of("category", Set.of("Travel")), 10, null).getTotal());
+        assertThrows(IllegalArgumentException.class, () -> index.facets(Map.of("rating", Set.of("5+")), 10, null));
+        assertThrows(IllegalArgumentException.class, () -> index.facets(Map.of("name", Set.of("x")), 10, null));
+    }
+
+    @Test
+    void pagesInIdOrderForSparseAndDenseMatches() {
+        List<Vendor> vendors = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            // seyrek: her 100'de bir "Rare"; yoğun: geri kalanı "Common"
+            vendors.add(vendor(String.format("v%05d", 4_999 - i), i % 100 == 0 ? "Rare" : "Common", "Baku", 0, 0));
+        }
+        load(vendors.toArray(Vendor[]::new));
+
+        for (String category : List.of("Rare", "Common")) {
+            Map<String, Set<String>> selected = Map.of("category", Set.of(category));
+            List<String> seen = new ArrayList<>();
+            String afterId = null;
+            VendorFacetPage page;
+            do {
+                page = index.facets(selected, 400, afterId);
+                seen.addAll(ids(page));
+                afterId = page.getNextPageToken() == null ? null : VendorService.decodePageToken(page.getNextPageToken());
+            } while (afterId != null);
+            assertEquals(page.getTotal(), seen.size());
+            assertEquals(new ArrayList<>(new TreeSet<>(seen)), seen, category);
+        }
+    }
+
+    @Test
+    void followsRatingsEditsAndDeletes() {
+        load(vendor("a", "Food", "Baku", 0.0, 0), vendor("b", "Food", "Baku", 2.0, 1));
+
+        index.onVendorChanged(VendorChangedEvent.upserted(vendor("a", "Food", "Baku", 4.0, 1)));
+        Vendor move = new Vendor();
+        move.setCity("Ganja");
+        index.onVendorChanged(VendorChangedEvent.patched("b", move, Set.of("city")));
+        index.onVendorChanged(VendorChangedEvent.upserted(vendor("n", "Print", "Ganja", 0.0, 0)));
+        index.drain(); // query() gibi: kuyruktaki değişiklikler önce uygulanır
+
+        VendorFacetPage page = index.facets(Map.of("city", Set.of("Ganja")), 10, null);
+        assertEquals(List.of("b", "n"), ids(page));
+        assertEquals(Map.of("2-3", 1L, "unrated", 1L), page.getFacets().get("rating"));
+        assertEquals(Map.of("4-5", 1L), index.facets(Map.of("city", Set.of("Baku")), 10, null)
+                .getFacets().get("rating"));
+
+        index.onVendorChanged(VendorChangedEvent.deleted("b"));
+        index.onVendorChanged(VendorChangedEvent.upserted(vendor("z", "Food", "Quba", 0.0, 0))); // silinen ordinal'i alır
+        index.drain();
+        VendorFacetPage all = index.facets(Map.of(), 10, null);
+        assertEquals(List.of("a", "n", "z"), ids(all));
+        assertEquals(Map.of("Baku", 1L, "Ganja", 1L, "Quba", 1L), all.getFacets().get("city"));
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.vendorbackend.service;
+
+import com.example.vendorbackend.model.Vendor;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VendorLeaderboardTest {
+
+    private final VendorLeaderboard leaderboard = new VendorLeaderboard(Duration.ofMinutes(5));
+
+    private static Vendor vendor(String id, String category, String city, double sum, int count) {
+        Vendor v = new Vendor();
+        v.setId(id);
+        v.setCategory(category);
+        v.setCity(city);
+        v.setRatingSum(sum);
+        v.setRatingCount(count);
+        return v;
+    }
+
+    private List<String> top(String category, String city, int n) {
+        leaderboard.drain(); // query() gibi: kuyruktaki değişiklikler önce uygulanır
+        return leaderboard.top(category, city, n).stream().map(Vendor::getId).toList();
+    }
+
+    private void load(Vendor... vendors) {
+        leaderboard.load(() -> CompletableFuture.completedFuture(List.of(vendors))).join();
+    }
+
+    @Test
+    void ordersByAverageThenCountWithinEachFacet() {
+        load(vendor("a", "Food", "Baku", 9.0, 2),      // 4.5
+             vendor("b", "Food", "Ganja", 5.0, 1),     // 5.0
+             vendor("c", "Print", "Baku", 13.5, 3),    // 4.5, daha çok puan
+             vendor("d", "Food", "Baku", 0.0, 0));     // puansız: hiçbir listede yok
+
+        assertEquals(List.of("b", "c", "a"), top(null, null, 10));
+        assertEquals(List.of("b", "c"), top(null, null, 2));
+        assertEquals(List.of("b", "a"), top("food", null, 10));
+        assertEquals(List.of("c", "a"), top(null, " BAKU ", 10));
+        assertEquals(List.of("a"), top("Food", "Baku", 10));
+        assertEquals(List.of(), top("Travel", null, 10));
+    }
+
+    @Test
+    void followsRatingsEditsAndDeletes() {
+        load(vendor("a", "Food", "Baku", 8.0, 2), vendor("b", "Food", "Baku", 3.0, 1));
+
+        leaderboard.onVendorChanged(VendorChangedEvent.upserted(vendor("b", "Food", "Baku", 9.0, 2)));
+        leaderboard.onVendorChanged(VendorChangedEvent.upserted(vendor("n", "Food", "Izmir", 2.0, 1)));
+        assertEquals(List.of("b", "a", "n"), top("food", null, 10));
+
+        Vendor move = new Vendor();
+        move.setCity("Izmir");
+        leaderboard.onVendorChanged(VendorChangedEvent.patched("a", move, Set.of("city")));
+        assertEquals(List.of("b"), top(null, "baku", 10));
+        assertEquals(List.of("a", "n"), top(null, "izmir", 10));
+        assertEquals("Food", leaderboard.top(null, "izmir", 1).get(0).getCategory()); // diğer alanlar korunur
+
+        leaderboard.onVendorChanged(VendorChangedEvent.deleted("b"));
+        assertEquals(List.of("a", "n"), top(null, null, 10));
+        assertEquals(List.of(), top(null, "baku", 10));
+    }
+
+    @Test
+    void changesDuringLoadAreAppliedOnTopOfIt() {
+        CompletableFuture<List<Vendor>> list = new CompletableFuture<>();
+        CompletableFuture<Void> loading = leaderboard.load(() -> list);
+        assertSame(loading, leaderboard.load(() -> fail("second load while one is running")));
+
+        leaderboard.onVendorChanged(VendorChangedEvent.upserted(vendor("a", "Food", "Baku", 5.0, 1)));
+        list.complete(List.of(vendor("a", "Food", "Baku", 1.0, 1), vendor("b", "Food", "Baku", 3.0, 1)));
+        loading.join();
+
+        assertEquals(List.of("a", "b"), top(null, null, 10));
+        assertTrue(leaderboard.isFresh());
+
+        leaderboard.onVendorChanged(VendorChangedEvent.invalidated());
+        leaderboard.drain();
+        assertFalse(leaderboard.isFresh());
+        assertTrue(leaderboard.isLoaded());
+    }
+
+    @Test
+    void publishingNeverWaitsForTheIndexLock() throws Exception {
+        load(vendor("a", "Food", "Baku", 4.0, 1));
+
+        CompletableFuture<Void> published;
+        synchronized (leaderboard) { // uzun bir sorgu ya da yükleme kilidi tutuyor
+            published = CompletableFuture.runAsync(() ->
+                    leaderboard.onVendorChanged(VendorChangedEvent.upserted(vendor("b", "Food", "Baku", 5.0, 1))));
+            published.get(5, TimeUnit.SECONDS); // yayınlayan (ör. gRPC) thread beklemeden döner
+        }
+
+        // applier thread kilit bırakılınca uygular; sorgu gerekmez
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (leaderboard.top(null, null, 10).size() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(List.of("b", "a"), leaderboard.top(null, null, 10).stream().map(Vendor::getId).toList());
+    }
+
+    @Test
+    void withoutMaxAgeOnlyAnInvalidationMakesItStale() {
+        VendorLeaderboard unbounded = new VendorLeaderboard(Duration.ZERO);
+        unbounded.load(() -> CompletableFuture.completedFuture(List.of())).join();
+        assertTrue(unbounded.isFresh());
+
+        unbounded.onVendorChanged(VendorChangedEvent.invalidated());
+        unbounded.drain();
+        assertFalse(unbounded.isFresh());
+    }
+}
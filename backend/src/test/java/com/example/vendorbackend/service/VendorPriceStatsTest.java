@@ -0,0 +1,82 @@
+package com.example.vendorbackend.service;
+
+import com.example.vendorbackend.dto.VendorStats;
+import com.example.vendorbackend.model.Vendor;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VendorPriceStatsTest {
+
+    private final VendorPriceStats stats = new VendorPriceStats(Duration.ofMinutes(5));
+
+    private static Vendor vendor(String id, String category, String city, String price) {
+        Vendor v = new Vendor();
+        v.setId(id);
+        v.setCategory(category);
+        v.setCity(city);
+        v.setPrice(price == null ? null : new BigDecimal(price));
+        return v;
+    }
+
+    @Test
+    void keepsPricesAndGroupsPerFacetAcrossEdits() {
+        stats.load(() -> CompletableFuture.completedFuture(List.of(
+                vendor("a", "Food", "Baku", "10.00"),
+                vendor("b", "Food", "Ganja", "30.00"),
+                vendor("c", "Print", "Baku", null)))).join();
+
+        VendorStats.PriceStats food = stats.price("Food", null);
+        assertEquals(2, food.getCount());
+        assertEquals(new BigDecimal("20.00"), food.getMean());
+        assertNull(stats.price("Print", null)); // fiyatı olan vendor yok
+        assertEquals(List.of("Food", "Print"), stats.categories(null));
+        assertEquals(List.of("Baku", "Ganja"), stats.cities("Food"));
+
+        Vendor change = new Vendor();
+        change.setCategory("Print");
+        change.setPrice(new BigDecimal("50.00"));
+        stats.onVendorChanged(VendorChangedEvent.patched("b", change, Set.of("category", "price")));
+        stats.onVendorChanged(VendorChangedEvent.deleted("c"));
+        stats.drain(); // query() gibi: kuyruktaki değişiklikler önce uygulanır
+
+        assertEquals(1, stats.price("Food", null).getCount());
+        assertEquals(new BigDecimal("50.00"), stats.price("Print", "Ganja").getMean());
+        assertEquals(new BigDecimal("30.00"), stats.price(null, null).getMean());
+        assertEquals(List.of("Print"), stats.categories("Ganja"));
+        assertEquals(List.of("Ganja"), stats.cities("Print"));
+    }
+
+    @Test
+    void countsUnratedAndAgreementlessVendorsPerFacet() {
+        Vendor signed = vendor("a", "Food", "Baku", null);
+        signed.setAgreementNumber("AG-1");
+        stats.load(() -> CompletableFuture.completedFuture(List.of(
+                signed,
+                vendor("b", "Food", "Ganja", null),
+                vendor("c", "Print", "Baku", null)))).join();
+
+        assertEquals(new VendorPriceStats.Counts(2, 2, 1), stats.counts("Food", null));
+        assertEquals(new VendorPriceStats.Counts(3, 3, 2), stats.counts(null, null));
+        assertEquals(new VendorPriceStats.Counts(0, 0, 0), stats.counts("Nothing", null));
+
+        Vendor rated = vendor("a", "Food", "Baku", null);
+        rated.setRatingCount(1);
+        rated.setRatingSum(4.0);
+        stats.onVendorChanged(VendorChangedEvent.rated(rated));
+        Vendor agreement = new Vendor();
+        agreement.setAgreementNumber("AG-2");
+        stats.onVendorChanged(VendorChangedEvent.patched("b", agreement, Set.of("agreementNumber")));
+        stats.drain();
+
+        assertEquals(new VendorPriceStats.Counts(2, 1, 0), stats.counts("Food", null));
+        assertEquals(new VendorPriceStats.Counts(1, 0, 0), stats.counts("Food", "Baku"));
+        assertEquals(new VendorPriceStats.Counts(2, 1, 1), stats.counts(null, "Baku"));
+    }
+}
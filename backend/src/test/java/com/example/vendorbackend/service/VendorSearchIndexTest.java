@@ -0,0 +1,82 @@
+package com.example.vendorbackend.service;
+
+import com.example.vendorbackend.model.Vendor;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VendorSearchIndexTest {
+
+    private final VendorSearchIndex index = new VendorSearchIndex(Duration.ofMinutes(5));
+
+    private static Vendor vendor(String id, String name, String category, String city, String notes) {
+        Vendor v = new Vendor();
+        v.setId(id);
+        v.setName(name);
+        v.setCategory(category);
+        v.setCity(city);
+        v.setNotes(notes);
+        return v;
+    }
+
+    private List<String> search(String query) {
+        index.drain(); // query() gibi: kuyruktaki değişiklikler önce uygulanır
+        return index.search(query, 10).stream().map(Vendor::getId).toList();
+    }
+
+    private void load(Vendor... vendors) {
+        index.load(() -> CompletableFuture.completedFuture(List.of(vendors))).join();
+    }
+
+    @Test
+    void matchesPrefixesTyposAndFoldedAccents() {
+        load(vendor("a", "Bakery Şəki", "Food", "Baku", null),
+             vendor("b", "Print House", "Printing", "Ganja", "ships to Baku"),
+             vendor("c", "Istanbul Kebab", "Food", "Izmir", null));
+
+        assertEquals(List.of("a"), search("baker"));        // önek
+        assertEquals(List.of("a"), search("bakrey"));       // yan yana iki harf yer değiştirmiş
+        assertEquals(List.of("b"), search("prnt"));         // eksik harf
+        assertEquals(List.of("a"), search("SEKI"));         // büyük harf, aksan yok
+        assertEquals(List.of("c"), search("ıstanbul"));
+        assertEquals(List.of("b"), search("print ganja"));  // her kelime eşleşmeli
+        assertEquals(List.of(), search("print izmir"));
+        assertEquals(List.of(), search("  ,  "));
+        assertEquals(List.of(), search("baz"));             // kısa kelimede yazım hatası toleransı yok
+    }
+
+    @Test
+    void ranksByFieldAndMatchQuality() {
+        load(vendor("notes", "Alpha", "Food", "Ganja", "near baku station"),
+             vendor("city", "Beta", "Food", "Baku", null),
+             vendor("prefix", "Bakuvi Foods", "Food", "Ganja", null),
+             vendor("typo", "Bako Bistro", "Food", "Ganja", null));
+
+        // ad ağırlığı önek ve yazım hatası cezasından sonra bile şehir ve notların önünde
+        assertEquals(List.of("prefix", "city", "typo", "notes"), search("baku"));
+        assertEquals(List.of("prefix", "city"), index.search("baku", 2).stream().map(Vendor::getId).toList());
+    }
+
+    @Test
+    void followsEditsAndDeletes() {
+        load(vendor("a", "Green Grocer", "Food", "Baku", null), vendor("b", "Blue Print", "Printing", "Baku", null));
+
+        index.onVendorChanged(VendorChangedEvent.upserted(vendor("n", "Green Garden", "Garden", "Ganja", null)));
+        assertEquals(List.of("a", "n"), search("green"));
+
+        Vendor rename = new Vendor();
+        rename.setName("Red Grocer");
+        index.onVendorChanged(VendorChangedEvent.patched("a", rename, Set.of("name")));
+        assertEquals(List.of("n"), search("green"));
+        assertEquals(List.of("a"), search("red baku"));     // değişmeyen alanlar korunur
+
+        index.onVendorChanged(VendorChangedEvent.deleted("b"));
+        assertEquals(List.of(), search("blue"));
+        assertEquals(List.of(), search("prnt"));
+    }
+}
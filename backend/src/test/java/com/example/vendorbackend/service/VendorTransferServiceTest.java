@@ -0,0 +1,134 @@
+package com.example.vendorbackend.service;
+
+import com.example.vendorbackend.dto.ImportReport;
+import com.example.vendorbackend.model.Vendor;
+import com.example.vendorbackend.repository.VendorStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VendorTransferServiceTest {
+
+    /** Sorted in-memory store; counts page reads to check that exports stream. */
+    static class MapVendorStore implements VendorStore {
+        final TreeMap<String, Vendor> docs = new TreeMap<>();
+        final AtomicInteger pageReads = new AtomicInteger();
+
+        @Override
+        public List<Vendor> findAll() {
+            return new ArrayList<>(docs.values());
+        }
+
+        @Override
+        public List<Vendor> findPage(int limit, String afterId) {
+            pageReads.incrementAndGet();
+            return (afterId == null ? docs : docs.tailMap(afterId, false)).values().stream().limit(limit).toList();
+        }
+
+        @Override
+        public Optional<Vendor> findById(String id) {
+            return Optional.ofNullable(docs.get(id));
+        }
+
+        @Override
+        public Map<String, Vendor> findAllById(Set<String> ids) {
+            Map<String, Vendor> result = new LinkedHashMap<>();
+            ids.forEach(id -> Optional.ofNullable(docs.get(id)).ifPresent(v -> result.put(id, v)));
+            return result;
+        }
+
+        @Override
+        public Vendor save(Vendor v) {
+            docs.put(v.getId(), v);
+            return v;
+        }
+
+        @Override
+        public void delete(String id) {
+            docs.remove(id);
+        }
+    }
+
+    private static VendorTransferService service(VendorStore store) {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        return new VendorTransferService(store, new VendorCache(registry, 100, Duration.ofMinutes(1)),
+                new StoreMetrics(registry), Jackson2ObjectMapperBuilder.json().build(), 4,
+                event -> { });
+    }
+
+    @Test
+    void csvImportReportsBadRowsAndKeepsTheRest() throws IOException {
+        MapVendorStore store = new MapVendorStore();
+        String csv = "name,id,city,price,notes,rating\r\n"
+                + "Acme,a1,Ankara,10.50,\"multi\nline, with \"\"quotes\"\"\",4.5\r\n"
+                + ",a2,Izmir,,,\r\n"
+                + "Beta,a3,Bursa,cheap,,\r\n"
+                + "\r\n"
+                + "Gamma,,Istanbul,,,\r\n";
+
+        ImportReport report = service(store).importCsv(new StringReader(csv));
+
+        assertEquals(2, report.getImported());
+        assertEquals(2, report.getFailed());
+        assertEquals(List.of(2L, 3L), report.getErrors().stream().map(ImportReport.RowError::getRow).toList());
+        assertEquals("a3", report.getErrors().get(1).getId());
+
+        Vendor acme = store.docs.get("a1");
+        assertEquals("multi\nline, with \"quotes\"", acme.getNotes());
+        assertEquals(new BigDecimal("10.50"), acme.getPrice());
+        assertEquals(0.0, acme.getRating()); // importlar puansız başlar
+        assertEquals(2, store.docs.size()); // Gamma'ya UUID verildi
+    }
+
+    @Test
+    void ndjsonImportSkipsMalformedLines() throws IOException {
+        MapVendorStore store = new MapVendorStore();
+        String ndjson = "{\"id\":\"n1\",\"name\":\"One\",\"unknownField\":1}\n"
+                + "{not json}\n"
+                + "{\"id\":\"n3\",\"name\":\"Three\",\"images\":[\"x.png\"]}\n";
+
+        ImportReport report = service(store).importNdjson(new StringReader(ndjson));
+
+        assertEquals(2, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals(2L, report.getErrors().get(0).getRow());
+        assertEquals(List.of("x.png"), store.docs.get("n3").getImages());
+    }
+
+    @Test
+    void exportStreamsPageByPageAndRoundTrips() throws IOException {
+        MapVendorStore source = new MapVendorStore();
+        int size = VendorTransferService.EXPORT_PAGE_SIZE * 2 + 1;
+        for (int i = 0; i < size; i++) {
+            Vendor v = new Vendor();
+            v.setId(String.format("v%05d", i));
+            v.setName("Vendor, \"" + i + "\"");
+            v.setImages(List.of("a.png", "b.png"));
+            source.docs.put(v.getId(), v);
+        }
+
+        StringWriter csv = new StringWriter();
+        service(source).exportCsv(csv);
+        assertEquals(3, source.pageReads.get());
+
+        MapVendorStore target = new MapVendorStore();
+        ImportReport report = service(target).importCsv(new StringReader(csv.toString()));
+        assertEquals(size, report.getImported());
+        assertEquals(source.docs.get("v00042").getName(), target.docs.get("v00042").getName());
+        assertEquals(List.of("a.png", "b.png"), target.docs.get("v00042").getImages());
+
+        StringWriter ndjson = new StringWriter();
+        service(target).exportNdjson(ndjson);
+        assertEquals(size, ndjson.toString().lines().count());
+    }
+}
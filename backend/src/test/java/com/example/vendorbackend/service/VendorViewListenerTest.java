@@ -0,0 +1,114 @@
+package com.example.vendorbackend.service;
+
+import com.example.vendorbackend.dto.VendorPage;
+import com.example.vendorbackend.model.Vendor;
+import com.google.cloud.firestore.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives the listener with stand-in snapshots instead of a live Firestore listener.
+ */
+class VendorViewListenerTest {
+
+    private final VendorView view = new VendorView();
+    private final VendorEventStream stream = mock(VendorEventStream.class);
+    private final VendorViewListener listener = new VendorViewListener(view, stream, Duration.ofMinutes(1));
+
+    private static DocumentChange change(DocumentChange.Type type, String id, String name) {
+        Vendor v = new Vendor();
+        v.setName(name);
+        QueryDocumentSnapshot doc = mock(QueryDocumentSnapshot.class);
+        when(doc.getId()).thenReturn(id);
+        when(doc.toObject(Vendor.class)).thenReturn(v);
+        DocumentChange change = mock(DocumentChange.class);
+        when(change.getType()).thenReturn(type);
+        when(change.getDocument()).thenReturn(doc);
+        return change;
+    }
+
+    private static QuerySnapshot snapshot(DocumentChange... changes) {
+        QuerySnapshot snap = mock(QuerySnapshot.class);
+        when(snap.getDocumentChanges()).thenReturn(List.of(changes));
+        return snap;
+    }
+
+    @Test
+    void appliesIncrementalChangesOnTopOfInitialSnapshot() {
+        assertFalse(view.isReady());
+
+        listener.onSnapshot(snapshot(
+                change(DocumentChange.Type.ADDED, "b", "Beta"),
+                change(DocumentChange.Type.ADDED, "a", "Alpha"),
+                change(DocumentChange.Type.ADDED, "c", "Gamma")), null);
+        assertTrue(view.isReady());
+        assertEquals(List.of("a", "b", "c"), view.findAll().stream().map(Vendor::getId).toList());
+
+        listener.onSnapshot(snapshot(
+                change(DocumentChange.Type.MODIFIED, "b", "Beta 2"),
+                change(DocumentChange.Type.REMOVED, "c", "Gamma")), null);
+        assertEquals(2, view.size());
+        assertEquals("Beta 2", view.findById("b").orElseThrow().getName());
+        assertTrue(view.findById("c").isEmpty());
+    }
+
+    @Test
+    void pagesFollowDocumentIdOrder() {
+        listener.onSnapshot(snapshot(
+                change(DocumentChange.Type.ADDED, "a", "A"),
+                change(DocumentChange.Type.ADDED, "b", "B"),
+                change(DocumentChange.Type.ADDED, "c", "C")), null);
+
+        VendorPage first = view.page(2, null);
+        assertEquals(List.of("a", "b"), first.getItems().stream().map(Vendor::getId).toList());
+        assertNotNull(first.getNextPageToken());
+
+        VendorPage second = view.page(2, VendorService.decodePageToken(first.getNextPageToken()));
+        assertEquals(List.of("c"), second.getItems().stream().map(Vendor::getId).toList());
+        assertNull(second.getNextPageToken());
+    }
+
+    @Test
+    void listenerErrorDropsTheView() {
+        listener.onSnapshot(snapshot(change(DocumentChange.Type.ADDED, "a", "A")), null);
+        assertTrue(view.isReady());
+
+        listener.onSnapshot(null, mock(FirestoreException.class));
+        assertFalse(view.isReady());
+        assertEquals(0, view.size());
+        verify(stream).feedFromSnapshots(false); // yeniden abone olana kadar yerel olaylar
+        listener.stop();
+    }
+
+    @Test
+    void feedsTheEventStreamWithEveryInstancesChanges() {
+        List<VendorChangedEvent> streamed = new ArrayList<>();
+        doAnswer(inv -> streamed.add(inv.getArgument(0))).when(stream).onSnapshotChange(any());
+
+        listener.onSnapshot(snapshot(
+                change(DocumentChange.Type.ADDED, "a", "A"),
+                change(DocumentChange.Type.ADDED, "b", "B")), null);
+        verify(stream).feedFromSnapshots(true);
+        assertEquals(List.of(VendorChangedEvent.Kind.INVALIDATED), // ilk snapshot: istemciler yeniden yükler
+                streamed.stream().map(VendorChangedEvent::kind).toList());
+
+        streamed.clear();
+        listener.onSnapshot(snapshot(
+                change(DocumentChange.Type.MODIFIED, "a", "A 2"),
+                change(DocumentChange.Type.REMOVED, "b", "B")), null);
+        assertEquals(List.of(VendorChangedEvent.Kind.UPSERTED, VendorChangedEvent.Kind.DELETED),
+                streamed.stream().map(VendorChangedEvent::kind).toList());
+        assertEquals("A 2", streamed.get(0).vendor().getName());
+        assertEquals("b", streamed.get(1).id());
+    }
+}
@@ -1,5 +1,6 @@
 import React, { createContext, useContext, useEffect, useState } from 'react';
 import { getAuth, onAuthStateChanged, signOut } from 'firebase/auth';
+import { API_ENDPOINTS } from './config/api';
 
 const AuthContext = createContext();
 
@@ -23,6 +24,16 @@ export function AuthProvider({ children }) {
   const logout = async () => {
     const auth = getAuth();
     try {
+      // Backend oturumu kapatsın (refresh token iptali + token cache); başarısız olsa da çıkış yapılır
+      try {
+        const token = auth.currentUser ? await auth.currentUser.getIdToken() : null;
+        if (token) {
+          await fetch(API_ENDPOINTS.AUTH.LOGOUT, {
+            method: 'POST',
+            headers: { Authorization: `Bearer ${token}` },
+          });
+        }
+      } catch {}
       await signOut(auth);
     } finally {
       try { localStorage.removeItem('token'); } catch {}
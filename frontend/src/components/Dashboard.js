@@ -112,33 +112,22 @@ const Dashboard = ({ setUser }) => {
                 return;
             }
 
-            const res = await fetch(API_ENDPOINTS.VENDORS.BASE, {
+            // Sunucu tarafı sayımlar: vendor listesinin tamamı indirilmez
+            const res = await fetch(API_ENDPOINTS.VENDORS.STATS(), {
                 headers: { Authorization: `Bearer ${token}`, "Content-Type": "application/json" },
             });
             if (!res.ok) {
                 if (res.status === 401) return;
                 const t = await res.text().catch(() => "");
-                console.error("Failed to fetch vendors:", t || `${res.status} ${res.statusText}`);
+                console.error("Failed to fetch vendor stats:", t || `${res.status} ${res.statusText}`);
                 return;
             }
 
-            const list = await res.json();
-            const vendors = Array.isArray(list) ? list : [];
-
-            const toInt = (x) => {
-                const n = Number(x);
-                return Number.isFinite(n) ? n : 0;
-            };
-            const normalized = vendors.map((v) => ({
-                ...v,
-                ratingCount: toInt(v?.ratingCount),
-                agreementNumber: (v?.agreementNumber ?? "").toString(),
-            }));
-
+            const stats = await res.json();
             setMetrics({
-                total: normalized.length,
-                pendingRatings: normalized.filter((v) => v.ratingCount === 0).length,
-                newRequests: normalized.filter((v) => !v.agreementNumber.trim()).length,
+                total: stats?.count ?? 0,
+                pendingRatings: stats?.unratedCount ?? 0,
+                newRequests: stats?.withoutAgreementCount ?? 0,
             });
         } catch (e) {
             console.error(e);
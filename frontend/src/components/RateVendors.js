@@ -1,10 +1,16 @@
-import React, { useEffect, useState } from "react";
+import React, { useEffect, useRef, useState } from "react";
 import { getAuth } from "firebase/auth";
 import { useNavigate } from "react-router-dom";
-import { API_ENDPOINTS, formatRating } from "../config/api";
+import { API_ENDPOINTS, VENDOR_PAGE_SIZE, formatRating } from "../config/api";
+import { subscribeToVendorChanges, applyVendorEvent } from "../utils/vendorStream";
+
+// Only what the rating cards render; the backend skips notes, images, bank details etc.
+const RATE_FIELDS = ["name", "rating", "ratingCount"];
+const pick = (vendor) => Object.fromEntries(["id", ...RATE_FIELDS].map((f) => [f, vendor[f]]));
 
 const RateVendors = () => {
   const [vendors, setVendors] = useState([]);
+  const [nextPageToken, setNextPageToken] = useState(null);
   const [userRatings, setUserRatings] = useState({}); // { vendorId: { price, time, quality } }
   const [isMobile, setIsMobile] = useState(window.innerWidth <= 768);
   const auth = getAuth();
@@ -17,7 +23,7 @@ const RateVendors = () => {
     return () => window.removeEventListener("resize", onResize);
   }, []);
 
-  const fetchVendors = async () => {
+  const fetchVendors = async (pageToken = null) => {
     try {
       const user = auth.currentUser;
       const token = user ? await user.getIdToken(true) : localStorage.getItem("token");
@@ -26,7 +32,7 @@ const RateVendors = () => {
         return;
       }
 
-      const res = await fetch(API_ENDPOINTS.VENDORS.BASE, {
+      const res = await fetch(API_ENDPOINTS.RATINGS.UNRATED(VENDOR_PAGE_SIZE, pageToken, RATE_FIELDS), {
         headers: {
           Authorization: `Bearer ${token}`,
           "Content-Type": "application/json",
@@ -35,7 +41,9 @@ const RateVendors = () => {
 
       if (res.ok) {
         const data = await res.json(); // ✅ JSON'u sadece 1 kez oku
-        setVendors(Array.isArray(data) ? data : []);
+        const items = Array.isArray(data?.items) ? data.items : [];
+        setVendors((prev) => (pageToken ? [...prev, ...items] : items));
+        setNextPageToken(data?.nextPageToken || null);
       } else if (res.status === 401) {
         alert("Unauthorized! Please login again.");
       } else {
@@ -53,6 +61,25 @@ const RateVendors = () => {
     // eslint-disable-next-line react-hooks/exhaustive-deps
   }, []);
 
+  // diğer kullanıcıların puanları ve düzenlemeleri canlı gelir; yalnızca kartın gösterdiği alanlar alınır
+  const reloadRef = useRef(fetchVendors);
+  reloadRef.current = fetchVendors;
+  useEffect(() => {
+    const apply = (type) => (data) =>
+      setVendors((prev) => applyVendorEvent(prev, type, type === "upserted" ? pick(data) : data));
+    return subscribeToVendorChanges(
+      async () => (auth.currentUser ? auth.currentUser.getIdToken() : localStorage.getItem("token")),
+      {
+        upserted: apply("upserted"),
+        patched: apply("patched"),
+        rated: apply("rated"),
+        deleted: apply("deleted"),
+        invalidated: () => reloadRef.current(),
+      }
+    );
+    // eslint-disable-next-line react-hooks/exhaustive-deps
+  }, []);
+
   const handleRatingChange = (vendorId, field, value) => {
     setUserRatings((prev) => ({
       ...prev,
@@ -223,7 +250,7 @@ const RateVendors = () => {
               {vendors.length === 0 ? (
                 <tr>
                   <td colSpan={6} style={{ ...styles.td, textAlign: "center", padding: 40, color: "#6c757d", fontStyle: "italic" }}>
-                    No vendors found
+                    No vendors left to rate
                   </td>
                 </tr>
               ) : (
@@ -293,6 +320,13 @@ const RateVendors = () => {
             </tbody>
           </table>
         </div>
+        {nextPageToken && (
+          <div style={{ display: "flex", justifyContent: "center", padding: 20 }}>
+            <button onClick={() => fetchVendors(nextPageToken)} style={styles.backBtn}>
+              Load more
+            </button>
+          </div>
+        )}
       </div>
     </div>
   );
@@ -1,16 +1,22 @@
 // src/components/VendorList.jsx
-import React, { useEffect, useState } from "react";
+import React, { useEffect, useRef, useState } from "react";
 import { useNavigate } from "react-router-dom";
 import logo from "../assets/prime-logo.png";
 import { getAuth } from "firebase/auth";
 import InfoTooltip from "./InfoTooltip";
-import { API_ENDPOINTS, formatRating } from "../config/api";
+import { API_ENDPOINTS, VENDOR_PAGE_SIZE, formatRating } from "../config/api";
 import { getVendorAttachment, downloadFile } from "../utils/vendorFiles";
+import { subscribeToVendorChanges, applyVendorEvent } from "../utils/vendorStream";
 
 export default function VendorList({ isAdmin }) {
     const [vendors, setVendors] = useState([]);
+    const [nextPageToken, setNextPageToken] = useState(null);
     const [filesByVendor, setFilesByVendor] = useState({}); // { [vendorId]: {name,url,type,size,...} | null }
     const [search, setSearch] = useState("");
+    const [searchResults, setSearchResults] = useState(null); // null = arama yok, liste sayfaları gösterilir
+    const [facetFilter, setFacetFilter] = useState({ category: "", city: "", rating: "" });
+    const [facetCounts, setFacetCounts] = useState({}); // { category: { Food: 12, ... }, city: {...}, rating: {...} }
+    const [total, setTotal] = useState(null);
     const [isMobile, setIsMobile] = useState(window.innerWidth <= 768);
 
     const navigate = useNavigate();
@@ -24,7 +30,7 @@ export default function VendorList({ isAdmin }) {
     }, []);
 
     // vendorları çek
-    const fetchVendors = async () => {
+    const fetchVendors = async (pageToken = null) => {
         try {
             const user = auth.currentUser;
             const token = user ? await user.getIdToken(true) : localStorage.getItem("token");
@@ -33,7 +39,8 @@ export default function VendorList({ isAdmin }) {
                 return;
             }
 
-            const res = await fetch(API_ENDPOINTS.VENDORS.BASE, {
+            // liste ve facet sayıları tek istekte; seçili facet'ler sunucuda bitmap kesişimiyle filtrelenir
+            const res = await fetch(API_ENDPOINTS.VENDORS.FACETS(facetFilter, VENDOR_PAGE_SIZE, pageToken), {
                 headers: {
                     Authorization: `Bearer ${token}`,
                     "Content-Type": "application/json",
@@ -42,7 +49,11 @@ export default function VendorList({ isAdmin }) {
 
             if (res.ok) {
                 const data = await res.json();
-                setVendors(Array.isArray(data) ? data : []);
+                const items = Array.isArray(data?.items) ? data.items : [];
+                setVendors((prev) => (pageToken ? [...prev, ...items] : items));
+                setNextPageToken(data?.nextPageToken || null);
+                setFacetCounts(data?.facets || {});
+                setTotal(data?.total ?? null);
             } else if (res.status === 401) {
                 alert("Unauthorized! Please login again.");
             } else {
@@ -58,14 +69,37 @@ export default function VendorList({ isAdmin }) {
     useEffect(() => {
         fetchVendors();
         // eslint-disable-next-line react-hooks/exhaustive-deps
+    }, [facetFilter]);
+
+    // başka kullanıcıların değişiklikleri: listeyi yeniden çekmek yerine sunucudan gelen delta uygulanır
+    const reloadRef = useRef(fetchVendors);
+    reloadRef.current = fetchVendors;
+    useEffect(() => {
+        const apply = (type) => (data) => {
+            setVendors((prev) => applyVendorEvent(prev, type, data));
+            setSearchResults((prev) => prev && applyVendorEvent(prev, type, data));
+        };
+        return subscribeToVendorChanges(
+            async () => (auth.currentUser ? auth.currentUser.getIdToken() : localStorage.getItem("token")),
+            {
+                upserted: apply("upserted"),
+                patched: apply("patched"),
+                rated: apply("rated"),
+                deleted: apply("deleted"),
+                invalidated: () => reloadRef.current(),
+            }
+        );
+        // eslint-disable-next-line react-hooks/exhaustive-deps
     }, []);
 
+    const filteredVendors = searchResults ?? vendors;
+
     // her vendor için storage/firestore'dan ek dosya metası çek
     useEffect(() => {
-        if (!vendors?.length) return;
+        if (!filteredVendors?.length) return;
         (async () => {
             const entries = await Promise.all(
-                vendors.map(async (v) => {
+                filteredVendors.map(async (v) => {
                     try {
                         const meta = await getVendorAttachment(v.id);
                         return [v.id, meta || null];
@@ -74,16 +108,39 @@ export default function VendorList({ isAdmin }) {
                     }
                 })
             );
-            setFilesByVendor(Object.fromEntries(entries));
+            setFilesByVendor((prev) => ({ ...prev, ...Object.fromEntries(entries) }));
         })();
-    }, [vendors]);
+    }, [filteredVendors]);
 
-    const normalized = (s) => (s ?? "").toString().toLowerCase();
-    const filteredVendors = vendors.filter((v) =>
-        ["category", "city", "name", "representative"].some((f) =>
-            normalized(v[f]).includes(normalized(search))
-        )
-    );
+    // arama sunucuda: yazmayı bırakınca (300ms) tek istek, yalnızca en son sorgunun sonucu gösterilir
+    useEffect(() => {
+        const q = search.trim();
+        if (!q) {
+            setSearchResults(null);
+            return;
+        }
+        let cancelled = false;
+        const timer = setTimeout(async () => {
+            try {
+                const user = auth.currentUser;
+                const token = user ? await user.getIdToken() : localStorage.getItem("token");
+                const res = await fetch(API_ENDPOINTS.VENDORS.SEARCH(q, VENDOR_PAGE_SIZE), {
+                    headers: { Authorization: `Bearer ${token}` },
+                });
+                if (!res.ok) throw new Error(`${res.status} ${res.statusText}`);
+                const data = await res.json();
+                if (!cancelled) setSearchResults(Array.isArray(data) ? data : []);
+            } catch (e) {
+                console.error(e);
+                if (!cancelled) setSearchResults([]);
+            }
+        }, 300);
+        return () => {
+            cancelled = true;
+            clearTimeout(timer);
+        };
+        // eslint-disable-next-line react-hooks/exhaustive-deps
+    }, [search]);
 
     const handleDelete = async (id) => {
         if (!window.confirm("Are you sure you want to delete this vendor?")) return;
@@ -102,7 +159,9 @@ export default function VendorList({ isAdmin }) {
             });
 
             if (res.ok || res.status === 204) {
+                if (vendors.some((v) => v.id === id)) setTotal((prev) => (prev == null ? prev : prev - 1));
                 setVendors((prev) => prev.filter((v) => v.id !== id));
+                setSearchResults((prev) => prev && prev.filter((v) => v.id !== id));
             } else {
                 const t = await res.text().catch(() => "");
                 alert("Failed to delete vendor: " + (t || `${res.status} ${res.statusText}`));
@@ -168,6 +227,14 @@ export default function VendorList({ isAdmin }) {
             fontSize: "14px",
             order: isMobile ? 1 : 2,
         },
+        facetSelect: {
+            padding: "10px",
+            border: "1px solid #ddd",
+            borderRadius: "8px",
+            fontSize: "14px",
+            backgroundColor: "#fff",
+            order: isMobile ? 1 : 2,
+        },
         addBtn: {
             padding: "10px 20px",
             backgroundColor: "#ff2d2d",
@@ -215,12 +282,31 @@ export default function VendorList({ isAdmin }) {
 
                 <input
                     type="text"
-                    placeholder="Search by Name, City or Category"
+                    placeholder="Search by Name, City, Category, Representative or Notes"
                     value={search}
                     onChange={(e) => setSearch(e.target.value)}
                     style={responsiveStyles.searchInput}
                 />
 
+                {[
+                    ["category", "All categories"],
+                    ["city", "All cities"],
+                    ["rating", "Any rating"],
+                ].map(([facet, anyLabel]) => (
+                    <select
+                        key={facet}
+                        value={facetFilter[facet]}
+                        onChange={(e) => setFacetFilter((prev) => ({ ...prev, [facet]: e.target.value }))}
+                        style={responsiveStyles.facetSelect}
+                        aria-label={`Filter by ${facet}`}
+                    >
+                        <option value="">{anyLabel}</option>
+                        {Object.entries(facetCounts[facet] || {}).map(([value, count]) => (
+                            <option key={value} value={value}>{`${value} (${count})`}</option>
+                        ))}
+                    </select>
+                ))}
+
                 <button
                     style={responsiveStyles.addBtn}
                     onClick={() => navigate("/add-vendor")}
@@ -433,6 +519,18 @@ export default function VendorList({ isAdmin }) {
                         )}
                     </div>
                 )}
+
+                {searchResults === null && total != null && (
+                    <div style={styles.totalRow}>{`${total} ${total === 1 ? "vendor" : "vendors"}`}</div>
+                )}
+
+                {nextPageToken && searchResults === null && (
+                    <div style={styles.loadMoreRow}>
+                        <button onClick={() => fetchVendors(nextPageToken)} style={styles.loadMoreBtn}>
+                            Load more
+                        </button>
+                    </div>
+                )}
             </div>
         </div>
     );
@@ -490,6 +588,27 @@ const styles = {
         transition: "background-color 0.2s",
     },
 
+    totalRow: {
+        padding: "10px 20px",
+        color: "#6c757d",
+        fontSize: "13px",
+        textAlign: "right",
+    },
+    loadMoreRow: {
+        display: "flex",
+        justifyContent: "center",
+        padding: "20px",
+    },
+    loadMoreBtn: {
+        backgroundColor: "#6c757d",
+        color: "white",
+        border: "none",
+        borderRadius: "4px",
+        padding: "10px 24px",
+        cursor: "pointer",
+        fontSize: "14px",
+    },
+
     // Mobile
     noDataMobile: {
         textAlign: "center",
@@ -7,14 +7,53 @@ export const API_ENDPOINTS = {
   AUTH: {
     LOGIN: `${API_BASE_URL}/api/auth/login`,
     SIGNUP: `${API_BASE_URL}/api/auth/signup`,
+    // ends every session of the caller (revokes refresh tokens, drops cached ID tokens)
+    LOGOUT: `${API_BASE_URL}/api/auth/logout`,
   },
   VENDORS: {
     BASE: `${API_BASE_URL}/api/vendors`,
     BY_ID: (id) => `${API_BASE_URL}/api/vendors/${id}`,
+    // fields: optional list of vendor fields to return (sparse fieldset), e.g. ["name", "rating"]
+    PAGE: (limit, pageToken, fields) =>
+      `${API_BASE_URL}/api/vendors?limit=${limit}` +
+      (pageToken ? `&pageToken=${encodeURIComponent(pageToken)}` : "") +
+      (fields ? `&fields=${fields.join(",")}` : ""),
     RATING: (id) => `${API_BASE_URL}/api/vendors/${id}/rating`,
+    // Server-Sent Events: upserted / patched / rated / deleted / invalidated (see utils/vendorStream.js)
+    STREAM: `${API_BASE_URL}/api/vendors/stream`,
+    // Page of vendors matching { category, city, rating } (arrays or single values) plus per-facet counts
+    FACETS: (selected = {}, limit, pageToken) => {
+      const query = new URLSearchParams();
+      Object.entries(selected).forEach(([facet, values]) =>
+        [].concat(values).filter((value) => value != null && value !== "").forEach((value) => query.append(facet, value))
+      );
+      if (limit) query.append("limit", limit);
+      if (pageToken) query.append("pageToken", pageToken);
+      return `${API_BASE_URL}/api/vendors/facets?${query.toString()}`;
+    },
+    // Full-text search (prefix and typo tolerant), best matches first; backend caps limit at 100
+    SEARCH: (q, limit = 20) =>
+      `${API_BASE_URL}/api/vendors/search?q=${encodeURIComponent(q)}&limit=${limit}`,
+    // Counts, average rating and price quantiles; optional { category, city, groupBy: "category" | "city" }
+    STATS: (params = {}) => {
+      const query = new URLSearchParams(
+        Object.entries(params).filter(([, value]) => value != null && value !== "")
+      ).toString();
+      return `${API_BASE_URL}/api/vendors/stats${query ? `?${query}` : ""}`;
+    },
+  },
+  RATINGS: {
+    // Vendors the signed-in user has not rated yet; same paging and fields as VENDORS.PAGE
+    UNRATED: (limit, pageToken, fields) =>
+      `${API_BASE_URL}/api/rate-vendors?limit=${limit}` +
+      (pageToken ? `&pageToken=${encodeURIComponent(pageToken)}` : "") +
+      (fields ? `&fields=${fields.join(",")}` : ""),
   },
 };
 
+// Page size used by list screens (backend caps it at 200)
+export const VENDOR_PAGE_SIZE = 50;
+
 // Helper function to get auth headers
 export const getAuthHeaders = () => {
   const token = localStorage.getItem("token");
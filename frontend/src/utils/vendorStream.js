@@ -0,0 +1,91 @@
+// src/utils/vendorStream.js
+import { API_ENDPOINTS } from "../config/api";
+
+/**
+ * GET /api/vendors/stream'e abone olur ve gelen olayları handlers'a iletir:
+ * { upserted(vendor), patched({id, fields}), rated({id, rating, ratingCount}), deleted({id}), invalidated() }.
+ * EventSource Authorization header gönderemediği için fetch + ReadableStream ile okunur.
+ * Bağlantı koparsa (sunucu yavaş istemciyi düşürdüyse de) artan beklemeyle yeniden bağlanır ve
+ * arada kaçan olaylar olabileceği için invalidated() çağrılır. Dönen fonksiyon aboneliği kapatır.
+ */
+export function subscribeToVendorChanges(getToken, handlers) {
+    const controller = new AbortController();
+    let retryDelay = 2000;
+    let connectedBefore = false;
+
+    const dispatch = (name, data) => {
+        const handler = handlers[name];
+        if (!handler) return;
+        try {
+            handler(data ? JSON.parse(data) : {});
+        } catch (e) {
+            console.error("Bad vendor stream event", name, e);
+        }
+    };
+
+    const connect = async () => {
+        while (!controller.signal.aborted) {
+            try {
+                const token = await getToken();
+                const res = await fetch(API_ENDPOINTS.VENDORS.STREAM, {
+                    headers: { Authorization: `Bearer ${token}`, Accept: "text/event-stream" },
+                    signal: controller.signal,
+                });
+                if (!res.ok || !res.body) throw new Error(`${res.status} ${res.statusText}`);
+                if (connectedBefore) dispatch("invalidated");
+                connectedBefore = true;
+                retryDelay = 2000;
+
+                const reader = res.body.pipeThrough(new TextDecoderStream()).getReader();
+                let buffer = "";
+                for (;;) {
+                    const { value, done } = await reader.read();
+                    if (done) break;
+                    buffer += value;
+                    // olaylar boş satırla ayrılır; yorum satırları (":heartbeat") atlanır
+                    let end;
+                    while ((end = buffer.indexOf("\n\n")) >= 0) {
+                        const block = buffer.slice(0, end);
+                        buffer = buffer.slice(end + 2);
+                        let name = "message";
+                        const data = [];
+                        block.split("\n").forEach((line) => {
+                            if (line.startsWith("event:")) name = line.slice(6).trim();
+                            else if (line.startsWith("data:")) data.push(line.slice(5));
+                        });
+                        if (data.length) dispatch(name, data.join("\n"));
+                    }
+                }
+            } catch (e) {
+                if (controller.signal.aborted) return;
+                console.warn("Vendor stream disconnected", e);
+            }
+            await new Promise((resolve) => setTimeout(resolve, retryDelay));
+            retryDelay = Math.min(retryDelay * 2, 30000);
+        }
+    };
+
+    connect();
+    return () => controller.abort();
+}
+
+/**
+ * Bir stream olayını ekrandaki vendor listesine uygular (listede olmayan vendor'lar eklenmez;
+ * sayfalı listede yerini bilemeyiz). invalidated için liste olduğu gibi döner, çağıran yeniden yükler.
+ */
+export function applyVendorEvent(vendors, type, data) {
+    switch (type) {
+        case "upserted":
+            return vendors.map((v) => (v.id === data.id ? { ...v, ...data } : v));
+        case "patched":
+            return vendors.map((v) => (v.id === data.id ? { ...v, ...data.fields } : v));
+        case "rated":
+            return vendors.map((v) =>
+                v.id === data.id ? { ...v, rating: data.rating, ratingCount: data.ratingCount } : v
+            );
+        case "deleted":
+            return vendors.filter((v) => v.id !== data.id);
+        default:
+            return vendors;
+    }
+}
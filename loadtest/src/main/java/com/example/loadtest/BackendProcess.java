@@ -0,0 +1,119 @@
+package com.example.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Starts the packaged backend jar with the load-test profile and waits for /actuator/health.
+ * The backend's output goes to target/backend.log. Environment variables (e.g. FIRESTORE_EMULATOR_HOST)
+ * are inherited, so the same harness drives the emulator when the "jpa" profile is left out.
+ */
+final class BackendProcess implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+    private static final Path LOG = Path.of("target", "backend.log");
+
+    private final Process process;
+    final URI baseUri;
+
+    private BackendProcess(Process process, URI baseUri) {
+        this.process = process;
+        this.baseUri = baseUri;
+    }
+
+    static BackendProcess start(Options options) throws IOException, InterruptedException {
+        if (!Files.isRegularFile(options.backendJar)) {
+            throw new IllegalStateException("Backend jar not found: " + options.backendJar.toAbsolutePath()
+                    + " (run mvn -DskipTests package in backend/ first)");
+        }
+        String java = options.java != null
+                ? options.java
+                : Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        List<String> command = new ArrayList<>(List.of(java));
+        if (options.virtualThreads) {
+            // Sanal thread bir monitor tutarken park ederse stack'i log'a yazılır (bkz. pinnedReport)
+            command.add("-Djdk.tracePinnedThreads=short");
+        }
+        command.addAll(List.of(
+                "-jar", options.backendJar.toString(),
+                "--spring.profiles.active=" + options.profiles,
+                "--server.port=" + options.port,
+                "--spring.threads.virtual.enabled=" + options.virtualThreads));
+        if (options.tomcatThreads != null) command.add("--server.tomcat.threads.max=" + options.tomcatThreads);
+        if (options.storeLatency != null) command.add("--loadtest.store.latency=" + options.storeLatency);
+        if (options.storeJitter != null) command.add("--loadtest.store.jitter=" + options.storeJitter);
+
+        Files.createDirectories(LOG.getParent());
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(LOG.toFile())
+                .start();
+        BackendProcess backend = new BackendProcess(process, URI.create("http://localhost:" + options.port));
+        try {
+            backend.awaitHealthy();
+        } catch (RuntimeException | InterruptedException e) {
+            backend.close();
+            throw e;
+        }
+        return backend;
+    }
+
+    private void awaitHealthy() throws InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest health = HttpRequest.newBuilder(baseUri.resolve("/actuator/health"))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Backend exited with code " + process.exitValue()
+                        + ", see target/backend.log");
+            }
+            try {
+                HttpResponse<String> response = client.send(health, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() == 200 && response.body().contains("\"UP\"")) {
+                    return;
+                }
+            } catch (IOException notYet) {
+                // Henüz dinlemiyor
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("Backend did not become healthy within " + STARTUP_TIMEOUT);
+    }
+
+    /**
+     * Carrier pinning seen by -Djdk.tracePinnedThreads: each report is a stack whose frames holding a
+     * monitor end in "<== monitors:N". Returns those frames with their counts (empty = no pinning).
+     */
+    Map<String, Integer> pinnedReport() throws IOException {
+        Map<String, Integer> frames = new TreeMap<>();
+        if (!Files.exists(LOG)) return frames;
+        try (Stream<String> lines = Files.lines(LOG)) {
+            lines.map(String::trim)
+                    .filter(line -> line.contains("<== monitors:"))
+                    .forEach(line -> frames.merge(line, 1, Integer::sum));
+        }
+        return frames;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+}
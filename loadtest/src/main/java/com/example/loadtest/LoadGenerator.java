@@ -0,0 +1,139 @@
+package com.example.loadtest;
+
+import com.example.loadtest.WorkloadMix.Operation;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop generator: requests are scheduled at a fixed rate regardless of how fast the backend
+ * answers (a slow backend builds up in-flight requests instead of lowering the offered load), and
+ * latency is taken from the scheduled send time.
+ */
+final class LoadGenerator {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final URI base;
+    private final Options options;
+    private final Random random;
+    private final ExecutorService executor = Executors.newFixedThreadPool(
+            Math.max(4, Runtime.getRuntime().availableProcessors()));
+    private final HttpClient client;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    LoadGenerator(URI base, Options options) {
+        this.base = base;
+        this.options = options;
+        this.random = new Random(options.seed);
+        this.client = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    static String vendorId(int i) {
+        return String.format(Locale.ROOT, "lt-%06d", i);
+    }
+
+    private String token() {
+        return "Bearer loadtest-u" + random.nextInt(options.users);
+    }
+
+    /** Creates --vendors vendors (lt-000000 …) through the API; not part of the measurement. */
+    void seed() throws Exception {
+        int parallel = 32;
+        CompletableFuture<?>[] batch = new CompletableFuture<?>[parallel];
+        for (int i = 0; i < options.vendors; i += parallel) {
+            int n = Math.min(parallel, options.vendors - i);
+            for (int j = 0; j < n; j++) {
+                String id = vendorId(i + j);
+                HttpRequest request = json(HttpRequest.newBuilder(base.resolve("/api/vendors")),
+                        "{\"id\":\"" + id + "\",\"name\":\"Load test vendor " + id + "\",\"category\":\"Catering\","
+                                + "\"city\":\"Baku\",\"price\":" + (100 + (i + j) % 900) + "}", "POST");
+                batch[j] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                        .thenAccept(response -> {
+                            if (response.statusCode() / 100 != 2) {
+                                throw new IllegalStateException("Seeding " + id + " failed: HTTP " + response.statusCode());
+                            }
+                        });
+            }
+            CompletableFuture.allOf(Arrays.copyOf(batch, n)).get(1, TimeUnit.MINUTES);
+        }
+    }
+
+    private HttpRequest json(HttpRequest.Builder builder, String body, String method) {
+        return builder.timeout(REQUEST_TIMEOUT)
+                .header("Authorization", token())
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest request(Operation op) {
+        String id = vendorId(random.nextInt(options.vendors));
+        return switch (op) {
+            case LIST -> HttpRequest.newBuilder(base.resolve("/api/vendors?limit=50"))
+                    .timeout(REQUEST_TIMEOUT).header("Authorization", token()).GET().build();
+            case GET -> HttpRequest.newBuilder(base.resolve("/api/vendors/" + id))
+                    .timeout(REQUEST_TIMEOUT).header("Authorization", token()).GET().build();
+            case PUT -> json(HttpRequest.newBuilder(base.resolve("/api/vendors/" + id)),
+                    "{\"notes\":\"updated " + random.nextInt(1_000_000) + "\",\"city\":\"Baku\"}", "PUT");
+            case RATE -> json(HttpRequest.newBuilder(base.resolve("/api/rate-vendors")),
+                    "{\"vendorId\":\"" + id + "\",\"rating\":" + random.nextInt(6) + "}", "POST");
+        };
+    }
+
+    /** Runs warm-up plus measurement at --rate; only requests scheduled after the warm-up are recorded. */
+    Report run() throws InterruptedException {
+        Report report = new Report();
+        long intervalNanos = (long) (1e9 / options.rate);
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup.toNanos();
+        long end = measureFrom + options.duration.toNanos();
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) break;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+
+            Operation op = options.mix.next(random);
+            boolean measured = intended >= measureFrom;
+            if (inFlight.get() >= options.maxInFlight) {
+                if (measured) report.dropped(op);
+                continue;
+            }
+            HttpRequest request = request(op);
+            inFlight.incrementAndGet();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        inFlight.decrementAndGet();
+                        if (measured) {
+                            boolean ok = error == null && response.statusCode() / 100 == 2;
+                            report.record(op, System.nanoTime() - intended, ok);
+                        }
+                    });
+        }
+
+        // Kalan istekleri bekle
+        long drainDeadline = System.nanoTime() + REQUEST_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(50);
+        }
+        executor.shutdownNow();
+        return report;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.loadtest;
+
+import java.net.URI;
+import java.util.Map;
+
+/**
+ * Entry point. Boots the backend (or uses --target), seeds vendors, drives the configured mix at
+ * --rate for --warmup + --duration and prints throughput, latency percentiles and error rates.
+ * See loadtest/README.md for the options.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+
+        System.out.println("vendor-loadtest");
+        for (Map.Entry<String, String> e : options.raw.entrySet()) {
+            System.out.println("  --" + e.getKey() + "=" + e.getValue());
+        }
+        System.out.printf("  rate=%.1f/s warmup=%s duration=%s vendors=%d users=%d mix=%s seed=%d%n",
+                options.rate, options.warmup, options.duration, options.vendors, options.users,
+                options.mix, options.seed);
+
+        if (options.target != null) {
+            run(URI.create(options.target), options);
+            return;
+        }
+        System.out.println("Starting backend " + options.backendJar + " with profiles " + options.profiles + " ...");
+        try (BackendProcess backend = BackendProcess.start(options)) {
+            run(backend.baseUri, options);
+            if (options.virtualThreads) {
+                Map<String, Integer> pinned = backend.pinnedReport();
+                System.out.println();
+                if (pinned.isEmpty()) {
+                    System.out.println("virtual threads: no pinned carriers reported");
+                } else {
+                    System.out.println("virtual threads: carrier pinned while holding a monitor at");
+                    pinned.forEach((frame, count) -> System.out.printf("  %5d x %s%n", count, frame));
+                }
+            }
+        }
+    }
+
+    private static void run(URI base, Options options) throws Exception {
+        LoadGenerator generator = new LoadGenerator(base, options);
+        System.out.println("Seeding " + options.vendors + " vendors ...");
+        generator.seed();
+        System.out.println("Running ...");
+        Report report = generator.run();
+        System.out.println();
+        report.print(System.out, options.duration);
+    }
+}
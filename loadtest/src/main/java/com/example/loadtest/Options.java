@@ -0,0 +1,79 @@
+package com.example.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** Command line options ({@code --key=value}); every option has a default so a bare run works. */
+final class Options {
+
+    final Map<String, String> raw = new LinkedHashMap<>();
+
+    /** Base URL of an already running backend; when absent the backend jar is started locally. */
+    final String target;
+    final Path backendJar;
+    final String profiles;
+    final int port;
+    final String storeLatency;
+    final String storeJitter;
+    /** Backend thread mode: virtual threads (JDK 21+ runtime) or Tomcat's platform pool. */
+    final boolean virtualThreads;
+    final String tomcatThreads;
+    final String java;
+
+    final double rate;
+    final Duration duration;
+    final Duration warmup;
+    final int vendors;
+    final int users;
+    final WorkloadMix mix;
+    final int maxInFlight;
+    final long seed;
+
+    private Options(Map<String, String> args) {
+        raw.putAll(args);
+        target = args.get("target");
+        backendJar = Path.of(args.getOrDefault("backend-jar", "../backend/target/vendor-backend-0.0.1-SNAPSHOT.jar"));
+        profiles = args.getOrDefault("profiles", "jpa,loadtest");
+        port = Integer.parseInt(args.getOrDefault("port", "18080"));
+        storeLatency = args.get("store-latency");
+        storeJitter = args.get("store-jitter");
+        virtualThreads = Boolean.parseBoolean(args.getOrDefault("virtual-threads", "false"));
+        tomcatThreads = args.get("tomcat-threads");
+        java = args.get("java");
+
+        rate = Double.parseDouble(args.getOrDefault("rate", "200"));
+        duration = parseDuration(args.getOrDefault("duration", "60s"));
+        warmup = parseDuration(args.getOrDefault("warmup", "10s"));
+        vendors = Integer.parseInt(args.getOrDefault("vendors", "500"));
+        users = Integer.parseInt(args.getOrDefault("users", "1000"));
+        mix = WorkloadMix.parse(args.getOrDefault("mix", "list=40,get=40,put=10,rate=10"));
+        maxInFlight = Integer.parseInt(args.getOrDefault("max-in-flight", "2000"));
+        seed = Long.parseLong(args.getOrDefault("seed", "42"));
+
+        if (rate <= 0) throw new IllegalArgumentException("--rate must be > 0");
+        if (vendors <= 0 || users <= 0) throw new IllegalArgumentException("--vendors and --users must be > 0");
+    }
+
+    static Options parse(String[] args) {
+        Map<String, String> map = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            map.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return new Options(map);
+    }
+
+    /** Accepts 500ms, 30s, 2m. */
+    static Duration parseDuration(String value) {
+        String v = value.trim().toLowerCase();
+        if (v.endsWith("ms")) return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+        if (v.endsWith("s")) return Duration.ofSeconds(Long.parseLong(v.substring(0, v.length() - 1)));
+        if (v.endsWith("m")) return Duration.ofMinutes(Long.parseLong(v.substring(0, v.length() - 1)));
+        throw new IllegalArgumentException("Bad duration: " + value);
+    }
+}
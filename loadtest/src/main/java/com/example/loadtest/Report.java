@@ -0,0 +1,79 @@
+package com.example.loadtest;
+
+import com.example.loadtest.WorkloadMix.Operation;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-operation latency histograms (microseconds, measured from the intended send time so a
+ * stalled backend is not hidden by the generator waiting on it) plus error counts.
+ */
+final class Report {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    static final class Stats {
+        final Histogram latency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        final LongAdder errors = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+    }
+
+    private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+
+    Report() {
+        for (Operation op : Operation.values()) stats.put(op, new Stats());
+    }
+
+    void record(Operation op, long latencyNanos, boolean ok) {
+        Stats s = stats.get(op);
+        s.latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_LATENCY_MICROS));
+        if (!ok) s.errors.increment();
+    }
+
+    /** Not sent because --max-in-flight requests were already outstanding; counted as errors. */
+    void dropped(Operation op) {
+        stats.get(op).dropped.increment();
+    }
+
+    Stats stats(Operation op) {
+        return stats.get(op);
+    }
+
+    void print(PrintStream out, Duration measured) {
+        double seconds = measured.toNanos() / 1e9;
+        out.printf("%-28s %9s %9s %8s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "req/s", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        Histogram all = new Histogram(MAX_LATENCY_MICROS, 3);
+        long totalErrors = 0;
+        for (Map.Entry<Operation, Stats> e : stats.entrySet()) {
+            Stats s = e.getValue();
+            long errors = s.errors.sum() + s.dropped.sum();
+            totalErrors += errors;
+            all.add(s.latency);
+            if (s.latency.getTotalCount() == 0 && errors == 0) continue;
+            line(out, e.getKey().label, s.latency, errors, seconds);
+        }
+        line(out, "total", all, totalErrors, seconds);
+        long attempted = all.getTotalCount() + stats.values().stream().mapToLong(s -> s.dropped.sum()).sum();
+        out.printf("%nerror rate: %.3f%% (%d of %d)%n",
+                attempted == 0 ? 0.0 : 100.0 * totalErrors / attempted, totalErrors, attempted);
+    }
+
+    private static void line(PrintStream out, String label, Histogram h, long errors, double seconds) {
+        out.printf("%-28s %9d %9.1f %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                label, h.getTotalCount(), h.getTotalCount() / seconds, errors,
+                ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(90)),
+                ms(h.getValueAtPercentile(99)), ms(h.getValueAtPercentile(99.9)), ms(h.getMaxValue()));
+    }
+
+    private static double ms(long micros) {
+        return micros / 1000.0;
+    }
+}
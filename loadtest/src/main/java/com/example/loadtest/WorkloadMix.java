@@ -0,0 +1,63 @@
+package com.example.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/** Weighted choice between the request types, e.g. {@code list=40,get=40,put=10,rate=10}. */
+final class WorkloadMix {
+
+    enum Operation {
+        LIST("GET /api/vendors?limit=50"),
+        GET("GET /api/vendors/{id}"),
+        PUT("PUT /api/vendors/{id}"),
+        RATE("POST /api/rate-vendors");
+
+        final String label;
+
+        Operation(String label) {
+            this.label = label;
+        }
+    }
+
+    private final Map<Operation, Integer> weights;
+    private final Operation[] table; // her ağırlık birimi için bir giriş; seçim O(1)
+
+    private WorkloadMix(Map<Operation, Integer> weights) {
+        this.weights = weights;
+        int total = weights.values().stream().mapToInt(Integer::intValue).sum();
+        if (total <= 0) {
+            throw new IllegalArgumentException("Workload mix needs at least one positive weight");
+        }
+        table = new Operation[total];
+        int i = 0;
+        for (Map.Entry<Operation, Integer> e : weights.entrySet()) {
+            for (int n = 0; n < e.getValue(); n++) table[i++] = e.getKey();
+        }
+    }
+
+    static WorkloadMix parse(String spec) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split("=");
+            if (kv.length != 2) throw new IllegalArgumentException("Bad mix entry: " + part);
+            int weight = Integer.parseInt(kv[1].trim());
+            if (weight < 0) throw new IllegalArgumentException("Negative weight: " + part);
+            weights.put(Operation.valueOf(kv[0].trim().toUpperCase()), weight);
+        }
+        return new WorkloadMix(weights);
+    }
+
+    Operation next(Random random) {
+        return table[random.nextInt(table.length)];
+    }
+
+    Map<Operation, Integer> weights() {
+        return weights;
+    }
+
+    @Override
+    public String toString() {
+        return weights.toString();
+    }
+}
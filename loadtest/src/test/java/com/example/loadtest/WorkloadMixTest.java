@@ -0,0 +1,40 @@
+package com.example.loadtest;
+
+import com.example.loadtest.WorkloadMix.Operation;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkloadMixTest {
+
+    @Test
+    void followsWeights() {
+        WorkloadMix mix = WorkloadMix.parse("list=50, get=30, put=0, rate=20");
+        Map<Operation, Integer> seen = new EnumMap<>(Operation.class);
+        Random random = new Random(1);
+        for (int i = 0; i < 100_000; i++) seen.merge(mix.next(random), 1, Integer::sum);
+
+        assertNull(seen.get(Operation.PUT));
+        assertEquals(0.5, seen.get(Operation.LIST) / 100_000.0, 0.01);
+        assertEquals(0.2, seen.get(Operation.RATE) / 100_000.0, 0.01);
+    }
+
+    @Test
+    void rejectsBadSpecs() {
+        assertThrows(IllegalArgumentException.class, () -> WorkloadMix.parse("list=0"));
+        assertThrows(IllegalArgumentException.class, () -> WorkloadMix.parse("browse=10"));
+        assertThrows(IllegalArgumentException.class, () -> WorkloadMix.parse("list"));
+    }
+
+    @Test
+    void parsesDurations() {
+        assertEquals(Duration.ofMillis(250), Options.parseDuration("250ms"));
+        assertEquals(Duration.ofSeconds(30), Options.parseDuration("30s"));
+        assertEquals(Duration.ofMinutes(2), Options.parseDuration("2m"));
+    }
+}